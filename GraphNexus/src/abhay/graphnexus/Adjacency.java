@@ -0,0 +1,28 @@
+package abhay.graphnexus;
+
+/**
+ * Read access to the current adjacency of a graph that changes edge by edge, by vertex id.
+ * The neighbors of u are at positions 0 .. degree(u) - 1, in no particular order.
+ */
+interface Adjacency {
+
+    /**
+     * @return The number of neighbors of u.
+     */
+    int degree(int u);
+
+    /**
+     * @return The neighbor of u at position i.
+     */
+    int target(int u, int i);
+
+    /**
+     * @return The weight of the edge to the neighbor of u at position i.
+     */
+    int weight(int u, int i);
+
+    /**
+     * @return The position of v among the neighbors of u, or -1 if (u,v) is not an edge.
+     */
+    int indexOf(int u, int v);
+}
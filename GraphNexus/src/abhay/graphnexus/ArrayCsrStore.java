@@ -0,0 +1,61 @@
+package abhay.graphnexus;
+
+/**
+ * A CSR adjacency held in on-heap int arrays. The weight range is recorded once, when the store is built.
+ */
+final class ArrayCsrStore implements CsrStore {
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+    private final int minWeight;
+    private final int maxWeight;
+
+    ArrayCsrStore(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        int min = weights.length == 0 ? 0 : Integer.MAX_VALUE;
+        int max = 0;
+        for (int weight : weights) {
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+    }
+
+    @Override
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int entryCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int offset(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public int target(int i) {
+        return targets[i];
+    }
+
+    @Override
+    public int weight(int i) {
+        return weights[i];
+    }
+
+    @Override
+    public int minWeight() {
+        return minWeight;
+    }
+
+    @Override
+    public int maxWeight() {
+        return maxWeight;
+    }
+}
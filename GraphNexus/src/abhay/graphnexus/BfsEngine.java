@@ -0,0 +1,57 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first search for graphs whose edges all have the same weight w, where the shortest
+ * distance of a vertex is w times its BFS level. Runs in O(V + E) with a reused queue.
+ */
+final class BfsEngine implements ShortestPathEngine {
+    private int[] queue = new int[0];
+    private final SearchCounters counters = new SearchCounters();
+
+    @Override
+    public void distances(CsrStore graph, int source, int[] dist, int[] parent) {
+        int n = graph.vertexCount();
+        Arrays.fill(dist, 0, n, Integer.MAX_VALUE);
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        if (source < 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return;
+        }
+        if (queue.length < n) {
+            queue = new int[n];
+        }
+        int weight = graph.maxWeight();
+        dist[source] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        long scanned = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            int newDist = dist[u] + weight;
+            // Distances that overflow int are left unreachable, as in DijkstraEngine
+            if (newDist < 0) break;
+            int start = graph.offset(u), end = graph.offset(u + 1);
+            scanned += end - start;
+            for (int slot = start; slot < end; slot++) {
+                int v = graph.target(slot);
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = newDist;
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                    queue[tail++] = v;
+                }
+            }
+        }
+        counters.set(tail, head, 0, 0, scanned, tail);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+}
@@ -0,0 +1,147 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel Boruvka. Every round, each component picks its lightest outgoing edge concurrently,
+ * and the picked edges are contracted with a {@link ConcurrentUnionFind}. At least half of the
+ * remaining components merge per round, so there are O(log V) rounds of O(E) parallel work.
+ * Spans every component, giving a minimum spanning forest.
+ *
+ * Edges are compared by (weight, canonical entry index), where the canonical entry of an edge is
+ * its copy in the row of the smaller endpoint. This is a strict total order, so the picked edges
+ * never form a cycle even when weights tie.
+ */
+final class BoruvkaMstEngine implements MstEngine {
+    private static final long NONE = Long.MAX_VALUE;
+    private static final int CHUNK = 4096;
+
+    private final ForkJoinPool pool;
+    private final SearchCounters counters = new SearchCounters();
+
+    BoruvkaMstEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int[] spanningEdges(CsrStore graph) {
+        int n = graph.vertexCount();
+        if (n == 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return new int[0];
+        }
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        int[] canonical = new int[graph.entryCount()];
+        int[] sources = new int[graph.entryCount()];
+        run(chunks, c -> {
+            for (int u = c * CHUNK, end = Math.min(n, u + CHUNK); u < end; u++) {
+                for (int slot = graph.offset(u); slot < graph.offset(u + 1); slot++) {
+                    int v = graph.target(slot);
+                    sources[slot] = u;
+                    canonical[slot] = u <= v ? slot : mirror(graph, v, u);
+                }
+            }
+        });
+
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        AtomicLongArray best = new AtomicLongArray(n);
+        int[] edges = new int[2 * (n - 1)];
+        int chosen = 0;
+        long picks = 0, duplicates = 0, scanned = 0;
+        while (true) {
+            for (int i = 0; i < n; i++) {
+                best.set(i, NONE);
+            }
+            // Each vertex offers its lightest edge leaving its component to the component's root
+            run(chunks, c -> {
+                for (int u = c * CHUNK, end = Math.min(n, u + CHUNK); u < end; u++) {
+                    int root = sets.find(u);
+                    long lightest = NONE;
+                    for (int slot = graph.offset(u); slot < graph.offset(u + 1); slot++) {
+                        long key = ((long) graph.weight(slot) << 32) | canonical[slot];
+                        if (key < lightest && sets.find(graph.target(slot)) != root) {
+                            lightest = key;
+                        }
+                    }
+                    if (lightest != NONE) {
+                        long current;
+                        while (lightest < (current = best.get(root)) && !best.compareAndSet(root, current, lightest)) {
+                            // Retry until this key is stored or a lighter one is
+                        }
+                    }
+                }
+            });
+            scanned += graph.entryCount();
+
+            long[] picked = new long[n];
+            int count = 0;
+            for (int root = 0; root < n; root++) {
+                long key = best.get(root);
+                if (key != NONE) {
+                    picked[count++] = key;
+                }
+            }
+            if (count == 0) {
+                break;
+            }
+            // Two components may pick the same edge; sorting also makes the output order deterministic
+            Arrays.sort(picked, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || picked[i] != picked[i - 1]) {
+                    picked[distinct++] = picked[i];
+                }
+            }
+            picks += count;
+            duplicates += count - distinct;
+            long[] round = picked;
+            int roundSize = distinct;
+            run((roundSize + CHUNK - 1) / CHUNK, c -> {
+                for (int i = c * CHUNK, end = Math.min(roundSize, i + CHUNK); i < end; i++) {
+                    int slot = (int) round[i];
+                    sets.union(sources[slot], graph.target(slot));
+                }
+            });
+            for (int i = 0; i < roundSize; i++) {
+                int slot = (int) round[i];
+                edges[chosen++] = sources[slot];
+                edges[chosen++] = graph.target(slot);
+            }
+        }
+        // Each component's pick is an entry; an edge picked from both of its ends is skipped once
+        counters.set(picks, picks, duplicates, 0, scanned, chosen / 2);
+        return chosen == edges.length ? edges : Arrays.copyOf(edges, chosen);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+
+    /**
+     * @return The entry index of v in the row of u.
+     */
+    private static int mirror(CsrStore graph, int u, int v) {
+        int lo = graph.offset(u), hi = graph.offset(u + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int target = graph.target(mid);
+            if (target < v) {
+                lo = mid + 1;
+            } else if (target > v) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("Adjacency is not symmetric");
+    }
+
+    private void run(int chunks, IntConsumer body) {
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(body)).join();
+    }
+}
@@ -0,0 +1,112 @@
+package abhay.graphnexus;
+
+import java.util.stream.IntStream;
+
+/**
+ * The connected components of a graph: the component of every vertex id and the size of every
+ * component, each read in O(1). Components are numbered 0, 1, 2, ... in order of their smallest
+ * vertex id, so the numbering follows the ids and not the order in which edges were seen.
+ *
+ * The sets are found with a {@link ConcurrentUnionFind}, which always links the larger root under the
+ * smaller one, so the root of each set is its smallest id. Large graphs union their edges in parallel
+ * on the common pool; numbering the roots is one sequential pass over the ids.
+ */
+final class ComponentIndex {
+    /** Graphs with fewer vertices than this are indexed on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final int[] components;
+    private final int[] sizes;
+
+    private ComponentIndex(int[] components, int[] sizes) {
+        this.components = components;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Finds the components of a CSR adjacency.
+     */
+    static ComponentIndex of(CsrStore store) {
+        int n = store.vertexCount();
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        IntStream ids = IntStream.range(0, n);
+        (n < PARALLEL_THRESHOLD ? ids : ids.parallel()).forEach(u -> {
+            for (int slot = store.offset(u), end = store.offset(u + 1); slot < end; slot++) {
+                // Each edge is stored in both directions; union it once, from its smaller end
+                int v = store.target(slot);
+                if (v > u) {
+                    sets.union(u, v);
+                }
+            }
+        });
+        return of(sets, n);
+    }
+
+    /**
+     * Finds the components of a list of edges over the ids of its dictionary, in the given number of slices.
+     */
+    static ComponentIndex of(EdgeList edges, int sliceCount) {
+        int n = edges.dictionary.size();
+        int m = edges.size;
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        int slices = n < PARALLEL_THRESHOLD ? 1 : Math.max(1, Math.min(sliceCount, m));
+        IntStream.range(0, slices).parallel().forEach(s -> {
+            for (int e = (int) ((long) m * s / slices), end = (int) ((long) m * (s + 1) / slices); e < end; e++) {
+                sets.union(edges.sources[e], edges.targets[e]);
+            }
+        });
+        return of(sets, n);
+    }
+
+    private static ComponentIndex of(ConcurrentUnionFind sets, int n) {
+        int[] components = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int root = sets.find(v);
+            // The root is the smallest id of its set, so it was numbered before any other member
+            components[v] = root == v ? count++ : components[root];
+        }
+        int[] sizes = new int[count];
+        for (int component : components) {
+            sizes[component]++;
+        }
+        return new ComponentIndex(components, sizes);
+    }
+
+    /**
+     * @param v A vertex id.
+     * @return The component of v.
+     */
+    int componentOf(int v) {
+        return components[v];
+    }
+
+    /**
+     * @return Whether the vertex ids u and v are connected by a path.
+     */
+    boolean connected(int u, int v) {
+        return components[u] == components[v];
+    }
+
+    /**
+     * @param component A component number.
+     * @return The number of vertices in the component.
+     */
+    int size(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * @return The number of vertex ids covered, 0 .. vertexCount() - 1.
+     */
+    int vertexCount() {
+        return components.length;
+    }
+
+    /**
+     * @return The number of components.
+     */
+    int count() {
+        return sizes.length;
+    }
+}
@@ -0,0 +1,111 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ComponentIndexTest {
+    // Three components: {a, b, c}, {x, y} and {z}, which only has a zero-weight self-loop
+    private static final List<String> EDGES = List.of("a", "b", "x", "y", "b", "c", "z", "z");
+    private static final List<Integer> WEIGHTS = List.of(1, 2, 3, 0);
+
+    @Test
+    public void testDisconnectedGraph() throws Exception {
+        for (Graph graph : new Graph[]{new GraphImpl(), new CsrGraph(), new ConcurrentGraph()}) {
+            graph.load(EDGES, WEIGHTS);
+            Assertions.assertEquals(3, graph.getComponentCount());
+            Assertions.assertEquals(0, graph.componentOf("a"));
+            Assertions.assertEquals(0, graph.componentOf("c"));
+            Assertions.assertEquals(1, graph.componentOf("y"));
+            Assertions.assertEquals(2, graph.componentOf("z"));
+            Assertions.assertEquals(-1, graph.componentOf("missing"));
+            Assertions.assertTrue(graph.sameComponent("a", "c"));
+            Assertions.assertFalse(graph.sameComponent("a", "x"));
+            Assertions.assertFalse(graph.sameComponent("a", "missing"));
+            Assertions.assertEquals(3, graph.getComponentSize("b"));
+            Assertions.assertEquals(1, graph.getComponentSize("z"));
+            Assertions.assertEquals(0, graph.getComponentSize("missing"));
+
+            Assertions.assertEquals(-1, graph.getDistance("a", "y"));
+            Assertions.assertTrue(graph.getPath("a", "y").isEmpty());
+            Assertions.assertEquals(List.of("a", "b", "c"), graph.getPath("a", "c"));
+        }
+
+        CsrGraph empty = new CsrGraph();
+        Assertions.assertEquals(0, empty.getComponentCount());
+    }
+
+    @Test
+    public void testChanges() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(EDGES, WEIGHTS);
+        Assertions.assertEquals(3, graph.getComponentCount());
+
+        // Neither changes the components
+        graph.addEdge("a", "c", 5);
+        graph.updateWeight("x", "y", 1);
+        Assertions.assertEquals(3, graph.getComponentCount());
+
+        graph.addEdge("c", "x", 1);
+        Assertions.assertEquals(2, graph.getComponentCount());
+        Assertions.assertTrue(graph.sameComponent("a", "y"));
+        Assertions.assertEquals(5, graph.getComponentSize("y"));
+        Assertions.assertEquals(6, graph.getDistance("a", "y"));
+
+        graph.addEdge("new", "z", 1);
+        Assertions.assertEquals(2, graph.getComponentSize("z"));
+
+        graph.removeEdge("c", "x");
+        Assertions.assertEquals(3, graph.getComponentCount());
+        Assertions.assertFalse(graph.sameComponent("a", "y"));
+
+        ConcurrentGraph concurrent = new ConcurrentGraph();
+        concurrent.load(EDGES, WEIGHTS);
+        concurrent.addEdge("c", "x", 1);
+        Assertions.assertEquals(2, concurrent.getComponentCount());
+        concurrent.setMstStrategy(MstStrategy.KRUSKAL);
+        Assertions.assertEquals(2, concurrent.getComponentCount());
+        // Kruskal spans every component: a-b, b-c, c-x and x-y
+        Assertions.assertEquals(8, concurrent.getMST().size());
+    }
+
+    /**
+     * Large enough to union in parallel: many small random trees, checked against the shortest path search.
+     */
+    @Test
+    public void testLargeGraph() throws Exception {
+        Random random = new Random(9);
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int n = 200000;
+        for (int i = 0; i < n; i++) {
+            // Joins i to a random earlier vertex of its group of 100, so each group is a random tree
+            int group = i / 100 * 100;
+            if (i == group) {
+                continue;
+            }
+            int other = group + random.nextInt(i - group);
+            edges.add(String.valueOf(i));
+            edges.add(String.valueOf(other));
+            weights.add(1);
+        }
+        GraphImpl graph = new GraphImpl();
+        graph.load(edges, weights, 8);
+        CsrGraph snapshot = graph.freeze();
+        CsrGraph found = new CsrGraph(snapshot.vertices(), snapshot.store());
+        Assertions.assertEquals(n / 100, graph.getComponentCount());
+        Assertions.assertEquals(n / 100, found.getComponentCount());
+        for (int i = 0; i < n; i += 997) {
+            String v = String.valueOf(i);
+            Assertions.assertEquals(100, graph.getComponentSize(v));
+            long reachable = graph.getShortestPaths(v).values().stream().filter(d -> d >= 0).count();
+            Assertions.assertEquals(reachable, graph.getComponentSize(v));
+            Assertions.assertEquals(graph.componentOf(v), found.componentOf(v));
+            Assertions.assertTrue(graph.sameComponent(v, String.valueOf(i / 100 * 100 + 99)));
+            Assertions.assertFalse(graph.sameComponent(v, String.valueOf((i / 100 * 100 + 100) % n)));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package abhay.graphnexus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A thread-safe {@link Graph} whose queries run concurrently with loads and edge changes.
+ *
+ * Queries read a read-only {@link CsrGraph} snapshot from a volatile field and run on it without
+ * taking locks; a query that started before a load finishes on the snapshot it started on. A load
+ * builds a new snapshot off to the side and publishes it with a single volatile write, so a reader
+ * sees either the whole old graph or the whole new one, and a load that fails leaves the published
+ * graph as it was. Call {@link #getSnapshot()} to run several queries on one version of the graph.
+ *
+ * Writers are serialized. An edge change is copy-on-write: it is applied to a mutable copy of the
+ * graph, made on the first change after a load, and the copy is frozen into a new snapshot, so
+ * every change costs O(V + E). Each load or change starts a new {@link ShortestPathCache} with the
+ * bound of the previous one. A settings change publishes the same graph with the new settings, and
+ * the new snapshot shares the cache of the old one, as both compute the same trees.
+ */
+public class ConcurrentGraph implements Graph {
+    private volatile CsrGraph snapshot = sealed(new CsrGraph());
+    /** The mutable copy that edge changes are applied to, or null until the first change after a load. */
+    private GraphImpl writer;
+
+    private ShortestPathStrategy shortestPathStrategy = ShortestPathStrategy.AUTO;
+    private MstStrategy mstStrategy = MstStrategy.PRIM;
+    private int deltaSteppingDelta;
+    private int landmarkCount;
+
+    /**
+     * Returns the snapshot that queries run on now. Later loads and changes do not affect it, and it is
+     * read-only: its load and set methods throw UnsupportedOperationException. Its cache is the
+     * thread-safe one {@link #getShortestPathCache()} returns while the snapshot is current.
+     *
+     * @return The current snapshot.
+     */
+    public CsrGraph getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the cache of the current snapshot. Each load or change starts a new, empty cache with
+     * the same bound.
+     *
+     * @return The shortest path cache of the current snapshot.
+     */
+    public ShortestPathCache getShortestPathCache() {
+        return snapshot.getShortestPathCache();
+    }
+
+    /**
+     * Selects the shortest path algorithm, see {@link CsrGraph#setShortestPathStrategy(ShortestPathStrategy)}.
+     *
+     * @param strategy The strategy to use for later queries.
+     */
+    public synchronized void setShortestPathStrategy(ShortestPathStrategy strategy) {
+        this.shortestPathStrategy = Objects.requireNonNull(strategy);
+        republish();
+    }
+
+    /**
+     * Selects the minimum spanning tree algorithm, see {@link CsrGraph#setMstStrategy(MstStrategy)}.
+     *
+     * @param strategy The strategy to use for later calls.
+     */
+    public synchronized void setMstStrategy(MstStrategy strategy) {
+        this.mstStrategy = Objects.requireNonNull(strategy);
+        republish();
+    }
+
+    /**
+     * Sets the delta-stepping bucket width, see {@link CsrGraph#setDeltaSteppingDelta(int)}.
+     *
+     * @param delta The bucket width, or 0 to derive it from the graph.
+     */
+    public synchronized void setDeltaSteppingDelta(int delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative: " + delta);
+        }
+        this.deltaSteppingDelta = delta;
+        republish();
+    }
+
+    /**
+     * Sets the number of landmarks for point-to-point queries, see {@link CsrGraph#setLandmarkCount(int)}.
+     *
+     * @param count The number of landmarks, or 0 for plain bidirectional Dijkstra.
+     */
+    public synchronized void setLandmarkCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + count);
+        }
+        this.landmarkCount = count;
+        republish();
+    }
+
+    /**
+     * Loads a graph from a file and publishes it once it is complete.
+     *
+     * @param pathToFile The path to the file containing the graph data.
+     * @throws Exception If there's an error reading the file or if the file format is invalid.
+     *          The published graph is then unchanged.
+     */
+    @Override
+    public void load(String pathToFile) throws Exception {
+        GraphImpl source = new GraphImpl();
+        source.load(pathToFile);
+        CsrGraph next = source.freeze();
+        synchronized (this) {
+            writer = null;
+            publish(next, new ShortestPathCache());
+        }
+    }
+
+    /**
+     * Loads a graph from lists of edges and weights and publishes it once it is complete.
+     *
+     * @param edges A list of strings representing the edges. Each pair of consecutive strings represents an edge.
+     * @param weights A list of integers representing the weights of the edges.
+     * @throws Exception If there's a mismatch between edges and weights or if any weight is negative.
+     *          The published graph is then unchanged.
+     */
+    @Override
+    public void load(List<String> edges, List<Integer> weights) throws Exception {
+        GraphImpl source = new GraphImpl();
+        source.load(edges, weights);
+        CsrGraph next = source.freeze();
+        synchronized (this) {
+            writer = null;
+            publish(next, new ShortestPathCache());
+        }
+    }
+
+    /**
+     * Loads the edges collected by a builder and publishes the graph once it is complete.
+     * The builder is empty afterwards.
+     *
+     * @param builder The builder holding the edges.
+     */
+    public void load(GraphBuilder builder) {
+        GraphImpl source = new GraphImpl();
+        source.load(builder);
+        CsrGraph next = source.freeze();
+        synchronized (this) {
+            writer = null;
+            publish(next, new ShortestPathCache());
+        }
+    }
+
+    /**
+     * Adds an edge and publishes the changed graph, see {@link GraphImpl#addEdge(String, String, int)}.
+     */
+    @Override
+    public synchronized boolean addEdge(String u, String v, int weight) {
+        boolean added = writer().addEdge(u, v, weight);
+        publishWriter();
+        return added;
+    }
+
+    /**
+     * Removes an edge and publishes the changed graph, see {@link GraphImpl#removeEdge(String, String)}.
+     */
+    @Override
+    public synchronized boolean removeEdge(String u, String v) {
+        boolean removed = writer().removeEdge(u, v);
+        if (removed) {
+            publishWriter();
+        }
+        return removed;
+    }
+
+    /**
+     * Changes the weight of an edge and publishes the changed graph,
+     * see {@link GraphImpl#updateWeight(String, String, int)}.
+     */
+    @Override
+    public synchronized boolean updateWeight(String u, String v, int weight) {
+        boolean updated = writer().updateWeight(u, v, weight);
+        if (updated) {
+            publishWriter();
+        }
+        return updated;
+    }
+
+    private static CsrGraph sealed(CsrGraph graph) {
+        graph.seal();
+        return graph;
+    }
+
+    private GraphImpl writer() {
+        if (writer == null) {
+            writer = GraphImpl.copyOf(snapshot);
+        }
+        return writer;
+    }
+
+    private void publishWriter() {
+        publish(writer.freeze(), new ShortestPathCache());
+    }
+
+    /**
+     * Publishes the current graph again with the current settings. The new snapshot reads the same
+     * names, adjacency and components, so it shares the cache of the old one.
+     */
+    private void republish() {
+        CsrGraph current = snapshot;
+        publish(current.pinned(), current.getShortestPathCache());
+    }
+
+    /**
+     * Applies the settings to a new snapshot, seals it and makes it the one queries run on.
+     * Called with the lock held.
+     */
+    private void publish(CsrGraph next, ShortestPathCache cache) {
+        if (cache != snapshot.getShortestPathCache()) {
+            cache.setMaxWeight(snapshot.getShortestPathCache().getMaxWeight());
+        }
+        next.setShortestPathCache(cache);
+        next.setShortestPathStrategy(shortestPathStrategy);
+        next.setMstStrategy(mstStrategy);
+        next.setDeltaSteppingDelta(deltaSteppingDelta);
+        next.setLandmarkCount(landmarkCount);
+        next.seal();
+        // The volatile write publishes the snapshot and its settings together
+        snapshot = next;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return snapshot.getVertexCount();
+    }
+
+    @Override
+    public boolean hasVertex(String v) {
+        return snapshot.hasVertex(v);
+    }
+
+    @Override
+    public Iterable<String> getVertices() {
+        return snapshot.getVertices();
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return snapshot.getEdgeCount();
+    }
+
+    @Override
+    public boolean hasEdge(String u, String v) {
+        return snapshot.hasEdge(u, v);
+    }
+
+    @Override
+    public int getWeight(String u, String v) {
+        return snapshot.getWeight(u, v);
+    }
+
+    @Override
+    public Iterable<String> getAdjacent(String u) {
+        return snapshot.getAdjacent(u);
+    }
+
+    @Override
+    public List<String> getMST() {
+        return snapshot.getMST();
+    }
+
+    @Override
+    public ShortestPathTree getShortestPaths(String s) {
+        return snapshot.getShortestPaths(s);
+    }
+
+    @Override
+    public int getDistance(String s, String t) {
+        return snapshot.getDistance(s, t);
+    }
+
+    @Override
+    public List<String> getPath(String s, String t) {
+        return snapshot.getPath(s, t);
+    }
+
+    @Override
+    public DistanceMatrix getShortestPaths(Collection<String> sources) {
+        return snapshot.getShortestPaths(sources);
+    }
+
+    @Override
+    public int componentOf(String v) {
+        return snapshot.componentOf(v);
+    }
+
+    @Override
+    public boolean sameComponent(String u, String v) {
+        return snapshot.sameComponent(u, v);
+    }
+
+    @Override
+    public int getComponentSize(String v) {
+        return snapshot.getComponentSize(v);
+    }
+
+    @Override
+    public int getComponentCount() {
+        return snapshot.getComponentCount();
+    }
+
+    @Override
+    public Set<String> getReport(String s, List<String> subgraph) {
+        return snapshot.getReport(s, subgraph);
+    }
+
+    @Override
+    public List<Set<String>> getReports(String s, List<List<String>> subgraphs) {
+        return snapshot.getReports(s, subgraphs);
+    }
+}
@@ -0,0 +1,147 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentGraphTest {
+
+    @Test
+    public void testQueriesAndChanges() throws Exception {
+        ConcurrentGraph graph = new ConcurrentGraph();
+        Assertions.assertEquals(0, graph.getVertexCount());
+        graph.load(List.of("a", "b", "b", "c", "a", "c"), List.of(1, 1, 5));
+        Assertions.assertEquals(2, graph.getShortestPaths("a").get("c").intValue());
+        graph.getShortestPathCache().setMaxWeight(1 << 20);
+
+        CsrGraph before = graph.getSnapshot();
+        Assertions.assertTrue(graph.addEdge("c", "d", 4));
+        Assertions.assertTrue(graph.updateWeight("a", "c", 1));
+        Assertions.assertFalse(graph.removeEdge("a", "d"));
+        Assertions.assertTrue(graph.removeEdge("a", "b"));
+        Assertions.assertEquals(5, graph.getShortestPaths("a").get("d").intValue());
+        Assertions.assertEquals(-1, graph.getWeight("a", "b"));
+        Assertions.assertEquals(4, graph.getVertexCount());
+        // A snapshot taken earlier keeps the graph of its moment, and the cache bound carries over
+        Assertions.assertEquals(3, before.getVertexCount());
+        Assertions.assertEquals(1, before.getWeight("a", "b"));
+        Assertions.assertEquals(1 << 20, graph.getShortestPathCache().getMaxWeight());
+
+        graph.setMstStrategy(MstStrategy.KRUSKAL);
+        Assertions.assertEquals(MstStrategy.KRUSKAL, graph.getSnapshot().getMstStrategy());
+        Assertions.assertEquals(6, graph.getMST().size());
+
+        // Published snapshots are read-only, so nothing can change the graph readers share behind the lock
+        CsrGraph published = graph.getSnapshot();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.load(List.of("x", "y"), List.of(1)));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.load("g1.txt"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.load(new GraphBuilder()));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> published.setShortestPathStrategy(ShortestPathStrategy.DIJKSTRA));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.setMstStrategy(MstStrategy.PRIM));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.setDeltaSteppingDelta(4));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> published.setLandmarkCount(4));
+        Assertions.assertEquals(4, graph.getVertexCount());
+        Assertions.assertEquals(MstStrategy.KRUSKAL, published.getMstStrategy());
+
+        // A settings change keeps the cached trees of the unchanged graph
+        graph.getShortestPaths("a");
+        long hits = graph.getShortestPathCache().getHitCount();
+        graph.setLandmarkCount(2);
+        Assertions.assertSame(published.getShortestPathCache(), graph.getShortestPathCache());
+        graph.getShortestPaths("a");
+        Assertions.assertEquals(hits + 1, graph.getShortestPathCache().getHitCount());
+
+        // A failed load leaves the published graph as it was
+        Assertions.assertThrows(Exception.class, () -> graph.load(List.of("x", "y"), List.of(-1)));
+        Assertions.assertEquals(4, graph.getVertexCount());
+        Assertions.assertEquals(MstStrategy.KRUSKAL, graph.getSnapshot().getMstStrategy());
+    }
+
+    /**
+     * Readers query while a writer reloads versions of a path graph whose length and weights both
+     * follow the version, so a result that mixes two versions shows up as a wrong distance or size.
+     */
+    @Test
+    public void testReadersDuringReloads() throws Exception {
+        ConcurrentGraph graph = new ConcurrentGraph();
+        graph.load(edges(0), weights(0));
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicLong reads = new AtomicLong();
+        int readerCount = 4;
+        CountDownLatch finished = new CountDownLatch(readerCount);
+        for (int r = 0; r < readerCount; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        checkVersion(graph);
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    finished.countDown();
+                }
+            });
+            reader.start();
+        }
+        try {
+            for (int version = 1; version <= 300 && failures.isEmpty(); version++) {
+                graph.load(edges(version), weights(version));
+            }
+        } finally {
+            done.set(true);
+            finished.await();
+        }
+        if (!failures.isEmpty()) {
+            Assertions.fail("A reader saw an inconsistent graph", failures.peek());
+        }
+        Assertions.assertTrue(reads.get() > 0);
+    }
+
+    private static void checkVersion(ConcurrentGraph graph) {
+        ShortestPathTree tree = graph.getShortestPaths("0");
+        int weight = tree.get("1");
+        int n = lengthFor(weight);
+        Assertions.assertEquals(n, tree.size());
+        int i = ThreadLocalRandom.current().nextInt(n);
+        Assertions.assertEquals(i * weight, tree.get(String.valueOf(i)).intValue());
+
+        CsrGraph snapshot = graph.getSnapshot();
+        int m = snapshot.getVertexCount();
+        Assertions.assertEquals(2 * (m - 1), snapshot.getMST().size());
+        Assertions.assertEquals(m - 1, snapshot.getEdgeCount());
+        Assertions.assertEquals((m - 1) * snapshot.getWeight("0", "1"), snapshot.getDistance("0", String.valueOf(m - 1)));
+    }
+
+    private static int lengthFor(int weight) {
+        return 10 + 5 * weight;
+    }
+
+    private static List<String> edges(int version) {
+        int n = lengthFor(1 + version % 10);
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i + 1 < n; i++) {
+            edges.add(String.valueOf(i));
+            edges.add(String.valueOf(i + 1));
+        }
+        return edges;
+    }
+
+    private static List<Integer> weights(int version) {
+        int weight = 1 + version % 10;
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i + 1 < lengthFor(weight); i++) {
+            weights.add(weight);
+        }
+        return weights;
+    }
+}
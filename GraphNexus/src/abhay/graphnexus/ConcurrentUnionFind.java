@@ -0,0 +1,63 @@
+package abhay.graphnexus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free disjoint sets over ids 0 .. n - 1. Roots are linked with compare-and-set, always
+ * the larger id under the smaller one, and finds halve their path with benign compare-and-sets.
+ * Safe for concurrent find and union calls from any number of threads.
+ */
+final class ConcurrentUnionFind {
+    private static final VarHandle PARENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] parent;
+
+    ConcurrentUnionFind(int n) {
+        parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+    }
+
+    /**
+     * @return The current representative of the set containing x.
+     */
+    int find(int x) {
+        while (true) {
+            int p = (int) PARENT.getVolatile(parent, x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = (int) PARENT.getVolatile(parent, p);
+            if (p != grandparent) {
+                // Path halving; losing the race only means the path stays longer
+                PARENT.weakCompareAndSet(parent, x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets containing a and b.
+     *
+     * @return true if this call merged two different sets.
+     */
+    boolean union(int a, int b) {
+        while (true) {
+            int ra = find(a);
+            int rb = find(b);
+            if (ra == rb) {
+                return false;
+            }
+            if (ra < rb) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            if (PARENT.compareAndSet(parent, ra, ra, rb)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package abhay.graphnexus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+/**
+ * A contraction hierarchy over a {@link CsrGraph}, for fast point-to-point queries on graphs that do
+ * not change.
+ *
+ * Preprocessing contracts the vertices one by one in the order chosen by {@link HierarchyBuilder},
+ * adding shortcut edges that keep the distances between the remaining vertices. Every edge then leads
+ * from a vertex to one contracted later, and is stored once, as an upward edge of its lower end, in a
+ * CSR adjacency. A query runs Dijkstra upward from both s and t; the shortest path is the best sum
+ * over the vertices both searches reach. Each shortcut remembers the vertex it bypasses, so a path is
+ * unpacked into original edges by replacing shortcuts recursively.
+ *
+ * The hierarchy can be saved next to its graph file and opened again without preprocessing:
+ * <pre>
+ * header       magic "GNXH", version, |V|, the graph's adjacency entry count, upward edge count, shortcut count,
+ *              CRC-32C of the graph's offsets, targets and weights
+ * offsets      int[|V| + 1], upward CSR range boundaries
+ * targets      int[edges], the upper end of each upward edge
+ * weights      int[edges], edge weights
+ * middles      int[edges], the bypassed vertex of each shortcut, -1 for an original edge
+ * </pre>
+ * Instances are immutable; queries may run concurrently.
+ */
+public final class ContractionHierarchy {
+    static final int MAGIC = 0x48584E47; // "GNXH" in little-endian byte order
+    static final int VERSION = 2;
+    private static final int HEADER_BYTES = 28;
+    private static final ThreadLocal<Query> QUERIES = ThreadLocal.withInitial(Query::new);
+
+    private final VertexIndex vertices;
+    private final int graphEntries;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] middles;
+    private final int shortcuts;
+    private final int graphChecksum;
+
+    private ContractionHierarchy(VertexIndex vertices, int graphEntries, int graphChecksum, int[] offsets,
+                                 int[] targets, int[] weights, int[] middles, int shortcuts) {
+        this.vertices = vertices;
+        this.graphEntries = graphEntries;
+        this.graphChecksum = graphChecksum;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.middles = middles;
+        this.shortcuts = shortcuts;
+    }
+
+    /**
+     * Builds the hierarchy of a graph on the common ForkJoinPool.
+     *
+     * @param graph The graph to preprocess.
+     * @return The hierarchy.
+     */
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return build(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the hierarchy of a graph, contracting independent vertices in parallel on the given pool.
+     *
+     * @param graph The graph to preprocess.
+     * @param pool The pool whose threads run the witness searches.
+     * @return The hierarchy.
+     */
+    public static ContractionHierarchy build(CsrGraph graph, ForkJoinPool pool) {
+        CsrGraph pinned = graph.pinned();
+        HierarchyBuilder builder = new HierarchyBuilder(pinned.store(), pool);
+        int[][] csr = builder.build();
+        return new ContractionHierarchy(pinned.vertices(), pinned.store().entryCount(), checksum(pinned.store()),
+                csr[0], csr[1], csr[2], csr[3], builder.shortcutCount());
+    }
+
+    /**
+     * @return The number of shortcut edges preprocessing added.
+     */
+    public int getShortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * Finds the distance between two vertices.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The length of the shortest s->t path, or -1 if no such path exists or a vertex is not in the graph.
+     */
+    public int getDistance(String s, String t) {
+        Query query = QUERIES.get();
+        int dist = query.run(this, vertices.idOf(s), vertices.idOf(t));
+        return dist == Integer.MAX_VALUE ? -1 : dist;
+    }
+
+    /**
+     * Finds a shortest path between two vertices, with every shortcut unpacked into original edges.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The vertices of the path from s to t, or an empty list if no such path exists.
+     */
+    public List<String> getPath(String s, String t) {
+        Query query = QUERIES.get();
+        List<String> path = new ArrayList<>();
+        if (query.run(this, vertices.idOf(s), vertices.idOf(t)) == Integer.MAX_VALUE) {
+            return path;
+        }
+        for (int id : query.path(this)) {
+            path.add(vertices.nameOf(id));
+        }
+        return path;
+    }
+
+    /**
+     * Writes the hierarchy. Open it again with the graph it was built from.
+     *
+     * @param path The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            GraphFile.Output out = new GraphFile.Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(vertices.size());
+            out.putInt(graphEntries);
+            out.putInt(targets.length);
+            out.putInt(shortcuts);
+            out.putInt(graphChecksum);
+            for (int[] section : new int[][]{offsets, targets, weights, middles}) {
+                for (int value : section) {
+                    out.putInt(value);
+                }
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #save(Path)}.
+     *
+     * @param path The hierarchy file.
+     * @param graph The graph the hierarchy was built from, which supplies the vertex names.
+     * @return The hierarchy.
+     * @throws IOException If the file cannot be read, is not a hierarchy file, or does not match the graph.
+     */
+    public static ContractionHierarchy open(Path path, CsrGraph graph) throws IOException {
+        CsrGraph pinned = graph.pinned();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || channel.read(header, 0) < HEADER_BYTES
+                    || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a hierarchy file: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported hierarchy file version " + header.getInt(4) + ": " + path);
+            }
+            int n = header.getInt(8);
+            int graphEntries = header.getInt(12);
+            int edges = header.getInt(16);
+            int shortcuts = header.getInt(20);
+            int graphChecksum = header.getInt(24);
+            // The sizes are compared first, as they reject most other graphs without reading them
+            if (n != pinned.getVertexCount() || graphEntries != pinned.store().entryCount()
+                    || graphChecksum != checksum(pinned.store())) {
+                throw new IOException("Hierarchy file was built from another graph: " + path);
+            }
+            if (channel.size() != HEADER_BYTES + 4L * (n + 1 + 3L * edges)) {
+                throw new IOException("Truncated hierarchy file: " + path);
+            }
+            long position = HEADER_BYTES;
+            int[] offsets = readInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            int[] targets = readInts(channel, position, edges);
+            position += 4L * edges;
+            int[] weights = readInts(channel, position, edges);
+            position += 4L * edges;
+            int[] middles = readInts(channel, position, edges);
+            return new ContractionHierarchy(pinned.vertices(), graphEntries, graphChecksum, offsets, targets, weights,
+                    middles, shortcuts);
+        }
+    }
+
+    /**
+     * @return A CRC-32C of the offsets, targets and weights of a CSR adjacency, as little-endian ints.
+     */
+    static int checksum(CsrStore store) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        int n = store.vertexCount();
+        int entries = store.entryCount();
+        for (int section = 0; section < 3; section++) {
+            int count = section == 0 ? n + 1 : entries;
+            for (int i = 0; i < count; i++) {
+                if (!buffer.hasRemaining()) {
+                    crc.update(buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putInt(section == 0 ? store.offset(i) : section == 1 ? store.target(i) : store.weight(i));
+            }
+        }
+        crc.update(buffer.flip());
+        return (int) crc.getValue();
+    }
+
+    private static int[] readInts(FileChannel channel, long position, int count) throws IOException {
+        int[] values = new int[count];
+        int chunk = 1 << 28;
+        for (int done = 0; done < count; done += chunk) {
+            int length = Math.min(chunk, count - done);
+            channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * done, 4L * length)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values, done, length);
+        }
+        return values;
+    }
+
+    /**
+     * @return The middle vertex of edge (a,b), or -1 if it is an original edge.
+     */
+    private int middleOf(int a, int b) {
+        for (int i = offsets[a]; i < offsets[a + 1]; i++) {
+            if (targets[i] == b) return middles[i];
+        }
+        // The edge is stored only in the row of its lower end
+        for (int i = offsets[b]; i < offsets[b + 1]; i++) {
+            if (targets[i] == a) return middles[i];
+        }
+        throw new IllegalStateException("Not a hierarchy edge: " + a + ", " + b);
+    }
+
+    /**
+     * The scratch state of one thread's queries: two upward searches with arrays stamped per query.
+     */
+    private static final class Query {
+        private final IndexedIntHeap forward = new IndexedIntHeap();
+        private final IndexedIntHeap backward = new IndexedIntHeap();
+        private int[] distF = new int[0], distB = new int[0];
+        private int[] parentF = new int[0], parentB = new int[0];
+        private int[] stampF = new int[0], stampB = new int[0];
+        private int round;
+        private int source, target, meet;
+        private long best;
+
+        int run(ContractionHierarchy ch, int s, int t) {
+            source = s;
+            target = t;
+            meet = -1;
+            best = Long.MAX_VALUE;
+            if (s < 0 || t < 0) {
+                return Integer.MAX_VALUE;
+            }
+            prepare(ch.offsets.length - 1);
+            reach(true, s, 0, -1);
+            reach(false, t, 0, -1);
+            while (true) {
+                // A side stops once nothing it can still settle improves on the best meeting
+                if (!forward.isEmpty() && forward.minKey() >= best) forward.clear();
+                if (!backward.isEmpty() && backward.minKey() >= best) backward.clear();
+                boolean useForward;
+                if (forward.isEmpty()) {
+                    if (backward.isEmpty()) break;
+                    useForward = false;
+                } else {
+                    useForward = backward.isEmpty() || forward.minKey() <= backward.minKey();
+                }
+                int u = (useForward ? forward : backward).pollMin();
+                int du = useForward ? distF[u] : distB[u];
+                for (int i = ch.offsets[u], end = ch.offsets[u + 1]; i < end; i++) {
+                    int v = ch.targets[i];
+                    int newDist = du + ch.weights[i];
+                    // A negative sum means the int overflowed; such a path cannot be shorter
+                    if (newDist >= 0) {
+                        reach(useForward, v, newDist, u);
+                    }
+                }
+            }
+            return best == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) best;
+        }
+
+        private void prepare(int n) {
+            if (distF.length < n) {
+                distF = new int[n];
+                distB = new int[n];
+                parentF = new int[n];
+                parentB = new int[n];
+                stampF = new int[n];
+                stampB = new int[n];
+                round = 0;
+            }
+            if (++round == Integer.MAX_VALUE) {
+                Arrays.fill(stampF, 0);
+                Arrays.fill(stampB, 0);
+                round = 1;
+            }
+            forward.ensureCapacity(n);
+            backward.ensureCapacity(n);
+            forward.clear();
+            backward.clear();
+        }
+
+        private void reach(boolean isForward, int v, int dist, int parent) {
+            int[] d = isForward ? distF : distB;
+            int[] stamp = isForward ? stampF : stampB;
+            if (stamp[v] == round && d[v] <= dist) {
+                return;
+            }
+            stamp[v] = round;
+            d[v] = dist;
+            (isForward ? parentF : parentB)[v] = parent;
+            (isForward ? forward : backward).insertOrDecrease(v, dist);
+            if ((isForward ? stampB : stampF)[v] == round) {
+                long length = (long) distF[v] + distB[v];
+                if (length < best) {
+                    best = length;
+                    meet = v;
+                }
+            }
+        }
+
+        /**
+         * @return The vertices of the path found by the last run, with shortcuts unpacked.
+         */
+        int[] path(ContractionHierarchy ch) {
+            // The hierarchy path: source .. meet by forward parents, then meet .. target by backward parents
+            int[] hops = new int[16];
+            int count = 0;
+            for (int v = meet; v != -1; v = parentF[v]) {
+                if (count == hops.length) hops = Arrays.copyOf(hops, count * 2);
+                hops[count++] = v;
+            }
+            for (int i = 0, j = count - 1; i < j; i++, j--) {
+                int tmp = hops[i];
+                hops[i] = hops[j];
+                hops[j] = tmp;
+            }
+            for (int v = parentB[meet]; v != -1; v = parentB[v]) {
+                if (count == hops.length) hops = Arrays.copyOf(hops, count * 2);
+                hops[count++] = v;
+            }
+
+            // Unpack each hop with an explicit stack of (from, to) edges
+            int[] path = new int[16];
+            int length = 0;
+            path[length++] = source;
+            int[] stack = new int[16];
+            for (int h = 0; h + 1 < count; h++) {
+                int top = 0;
+                stack[top++] = hops[h + 1];
+                stack[top++] = hops[h];
+                while (top > 0) {
+                    int a = stack[--top], b = stack[--top];
+                    int middle = ch.middleOf(a, b);
+                    if (middle < 0) {
+                        if (length == path.length) path = Arrays.copyOf(path, length * 2);
+                        path[length++] = b;
+                    } else {
+                        if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                        // Push (middle, b) first so that (a, middle) is unpacked first
+                        stack[top++] = b;
+                        stack[top++] = middle;
+                        stack[top++] = middle;
+                        stack[top++] = a;
+                    }
+                }
+            }
+            return Arrays.copyOf(path, length);
+        }
+    }
+}
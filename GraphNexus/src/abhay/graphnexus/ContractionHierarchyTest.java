@@ -0,0 +1,116 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ContractionHierarchyTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSmallGraph() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(List.of("a", "b", "b", "c", "a", "c", "c", "d", "x", "y"), List.of(1, 1, 5, 0, 3));
+        ContractionHierarchy ch = graph.buildContractionHierarchy();
+        Assertions.assertEquals(2, ch.getDistance("a", "c"));
+        Assertions.assertEquals(2, ch.getDistance("a", "d"));
+        Assertions.assertEquals(List.of("a", "b", "c", "d"), ch.getPath("a", "d"));
+        Assertions.assertEquals(List.of("d", "c", "b", "a"), ch.getPath("d", "a"));
+        Assertions.assertEquals(0, ch.getDistance("b", "b"));
+        Assertions.assertEquals(List.of("b"), ch.getPath("b", "b"));
+        Assertions.assertEquals(-1, ch.getDistance("a", "x"));
+        Assertions.assertEquals(List.of(), ch.getPath("a", "x"));
+        Assertions.assertEquals(-1, ch.getDistance("a", "z"));
+        Assertions.assertEquals(List.of(), ch.getPath("z", "a"));
+    }
+
+    @Test
+    public void testMatchesDijkstra() throws Exception {
+        Random random = new Random(16);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n : new int[]{2, 30, 1000}) {
+                CsrGraph graph = randomGraph(random, n, 10);
+                check(graph, ContractionHierarchy.build(graph, pool), random);
+            }
+            CsrGraph grid = PointToPointTest.grid(random, 30, 30);
+            check(grid, ContractionHierarchy.build(grid, pool), random);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSaveAndOpen() throws Exception {
+        Random random = new Random(17);
+        CsrGraph graph = PointToPointTest.grid(random, 20, 20);
+        Path graphFile = tempDir.resolve("grid.gnx");
+        Path hierarchyFile = tempDir.resolve("grid.gnxh");
+        graph.save(graphFile);
+        ContractionHierarchy.build(graph).save(hierarchyFile);
+
+        CsrGraph opened = CsrGraph.open(graphFile);
+        ContractionHierarchy ch = ContractionHierarchy.open(hierarchyFile, opened);
+        check(opened, ch, random);
+
+        // A hierarchy only opens with the graph it was built from
+        CsrGraph other = PointToPointTest.grid(random, 20, 21);
+        Assertions.assertThrows(IOException.class, () -> ContractionHierarchy.open(hierarchyFile, other));
+        // The same shape and sizes with other weights
+        CsrGraph reweighted = PointToPointTest.grid(random, 20, 20);
+        Assertions.assertThrows(IOException.class, () -> ContractionHierarchy.open(hierarchyFile, reweighted));
+        Assertions.assertThrows(IOException.class, () -> ContractionHierarchy.open(graphFile, opened));
+        Files.write(hierarchyFile, new byte[]{1, 2, 3});
+        Assertions.assertThrows(IOException.class, () -> ContractionHierarchy.open(hierarchyFile, opened));
+    }
+
+    private static void check(CsrGraph graph, ContractionHierarchy ch, Random random) {
+        int n = graph.getVertexCount();
+        for (int query = 0; query < 100; query++) {
+            String s = graph.vertices().nameOf(random.nextInt(n));
+            String t = graph.vertices().nameOf(random.nextInt(n));
+            int expected = graph.getShortestPaths(s).get(t);
+            Assertions.assertEquals(expected, ch.getDistance(s, t));
+            List<String> path = ch.getPath(s, t);
+            if (expected < 0) {
+                Assertions.assertTrue(path.isEmpty());
+                continue;
+            }
+            Assertions.assertEquals(s, path.get(0));
+            Assertions.assertEquals(t, path.get(path.size() - 1));
+            int length = 0;
+            for (int i = 0; i + 1 < path.size(); i++) {
+                length += graph.getWeight(path.get(i), path.get(i + 1));
+            }
+            Assertions.assertEquals(expected, length);
+        }
+    }
+
+    /**
+     * A graph of three components with weights 0..maxWeight, including self-loops and parallel edges.
+     */
+    private static CsrGraph randomGraph(Random random, int n, int maxWeight) throws Exception {
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int k = 0; k < 3; k++) {
+                int v = random.nextInt((n + 2) / 3) * 3 + u % 3;
+                edges.add(String.valueOf(u));
+                edges.add(String.valueOf(v < n ? v : u));
+                weights.add(random.nextInt(maxWeight + 1));
+            }
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        return graph;
+    }
+}
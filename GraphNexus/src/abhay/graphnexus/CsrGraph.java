@@ -0,0 +1,971 @@
+package abhay.graphnexus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Compressed sparse row (CSR) snapshot of a weighted undirected graph, whose edges cannot be changed.
+ * Every vertex is given a dense int id. The neighbors of vertex {@code u} are stored in
+ * {@code targets[offsets[u]] .. targets[offsets[u + 1] - 1]}, sorted by id, and the weight
+ * of each of those edges is stored at the same index of {@code weights}.
+ * Every undirected edge is stored once in each direction.
+ *
+ * The arrays are read through a {@link CsrStore}, so the same queries run on heap arrays or on the
+ * memory-mapped sections of a file written by {@link #save(Path)}.
+ *
+ * Instances are obtained from {@link GraphImpl#freeze()}, from {@link #open(Path)}, from a
+ * {@link GraphArena}, which keeps the arrays and names off-heap, or by calling one of the load methods.
+ * A load builds the new arrays first and then replaces the names, adjacency and everything derived
+ * from them with one volatile write. Each query reads that state once, so queries may run on other
+ * threads during a load and finish on the graph they started on. Settings are plain fields; set
+ * them before sharing the graph.
+ */
+public class CsrGraph implements Graph {
+    /** Engines keep scratch buffers between queries, so each thread reuses its own, one per strategy. */
+    private static final ThreadLocal<ShortestPathEngine[]> ENGINES =
+            ThreadLocal.withInitial(() -> new ShortestPathEngine[ShortestPathStrategy.values().length]);
+    private static final ThreadLocal<LocalIds> LOCAL_IDS = ThreadLocal.withInitial(LocalIds::new);
+    private static final ThreadLocal<PointToPointEngine> PAIR_ENGINE = ThreadLocal.withInitial(PointToPointEngine::new);
+
+    /** The graph the queries run on. Every public call reads it once, so a load never splits a call. */
+    private volatile State state;
+    private ShortestPathStrategy shortestPathStrategy = ShortestPathStrategy.AUTO;
+    private int deltaSteppingDelta;
+    private ShortestPathCache cache = new ShortestPathCache();
+    private MstStrategy mstStrategy = MstStrategy.PRIM;
+    /** Set once the graph is published to other threads, after which loads and settings are refused. */
+    private volatile boolean sealed;
+
+    /**
+     * Constructs an empty graph.
+     */
+    public CsrGraph() {
+        this(new VertexDictionary(), new int[1], new int[0], new int[0]);
+    }
+
+    /**
+     * Wraps CSR arrays without copying them. Neighbor ranges must already be sorted by id,
+     * see {@link #sortNeighbors(int[], int[], int[])}.
+     */
+    CsrGraph(VertexIndex vertices, int[] offsets, int[] targets, int[] weights) {
+        this(vertices, new ArrayCsrStore(offsets, targets, weights));
+    }
+
+    /**
+     * Serves the graph from the given vertex index and adjacency store, which may be memory-mapped.
+     */
+    CsrGraph(VertexIndex vertices, CsrStore store) {
+        this(new State(vertices, store, 0, null));
+    }
+
+    private CsrGraph(State state) {
+        this.state = state;
+    }
+
+    /**
+     * Opens a graph file written by {@link #save(Path)}. The file is memory-mapped and queries read
+     * the mapped sections directly, so opening costs the same for any graph size.
+     *
+     * @param path The binary graph file.
+     * @return A read-only graph backed by the file.
+     * @throws IOException If the file cannot be read or is not a supported graph file.
+     */
+    public static CsrGraph open(Path path) throws IOException {
+        return GraphFile.open(path);
+    }
+
+    /**
+     * Writes this graph in the binary format read by {@link #open(Path)}.
+     *
+     * @param path The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        GraphFile.write(this, path);
+    }
+
+    /**
+     * Selects the shortest path algorithm. The default, {@link ShortestPathStrategy#AUTO}, picks one
+     * from the weight range of the loaded graph.
+     *
+     * @param strategy The strategy to use for later queries.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    public void setShortestPathStrategy(ShortestPathStrategy strategy) {
+        checkNotSealed();
+        this.shortestPathStrategy = Objects.requireNonNull(strategy);
+    }
+
+    /**
+     * @return The selected shortest path strategy.
+     */
+    public ShortestPathStrategy getShortestPathStrategy() {
+        return shortestPathStrategy;
+    }
+
+    /**
+     * Selects the minimum spanning tree algorithm used by {@link #getMST()}.
+     *
+     * @param strategy The strategy to use for later calls.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    public void setMstStrategy(MstStrategy strategy) {
+        checkNotSealed();
+        this.mstStrategy = Objects.requireNonNull(strategy);
+    }
+
+    /**
+     * @return The selected minimum spanning tree strategy.
+     */
+    public MstStrategy getMstStrategy() {
+        return mstStrategy;
+    }
+
+    /**
+     * Sets the bucket width used by {@link ShortestPathStrategy#DELTA_STEPPING}. Smaller widths
+     * do less redundant work, larger widths give each parallel round more vertices.
+     *
+     * @param delta The bucket width, or 0 to derive it from the weights and average degree.
+     * @throws IllegalArgumentException If delta is negative.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    public void setDeltaSteppingDelta(int delta) {
+        checkNotSealed();
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative: " + delta);
+        }
+        this.deltaSteppingDelta = delta;
+    }
+
+    /**
+     * Sets the number of landmarks that direct {@link #getDistance(String, String)} and
+     * {@link #getPath(String, String)}. Landmarks are chosen on the first such query after a load and
+     * cost one single-source search and |V| ints of memory each; 0 runs plain bidirectional Dijkstra.
+     *
+     * @param count The number of landmarks.
+     * @throws IllegalArgumentException If count is negative.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    public synchronized void setLandmarkCount(int count) {
+        checkNotSealed();
+        if (count < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + count);
+        }
+        State current = state;
+        if (count != current.landmarkCount) {
+            state = new State(current.vertices, current.store, count, current.components);
+        }
+    }
+
+    /**
+     * @return The number of landmarks used by point-to-point queries.
+     */
+    public int getLandmarkCount() {
+        return state.landmarkCount;
+    }
+
+    VertexIndex vertices() {
+        return state.vertices;
+    }
+
+    CsrStore store() {
+        return state.store;
+    }
+
+    /**
+     * @return A graph over the current names, adjacency and derived indexes that later loads of this graph
+     *          do not change, with default settings and its own cache.
+     */
+    CsrGraph pinned() {
+        return new CsrGraph(state);
+    }
+
+    /**
+     * Makes the load and setting methods throw from now on, before the graph is handed to other threads
+     * as a snapshot they query without locks.
+     */
+    void seal() {
+        sealed = true;
+    }
+
+    private void checkNotSealed() {
+        if (sealed) {
+            throw new UnsupportedOperationException("Published snapshots are read-only");
+        }
+    }
+
+    /**
+     * Sorts every neighbor range of a CSR adjacency by target id, keeping weights aligned.
+     *
+     * @param offsets The range boundaries, one more than the number of vertices.
+     * @param targets The neighbor ids, sorted in place.
+     * @param weights The edge weights, permuted together with the targets.
+     */
+    static void sortNeighbors(int[] offsets, int[] targets, int[] weights) {
+        int maxDegree = 0;
+        for (int u = 0; u + 1 < offsets.length; u++) {
+            maxDegree = Math.max(maxDegree, offsets[u + 1] - offsets[u]);
+        }
+        long[] scratch = new long[maxDegree];
+        for (int u = 0; u + 1 < offsets.length; u++) {
+            int begin = offsets[u];
+            int degree = offsets[u + 1] - begin;
+            for (int i = 0; i < degree; i++) {
+                scratch[i] = ((long) targets[begin + i] << 32) | (weights[begin + i] & 0xFFFFFFFFL);
+            }
+            // Sorting the packed (target, weight) pairs orders the neighbor range by target id
+            Arrays.sort(scratch, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets[begin + i] = (int) (scratch[i] >>> 32);
+                weights[begin + i] = (int) scratch[i];
+            }
+        }
+    }
+
+    /**
+     * Loads a graph from a file, replacing the current snapshot.
+     *
+     * @param pathToFile The path to the file containing the graph data.
+     * @throws Exception If there's an error reading the file or if the file format is invalid.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    @Override
+    public void load(String pathToFile) throws Exception {
+        checkNotSealed();
+        GraphImpl source = new GraphImpl();
+        source.load(pathToFile);
+        publish(source.freeze());
+    }
+
+    /**
+     * Loads a graph from lists of edges and weights, replacing the current snapshot.
+     *
+     * @param edges A list of strings representing the edges. Each pair of consecutive strings represents an edge.
+     * @param weights A list of integers representing the weights of the edges.
+     * @throws Exception If there's a mismatch between edges and weights or if any weight is negative.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    @Override
+    public void load(List<String> edges, List<Integer> weights) throws Exception {
+        checkNotSealed();
+        GraphImpl source = new GraphImpl();
+        source.load(edges, weights);
+        publish(source.freeze());
+    }
+
+    /**
+     * Loads the edges collected by a builder, replacing the current snapshot. The builder is empty afterwards.
+     *
+     * @param builder The builder holding the edges.
+     * @throws UnsupportedOperationException If this is a snapshot published by a {@link ConcurrentGraph}.
+     */
+    public void load(GraphBuilder builder) {
+        checkNotSealed();
+        GraphImpl source = new GraphImpl();
+        source.load(builder);
+        publish(source.freeze());
+    }
+
+    /**
+     * Switches to other storage if this graph still reads the given store, so that a {@link GraphArena}
+     * can cut its graphs off from the memory it owned without touching graphs that were loaded since.
+     */
+    synchronized void replaceStore(CsrStore current, VertexIndex vertices, CsrStore store) {
+        if (state.store == current) {
+            publish(new CsrGraph(vertices, store));
+        }
+    }
+
+    /**
+     * Replaces the graph with the names, adjacency and components of another, keeping the settings.
+     * Calls already running finish on the state they read, and whatever they derive from it, such as
+     * components, landmarks or cached trees, stays with that state.
+     */
+    private synchronized void publish(CsrGraph other) {
+        State next = other.state;
+        state = new State(next.vertices, next.store, state.landmarkCount, next.components);
+        cache.clear();
+    }
+
+    /**
+     * The edges of a snapshot cannot be changed; change a {@link GraphImpl} and freeze it again instead.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean addEdge(String u, String v, int weight) {
+        throw new UnsupportedOperationException("CsrGraph edges cannot be changed");
+    }
+
+    /**
+     * The edges of a snapshot cannot be changed; change a {@link GraphImpl} and freeze it again instead.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean removeEdge(String u, String v) {
+        throw new UnsupportedOperationException("CsrGraph edges cannot be changed");
+    }
+
+    /**
+     * The edges of a snapshot cannot be changed; change a {@link GraphImpl} and freeze it again instead.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean updateWeight(String u, String v, int weight) {
+        throw new UnsupportedOperationException("CsrGraph edges cannot be changed");
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return The number of vertices.
+     */
+    @Override
+    public int getVertexCount() {
+        return state.vertices.size();
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v The vertex to check.
+     * @return true if the vertex exists, false otherwise.
+     */
+    @Override
+    public boolean hasVertex(String v) {
+        return state.vertices.idOf(v) >= 0;
+    }
+
+    /**
+     * Returns an iterable of all vertices in the graph, in id order.
+     *
+     * @return An iterable of all vertices.
+     */
+    @Override
+    public Iterable<String> getVertices() {
+        return state.vertices.names();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return The number of edges.
+     */
+    @Override
+    public int getEdgeCount() {
+        return state.store.entryCount() / 2; // Each edge is stored twice
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @return true if the edge exists, false otherwise.
+     */
+    @Override
+    public boolean hasEdge(String u, String v) {
+        return findEdge(state, u, v) >= 0;
+    }
+
+    /**
+     * Returns the weight of an edge.
+     *
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @return The weight of the edge, or -1 if the edge doesn't exist.
+     */
+    @Override
+    public int getWeight(String u, String v) {
+        State current = state;
+        int slot = findEdge(current, u, v);
+        return slot >= 0 ? current.store.weight(slot) : -1;
+    }
+
+    /**
+     * Looks up edge (u,v) by name.
+     *
+     * @return The adjacency entry index of edge (u,v), or -1 if the edge doesn't exist.
+     */
+    private static int findEdge(State state, String u, String v) {
+        int uid = state.vertices.idOf(u);
+        int vid = state.vertices.idOf(v);
+        if (uid < 0 || vid < 0) {
+            return -1;
+        }
+        return findSlot(state.store, uid, vid);
+    }
+
+    /**
+     * Binary searches the sorted neighbor range of u for v.
+     *
+     * @return The adjacency entry index of edge (u,v), or -1 if the edge doesn't exist.
+     */
+    int findSlot(int u, int v) {
+        return findSlot(state.store, u, v);
+    }
+
+    private static int findSlot(CsrStore store, int u, int v) {
+        int lo = store.offset(u);
+        int hi = store.offset(u + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int target = store.target(mid);
+            if (target < v) {
+                lo = mid + 1;
+            } else if (target > v) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the vertices adjacent to a given vertex, in id order.
+     *
+     * @param u The vertex whose adjacent vertices are to be returned.
+     * @return A read-only view of the adjacent vertices.
+     */
+    @Override
+    public Iterable<String> getAdjacent(String u) {
+        State current = state;
+        int uid = current.vertices.idOf(u);
+        if (uid < 0) {
+            return Collections.emptyList();
+        }
+        VertexIndex names = current.vertices;
+        CsrStore adjacency = current.store;
+        int begin = adjacency.offset(uid);
+        int end = adjacency.offset(uid + 1);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                Objects.checkIndex(index, end - begin);
+                return names.nameOf(adjacency.target(begin + index));
+            }
+
+            @Override
+            public int size() {
+                return end - begin;
+            }
+        };
+    }
+
+    /**
+     * Computes a Minimum Spanning Tree (MST) of the graph with the selected {@link MstStrategy}.
+     * The default, Prim's algorithm, starts from the vertex with id 0 and spans only its component;
+     * Kruskal and Boruvka span every component. {@link #getComponentCount()} tells which case applies.
+     *
+     * @return A list of strings representing the edges in the MST.
+     */
+    @Override
+    public List<String> getMST() {
+        List<String> result = new ArrayList<>();
+        State current = state;
+        int n = current.vertices.size();
+        if (n <= 1) {
+            return result;  // No edges to span; the result holds vertex pairs only
+        }
+
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        MstEngine engine = mstStrategy.newEngine();
+        int[] edges = engine.spanningEdges(current.store);
+        for (int id : edges) {
+            result.add(current.vertices.nameOf(id));
+        }
+        if (recorder != null) {
+            recorder.searched(mstStrategy.name(), engine.counters());
+            recorder.finish(GraphMetrics.Operation.MST);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the shortest paths from a source vertex to all other vertices. Depending on the
+     * {@link ShortestPathStrategy}, this runs Dijkstra's algorithm with an indexed 4-ary heap,
+     * Dial's bucket queue for small integer weights, or BFS when all weights are equal.
+     *
+     * @param s The source vertex.
+     * @return The shortest path tree of the source, which maps every vertex to its distance, -1 if unreachable.
+     */
+    @Override
+    public ShortestPathTree getShortestPaths(String s) {
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        State current = state;
+        ShortestPathTree tree = treeFrom(current, current.vertices.idOf(s), recorder);
+        if (recorder != null) {
+            recorder.finish(GraphMetrics.Operation.SHORTEST_PATHS);
+        }
+        return tree;
+    }
+
+    /**
+     * Finds the distance between two vertices with bidirectional Dijkstra, directed by landmarks if
+     * {@link #setLandmarkCount(int)} asked for them.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The length of the shortest s->t path, or -1 if no such path exists.
+     */
+    @Override
+    public int getDistance(String s, String t) {
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        State current = state;
+        int source = current.vertices.idOf(s);
+        int target = current.vertices.idOf(t);
+        int dist = pairSearch(current, source, target, recorder);
+        if (recorder != null) {
+            recorder.finish(GraphMetrics.Operation.DISTANCE);
+        }
+        return dist == Integer.MAX_VALUE ? -1 : dist;
+    }
+
+    /**
+     * Finds a shortest path between two vertices, see {@link #getDistance(String, String)}.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The vertices of the path from s to t, or an empty list if no such path exists.
+     */
+    @Override
+    public List<String> getPath(String s, String t) {
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        State current = state;
+        int source = current.vertices.idOf(s);
+        int target = current.vertices.idOf(t);
+        List<String> path = new ArrayList<>();
+        if (pairSearch(current, source, target, recorder) != Integer.MAX_VALUE) {
+            for (int id : PAIR_ENGINE.get().path()) {
+                path.add(current.vertices.nameOf(id));
+            }
+        }
+        if (recorder != null) {
+            recorder.finish(GraphMetrics.Operation.PATH);
+        }
+        return path;
+    }
+
+    /**
+     * Runs the point-to-point search of one {@link #getDistance(String, String)} or
+     * {@link #getPath(String, String)} call on this thread's engine.
+     *
+     * @param recorder Receives the work done by the search, or null if the call is not measured.
+     * @return The distance, or Integer.MAX_VALUE if no path exists. The path stays in this thread's engine.
+     */
+    private int pairSearch(State state, int source, int target, GraphMetrics.Recorder recorder) {
+        if (!connected(state, source, target)) {
+            if (recorder != null) {
+                recorder.searched("COMPONENTS", null);
+            }
+            return Integer.MAX_VALUE;
+        }
+        Landmarks directing = landmarks(state);
+        PointToPointEngine engine = PAIR_ENGINE.get();
+        int dist = engine.distance(state.store, directing, source, target);
+        if (recorder != null) {
+            recorder.searched(directing != null && directing.size() > 0 ? "ALT" : "BIDIRECTIONAL", engine.counters());
+        }
+        return dist;
+    }
+
+    /**
+     * Returns the connected component of a vertex. Components are numbered in order of their
+     * smallest vertex id, so the component of the first vertex is 0.
+     *
+     * @param v A vertex.
+     * @return The component of v, or -1 if v is not in the graph.
+     */
+    @Override
+    public int componentOf(String v) {
+        State current = state;
+        int id = current.vertices.idOf(v);
+        return id >= 0 ? components(current).componentOf(id) : -1;
+    }
+
+    @Override
+    public boolean sameComponent(String u, String v) {
+        State current = state;
+        return connected(current, current.vertices.idOf(u), current.vertices.idOf(v));
+    }
+
+    @Override
+    public int getComponentSize(String v) {
+        State current = state;
+        int id = current.vertices.idOf(v);
+        if (id < 0) {
+            return 0;
+        }
+        ComponentIndex index = components(current);
+        return index.size(index.componentOf(id));
+    }
+
+    @Override
+    public int getComponentCount() {
+        return components(state).count();
+    }
+
+    /**
+     * @return Whether both ids are vertices of this graph and in the same component.
+     */
+    private static boolean connected(State state, int u, int v) {
+        return u >= 0 && v >= 0 && components(state).connected(u, v);
+    }
+
+    /**
+     * @return The connected components of this snapshot, finding them if the loader did not.
+     */
+    ComponentIndex components() {
+        return components(state);
+    }
+
+    private static ComponentIndex components(State state) {
+        ComponentIndex index = state.components;
+        if (index == null) {
+            // Racing threads find equal indexes, so a lost write is harmless
+            index = state.components = ComponentIndex.of(state.store);
+        }
+        return index;
+    }
+
+    /**
+     * Supplies the components of this snapshot, found while it was loaded.
+     */
+    void setComponents(ComponentIndex index) {
+        state.components = index;
+    }
+
+    /**
+     * @return The landmarks of this snapshot, choosing them if needed, or null if none were asked for.
+     */
+    Landmarks landmarks() {
+        return landmarks(state);
+    }
+
+    private static Landmarks landmarks(State state) {
+        if (state.landmarkCount == 0) {
+            return null;
+        }
+        Landmarks chosen = state.landmarks;
+        if (chosen == null) {
+            // Concurrent first queries may both choose; the results are equal
+            chosen = state.landmarks = Landmarks.choose(state.store, state.landmarkCount);
+        }
+        return chosen;
+    }
+
+    /**
+     * Computes the shortest paths from several sources on the common ForkJoinPool.
+     * Each worker thread reuses its own engine and scratch buffers across the sources it runs.
+     * Sources found in the shortest path cache are not searched again.
+     *
+     * @param sources The source vertices. Sources that are not in the graph reach no vertex.
+     * @return One row of distances per source, in the order of the collection.
+     */
+    @Override
+    public DistanceMatrix getShortestPaths(Collection<String> sources) {
+        return getShortestPaths(sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths from several sources on the given pool.
+     *
+     * @param sources The source vertices. Sources that are not in the graph reach no vertex.
+     * @param pool The pool whose threads run the searches.
+     * @return One row of distances per source, in the order of the collection.
+     */
+    public DistanceMatrix getShortestPaths(Collection<String> sources, ForkJoinPool pool) {
+        State current = state;
+        VertexIndex names = current.vertices;
+        List<String> order = new ArrayList<>(sources);
+        int[] ids = new int[order.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = names.idOf(order.get(i));
+        }
+        int[][] rows = new int[ids.length][];
+        // A parallel stream started from inside a pool runs on that pool's workers
+        ForkJoinTask<?> task = pool.submit(() -> IntStream.range(0, ids.length).parallel().forEach(i -> {
+            // Reuse cached rows, but do not let a large batch evict the hot sources
+            ShortestPathTree cached = ids[i] >= 0 ? cache.get(current.store, ids[i]) : null;
+            if (cached != null) {
+                rows[i] = cached.distances();
+            } else {
+                rows[i] = new int[names.size()];
+                engine(current.store).distances(current.store, ids[i], rows[i]);
+            }
+        }));
+        task.join();
+        return new DistanceMatrix(names, order, rows);
+    }
+
+    /**
+     * Returns the shortest path tree of a source, from the cache if it was computed before, otherwise by
+     * running the selected shortest path algorithm with this thread's engine and caching the result.
+     *
+     * @param state The graph to search.
+     * @param source The source id, or -1 for a vertex that is not in the graph.
+     * @param recorder Receives the work done by the search, or null if the call is not measured.
+     * @return The distances and parents of every vertex.
+     */
+    private ShortestPathTree treeFrom(State state, int source, GraphMetrics.Recorder recorder) {
+        ShortestPathTree tree = source >= 0 ? cache.get(state.store, source) : null;
+        if (tree == null) {
+            int n = state.vertices.size();
+            int[] dist = new int[n];
+            int[] parent = new int[n];
+            ShortestPathEngine engine = engine(state.store);
+            engine.distances(state.store, source, dist, parent);
+            if (recorder != null) {
+                recorder.searched(shortestPathStrategy.resolve(state.store).name(), engine.counters());
+            }
+            tree = new ShortestPathTree(state.vertices, source, dist, parent);
+            if (source >= 0) {
+                cache.put(state.store, source, tree);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the cache of shortest path results, to read its statistics or change its bound.
+     * It is cleared whenever the graph is loaded.
+     *
+     * @return The cache used by this graph.
+     */
+    public ShortestPathCache getShortestPathCache() {
+        return cache;
+    }
+
+    /**
+     * Shares a cache with this snapshot; the caller clears it whenever the snapshot is replaced.
+     */
+    void setShortestPathCache(ShortestPathCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @return This thread's engine for the algorithm the selected strategy resolves to on the given adjacency.
+     */
+    private ShortestPathEngine engine(CsrStore store) {
+        ShortestPathStrategy strategy = shortestPathStrategy.resolve(store);
+        ShortestPathEngine[] engines = ENGINES.get();
+        ShortestPathEngine engine = engines[strategy.ordinal()];
+        if (engine == null) {
+            engine = engines[strategy.ordinal()] = strategy.newEngine();
+        }
+        if (engine instanceof DeltaSteppingEngine) {
+            ((DeltaSteppingEngine) engine).setDelta(deltaSteppingDelta);
+        }
+        return engine;
+    }
+
+    /**
+     * Computes a report of vertices in a subgraph that have the same shortest path length
+     * from a source vertex as in the full graph.
+     *
+     * The report is the set of vertices reachable from s through subgraph edges that lie on a shortest
+     * path, found with a BFS over the subgraph in O(|subgraph|). The {@link ShortestPathDag} of the
+     * last source is kept, so checking further subgraphs against it does not search the graph again.
+     *
+     * @param s The source vertex.
+     * @param subgraph A list of strings representing the edges in the subgraph.
+     * @return A set of vertices that have the same shortest path length in the subgraph as in the full graph.
+     */
+    @Override
+    public Set<String> getReport(String s, List<String> subgraph) {
+        State current = state;
+        int source = current.vertices.idOf(s);
+        if (source < 0) {
+            return null;
+        }
+        if (subgraph == null || subgraph.isEmpty()) {
+            return Collections.singleton(s);
+        }
+        return report(current, dagFrom(current, source), subgraph);
+    }
+
+    /**
+     * Computes the reports of several subgraphs on the common ForkJoinPool, see
+     * {@link #getReport(String, List)}. The shortest path DAG of s is built once for all of them.
+     *
+     * @param s The source vertex.
+     * @param subgraphs The subgraphs, each in the form taken by getReport.
+     * @return One report per subgraph, in the order of the list.
+     */
+    @Override
+    public List<Set<String>> getReports(String s, List<List<String>> subgraphs) {
+        return getReports(s, subgraphs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the reports of several subgraphs on the given pool.
+     *
+     * @param s The source vertex.
+     * @param subgraphs The subgraphs, each in the form taken by getReport.
+     * @param pool The pool whose threads check the subgraphs.
+     * @return One report per subgraph, in the order of the list.
+     */
+    public List<Set<String>> getReports(String s, List<List<String>> subgraphs, ForkJoinPool pool) {
+        List<List<String>> order = new ArrayList<>(subgraphs);
+        List<Set<String>> reports = new ArrayList<>(Collections.nCopies(order.size(), null));
+        State current = state;
+        int source = current.vertices.idOf(s);
+        if (source < 0 || order.isEmpty()) {
+            return reports;
+        }
+        ShortestPathDag dag = dagFrom(current, source);
+        // Every task writes its own index, and join publishes the writes to this thread
+        ForkJoinTask<?> task = pool.submit(() -> IntStream.range(0, order.size()).parallel().forEach(i -> {
+            List<String> subgraph = order.get(i);
+            reports.set(i, subgraph == null || subgraph.isEmpty() ? Collections.singleton(s) : report(current, dag, subgraph));
+        }));
+        task.join();
+        return reports;
+    }
+
+    /**
+     * Returns the shortest path DAG of a source, reusing the one built for the previous call if it
+     * has the same source.
+     */
+    private ShortestPathDag dagFrom(State state, int source) {
+        ShortestPathDag dag = state.lastDag;
+        if (dag == null || dag.source() != source) {
+            dag = ShortestPathDag.build(state.store, source, treeFrom(state, source, null).distances());
+            state.lastDag = dag;
+        }
+        return dag;
+    }
+
+    /**
+     * Finds the vertices reachable from the source of the DAG through subgraph edges that are in the DAG.
+     */
+    private static Set<String> report(State state, ShortestPathDag dag, List<String> subgraph) {
+        VertexIndex vertices = state.vertices;
+        // Number the subgraph's vertices locally, so the work below is proportional to the subgraph
+        LocalIds ids = LOCAL_IDS.get().reset(vertices.size());
+        ids.localOf(dag.source());
+        int edgeCount = subgraph.size() / 2;
+        // A zero-weight edge between vertices at the same distance is in the DAG in both directions
+        int[] from = new int[2 * edgeCount];
+        int[] to = new int[2 * edgeCount];
+        int[] subOffsets = new int[2 * edgeCount + 2];
+        int kept = 0;
+        for (int i = 0; i + 1 < subgraph.size(); i += 2) {
+            // Skip vertices unknown to this graph
+            int u = vertices.idOf(subgraph.get(i));
+            int v = vertices.idOf(subgraph.get(i + 1));
+            if (u < 0 || v < 0) continue;
+            if (dag.isEdge(u, v)) {
+                from[kept] = ids.localOf(u);
+                to[kept] = ids.localOf(v);
+                subOffsets[from[kept++] + 1]++;
+            }
+            if (dag.isEdge(v, u)) {
+                from[kept] = ids.localOf(v);
+                to[kept] = ids.localOf(u);
+                subOffsets[from[kept++] + 1]++;
+            }
+        }
+        int m = ids.size;
+        for (int v = 0; v < m; v++) {
+            subOffsets[v + 1] += subOffsets[v];
+        }
+        int[] subTargets = new int[subOffsets[m]];
+        int[] fill = Arrays.copyOf(subOffsets, m);
+        for (int i = 0; i < kept; i++) {
+            subTargets[fill[from[i]]++] = to[i];
+        }
+
+        // BFS along the DAG edges of the subgraph; every vertex it reaches has a shortest path in it
+        boolean[] reached = new boolean[m];
+        int[] queue = new int[m];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        reached[0] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = subOffsets[u]; i < subOffsets[u + 1]; i++) {
+                int v = subTargets[i];
+                if (!reached[v]) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        Set<String> result = new HashSet<>(tail * 2);
+        for (int i = 0; i < tail; i++) {
+            result.add(vertices.nameOf(ids.globals[queue[i]]));
+        }
+        return result;
+    }
+
+    /**
+     * The graph a call runs on: the names and adjacency with the landmark count and what was derived
+     * from them. Loads and a new landmark count publish a new State instead of changing this one, so
+     * results derived on a replaced State are written to it and never reach its successor.
+     */
+    private static final class State {
+        final VertexIndex vertices;
+        final CsrStore store;
+        final int landmarkCount;
+        /** The connected components, given by the loader or found on first use. */
+        volatile ComponentIndex components;
+        /** The landmarks, chosen by the first point-to-point query that needs them. */
+        volatile Landmarks landmarks;
+        /** The shortest path DAG built by the last report, reused while reports keep the same source. */
+        volatile ShortestPathDag lastDag;
+
+        State(VertexIndex vertices, CsrStore store, int landmarkCount, ComponentIndex components) {
+            this.vertices = vertices;
+            this.store = store;
+            this.landmarkCount = landmarkCount;
+            this.components = components;
+        }
+    }
+
+    /**
+     * Numbers a few vertices of a large graph 0, 1, 2, ... in order of first use. A stamp array marks
+     * the ids numbered in the current round, so starting a round does not touch all |V| entries.
+     */
+    private static final class LocalIds {
+        private int[] stamp = new int[0];
+        private int[] local = new int[0];
+        private int round;
+        int[] globals = new int[16];
+        int size;
+
+        LocalIds reset(int n) {
+            if (stamp.length < n) {
+                stamp = new int[n];
+                local = new int[n];
+                round = 0;
+            }
+            if (++round == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                round = 1;
+            }
+            size = 0;
+            return this;
+        }
+
+        int localOf(int id) {
+            if (stamp[id] != round) {
+                stamp[id] = round;
+                if (size == globals.length) {
+                    globals = Arrays.copyOf(globals, size * 2);
+                }
+                globals[size] = id;
+                local[id] = size++;
+            }
+            return local[id];
+        }
+    }
+}
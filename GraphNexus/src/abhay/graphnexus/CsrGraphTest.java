@@ -0,0 +1,221 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CsrGraphTest {
+
+    String filePath = "g1.txt";
+
+    String SuperlongfilePath = "e10k.txt";
+
+    public CsrGraph graph;
+
+    @BeforeEach
+    public void setup() {
+        graph = new CsrGraph();
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        Assertions.assertEquals(0, graph.getVertexCount());
+        Assertions.assertEquals(0, graph.getEdgeCount());
+        Assertions.assertTrue(graph.getMST().isEmpty());
+        Assertions.assertFalse(graph.hasEdge("a", "b"));
+    }
+
+    @Test
+    public void testLoadFromFile() throws Exception {
+        graph.load(filePath);
+        Assertions.assertEquals(4, graph.getVertexCount());
+        Assertions.assertEquals(5, graph.getEdgeCount());
+        Assertions.assertEquals(2, graph.getWeight("a", "b"));
+        Assertions.assertEquals(5, graph.getWeight("c", "d"));
+        Assertions.assertEquals(-1, graph.getWeight("b", "d"));
+        Assertions.assertFalse(graph.hasEdge("a", "e"));
+    }
+
+    @Test
+    public void testLoadFromLists() throws Exception {
+        graph.load(List.of("a", "b", "b", "c", "c", "a", "a", "b"), List.of(1, 2, 3, 4));
+        Assertions.assertEquals(3, graph.getVertexCount());
+        Assertions.assertEquals(3, graph.getEdgeCount());
+        Assertions.assertEquals(4, graph.getWeight("b", "a"), "Duplicate edges keep the last weight");
+        Assertions.assertThrows(Exception.class, () -> graph.load(List.of("a", "b"), List.of(-1)));
+        Assertions.assertEquals(3, graph.getVertexCount(), "A failed load keeps the previous snapshot");
+    }
+
+    @Test
+    public void testAdjacentMatchesHasEdge() throws Exception {
+        graph.load(filePath);
+        for (String u : graph.getVertices()) {
+            Set<String> expected = new HashSet<>();
+            for (String v : graph.getVertices()) {
+                if (graph.hasEdge(u, v)) expected.add(v);
+            }
+            Set<String> actual = new HashSet<>();
+            for (String v : graph.getAdjacent(u)) {
+                actual.add(v);
+            }
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testMatchesGraphImpl() throws Exception {
+        GraphImpl source = new GraphImpl();
+        source.load(filePath);
+        CsrGraph frozen = source.freeze();
+
+        Assertions.assertEquals(source.getShortestPaths("a"), frozen.getShortestPaths("a"));
+        Assertions.assertEquals(source.getReport("a", source.getMST()), frozen.getReport("a", frozen.getMST()));
+        Assertions.assertEquals(mstWeight(source, source.getMST()), mstWeight(frozen, frozen.getMST()));
+    }
+
+    @Test
+    public void testLargeGraph() throws Exception {
+        graph.load(SuperlongfilePath);
+        Assertions.assertEquals(10001, graph.getVertexCount());
+        Assertions.assertEquals(10000, graph.getEdgeCount());
+        Assertions.assertEquals(20000, graph.getMST().size());
+        Map<String, Integer> shortestPaths = graph.getShortestPaths("0");
+        Assertions.assertEquals(10000, shortestPaths.get("10000").intValue());
+        Set<String> report = graph.getReport("0", List.of("0", "1", "1", "2", "2", "3"));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("0", "1", "2", "3")), report);
+    }
+
+    @Test
+    public void testReportsFollowShortestPaths() throws Exception {
+        graph.load(filePath);
+        List<List<String>> subgraphs = List.of(
+                List.of("a", "b", "b", "c"),
+                List.of("a", "b", "b", "c", "c", "a"),
+                List.of("d", "a", "d", "c"),
+                List.of());
+        List<Set<String>> expected = List.of(Set.of("a", "b"), Set.of("a", "b", "c"), Set.of("a", "d"), Set.of("a"));
+        Assertions.assertEquals(expected, graph.getReports("a", subgraphs));
+        for (int i = 0; i < subgraphs.size(); i++) {
+            Assertions.assertEquals(expected.get(i), graph.getReport("a", subgraphs.get(i)));
+        }
+        Assertions.assertEquals(Arrays.asList(null, null), graph.getReports("x", subgraphs.subList(0, 2)));
+    }
+
+    @Test
+    public void testReportsMatchSubgraphDistances() throws Exception {
+        Random random = new Random(14);
+        int n = 300;
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 3 * n; i++) {
+            edges.add(String.valueOf(random.nextInt(n)));
+            edges.add(String.valueOf(random.nextInt(n)));
+            weights.add(random.nextInt(4));
+        }
+        graph.load(edges, weights);
+        Map<String, Integer> full = graph.getShortestPaths("0");
+        List<List<String>> subgraphs = new ArrayList<>();
+        for (int k = 0; k < 50; k++) {
+            List<String> subgraph = new ArrayList<>();
+            for (int i = 0; i < edges.size(); i += 2) {
+                if (random.nextInt(3) > 0) {
+                    subgraph.add(edges.get(i));
+                    subgraph.add(edges.get(i + 1));
+                }
+            }
+            subgraphs.add(subgraph);
+        }
+        List<Set<String>> reports = graph.getReports("0", subgraphs);
+        for (int k = 0; k < subgraphs.size(); k++) {
+            // A vertex is reported when its distance within the subgraph equals its distance in the graph
+            List<String> subgraph = subgraphs.get(k);
+            List<Integer> subWeights = new ArrayList<>();
+            for (int i = 0; i < subgraph.size(); i += 2) {
+                subWeights.add(graph.getWeight(subgraph.get(i), subgraph.get(i + 1)));
+            }
+            CsrGraph sub = new CsrGraph();
+            sub.load(subgraph, subWeights);
+            Set<String> expected = new HashSet<>();
+            expected.add("0");
+            if (sub.hasVertex("0")) {
+                sub.getShortestPaths("0").forEach((v, d) -> {
+                    if (d.equals(full.get(v))) expected.add(v);
+                });
+            }
+            Assertions.assertEquals(expected, reports.get(k));
+            Assertions.assertEquals(expected, graph.getReport("0", subgraph));
+        }
+    }
+
+    @Test
+    public void testLoadWhileQuerying() throws Exception {
+        // Two paths of 1000 vertices with different names and weights
+        List<String> edgesA = new ArrayList<>();
+        List<String> edgesB = new ArrayList<>();
+        for (int i = 0; i + 1 < 1000; i++) {
+            edgesA.addAll(List.of("a" + i, "a" + (i + 1)));
+            edgesB.addAll(List.of("b" + i, "b" + (i + 1)));
+        }
+        List<Integer> weightsA = new ArrayList<>(Collections.nCopies(999, 1));
+        List<Integer> weightsB = new ArrayList<>(Collections.nCopies(999, 3));
+        graph.load(edgesA, weightsA);
+        graph.setLandmarkCount(4);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        // Each call sees one of the two graphs whole, never names of one with edges of the other
+                        int a = graph.getDistance("a0", "a999");
+                        Assertions.assertTrue(a == 999 || a == -1, "a0-a999: " + a);
+                        int b = graph.getDistance("b0", "b999");
+                        Assertions.assertTrue(b == 2997 || b == -1, "b0-b999: " + b);
+                        Integer tree = graph.getShortestPaths("b0").get("b500");
+                        Assertions.assertTrue(tree == null || tree == 1500, "b0-b500: " + tree);
+                        Assertions.assertEquals(1998, graph.getMST().size());
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < 100 && failure.get() == null; i++) {
+            if (i % 2 == 0) {
+                graph.load(edgesB, weightsB);
+            } else {
+                graph.load(edgesA, weightsA);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private static int mstWeight(Graph g, List<String> mst) {
+        int total = 0;
+        for (int i = 0; i < mst.size(); i += 2) {
+            total += g.getWeight(mst.get(i), mst.get(i + 1));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,46 @@
+package abhay.graphnexus;
+
+/**
+ * Read access to the arrays of a CSR adjacency, independent of where they live.
+ * The neighbors of vertex u are the entries offset(u) .. offset(u + 1) - 1, sorted by target id.
+ */
+interface CsrStore {
+
+    /**
+     * @return |V|
+     */
+    int vertexCount();
+
+    /**
+     * @return The number of adjacency entries, two per undirected edge and one per self-loop.
+     */
+    int entryCount();
+
+    /**
+     * @param u A vertex id, or vertexCount() for the end of the last range.
+     * @return The index of the first adjacency entry of u.
+     */
+    int offset(int u);
+
+    /**
+     * @param i An adjacency entry index.
+     * @return The neighbor id stored at that entry.
+     */
+    int target(int i);
+
+    /**
+     * @param i An adjacency entry index.
+     * @return The edge weight stored at that entry.
+     */
+    int weight(int i);
+
+    /**
+     * @return The smallest edge weight, or 0 if there are no edges.
+     */
+    int minWeight();
+
+    /**
+     * @return The largest edge weight, or 0 if there are no edges.
+     */
+    int maxWeight();
+}
@@ -0,0 +1,322 @@
+package abhay.graphnexus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel delta-stepping (Meyer and Sanders). Tentative distances are grouped into buckets of
+ * width delta. The lowest non-empty bucket is settled by relaxing its light edges (weight <= delta)
+ * until no vertex re-enters the bucket, then the heavy edges of every vertex it settled are relaxed
+ * once. Each relaxation round splits the frontier into chunks that run on a ForkJoinPool and lower
+ * distances with an atomic compare-and-set minimum on the shared int array.
+ *
+ * Buckets are circular: no tentative distance is more than delta + maxWeight past the current
+ * bucket, so maxWeight / delta + 2 buckets suffice. Buckets may hold stale or duplicate entries;
+ * they are dropped when the bucket is taken.
+ *
+ * When parents are requested, every successful lowering is logged with the vertex it came from, and
+ * after the round the entries that still hold the vertex's distance are written to the parent array.
+ * Writing them during the round could let a stale parent overwrite the one of a lower distance.
+ */
+final class DeltaSteppingEngine implements ShortestPathEngine {
+    private static final VarHandle DIST = MethodHandles.arrayElementVarHandle(int[].class);
+    /** Frontiers smaller than this are relaxed on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 2048;
+    private static final int MIN_CHUNK = 512;
+    private static final int MAX_BUCKETS = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private int delta;
+
+    private IntList[] buckets = new IntList[0];
+    private int[] frontierMark = new int[0];
+    private int[] settledMark = new int[0];
+    private int epoch;
+    private final SearchCounters counters = new SearchCounters();
+
+    /**
+     * @param pool The pool the relaxation rounds run on.
+     * @param delta The bucket width, or 0 to derive it from the graph.
+     */
+    DeltaSteppingEngine(ForkJoinPool pool, int delta) {
+        this.pool = pool;
+        setDelta(delta);
+    }
+
+    /**
+     * @param delta The bucket width, or 0 to derive it from the graph.
+     */
+    void setDelta(int delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative: " + delta);
+        }
+        this.delta = delta;
+    }
+
+    /**
+     * Chooses the bucket width: the requested delta, or by default the largest weight divided by
+     * the average degree, so that a vertex has about one heavy edge per bucket width.
+     * Widened if needed so that no more than MAX_BUCKETS buckets are required.
+     */
+    int deltaFor(CsrStore graph) {
+        int maxWeight = graph.maxWeight();
+        long chosen = delta;
+        if (chosen == 0) {
+            long degree = Math.max(1, graph.entryCount() / Math.max(1, graph.vertexCount()));
+            chosen = maxWeight / degree;
+        }
+        chosen = Math.max(chosen, maxWeight / (MAX_BUCKETS - 2) + 1);
+        return (int) Math.max(1, chosen);
+    }
+
+    @Override
+    public void distances(CsrStore graph, int source, int[] dist, int[] parent) {
+        int n = graph.vertexCount();
+        Arrays.fill(dist, 0, n, Integer.MAX_VALUE);
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        if (source < 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return;
+        }
+        int width = deltaFor(graph);
+        int bucketCount = graph.maxWeight() / width + 2;
+        prepare(n, bucketCount);
+
+        dist[source] = 0;
+        buckets[0].add(source);
+        long pending = 1;
+        long pushes = 1, pops = 0, stale = 0, relaxations = 0, settledCount = 0;
+        IntList settled = new IntList();
+        for (int bucket = 0; pending > 0; bucket++) {
+            IntList entries = buckets[bucket % bucketCount];
+            if (entries.size == 0) continue;
+            pending -= entries.size;
+            pops += entries.size;
+            int mark = nextEpoch();
+            IntList frontier = new IntList();
+            for (int i = 0; i < entries.size; i++) {
+                int v = entries.items[i];
+                if (dist[v] / width == bucket && frontierMark[v] != mark) {
+                    frontierMark[v] = mark;
+                    frontier.add(v);
+                }
+            }
+            stale += entries.size - frontier.size;
+            entries.size = 0;
+
+            // Light edges can put vertices back into this bucket, so repeat until it stays empty
+            int settledEpoch = nextEpoch();
+            settled.size = 0;
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; i++) {
+                    int v = frontier.items[i];
+                    if (settledMark[v] != settledEpoch) {
+                        settledMark[v] = settledEpoch;
+                        settled.add(v);
+                    }
+                }
+                Relaxed relaxed = relax(graph, dist, frontier, true, width, bucket, parent != null);
+                setParents(parent, dist, relaxed.lowered);
+                pending += schedule(relaxed.later, dist, width, bucketCount);
+                relaxations += relaxed.relaxations;
+                pushes += relaxed.later.size + relaxed.same.size;
+                pops += relaxed.same.size;
+                mark = nextEpoch();
+                frontier = new IntList();
+                for (int i = 0; i < relaxed.same.size; i++) {
+                    int v = relaxed.same.items[i];
+                    if (frontierMark[v] != mark) {
+                        frontierMark[v] = mark;
+                        frontier.add(v);
+                    }
+                }
+                stale += relaxed.same.size - frontier.size;
+            }
+            Relaxed heavy = relax(graph, dist, settled, false, width, bucket, parent != null);
+            setParents(parent, dist, heavy.lowered);
+            pending += schedule(heavy.later, dist, width, bucketCount);
+            relaxations += heavy.relaxations;
+            pushes += heavy.later.size;
+            settledCount += settled.size;
+        }
+        // A lowered distance files the vertex again rather than moving it, so there are no decrease-keys
+        counters.set(pushes, pops, stale, 0, relaxations, settledCount);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+
+    private void prepare(int n, int bucketCount) {
+        if (buckets.length < bucketCount) {
+            int old = buckets.length;
+            buckets = Arrays.copyOf(buckets, bucketCount);
+            for (int i = old; i < bucketCount; i++) {
+                buckets[i] = new IntList();
+            }
+        }
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i].size = 0;
+        }
+        if (frontierMark.length < n) {
+            frontierMark = new int[n];
+            settledMark = new int[n];
+            epoch = 0;
+        }
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(frontierMark, 0);
+            Arrays.fill(settledMark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    /**
+     * Files relaxed vertices under the bucket of their distance as it stands after the round.
+     *
+     * @return The number of entries added.
+     */
+    private int schedule(IntList later, int[] dist, int width, int bucketCount) {
+        for (int i = 0; i < later.size; i++) {
+            int v = later.items[i];
+            buckets[(dist[v] / width) % bucketCount].add(v);
+        }
+        return later.size;
+    }
+
+    /**
+     * Writes the parents logged by a round for the vertices whose distance they still explain. The
+     * distance a vertex ends a round with was set by exactly one lowering, since each lowering is strict.
+     */
+    private static void setParents(int[] parent, int[] dist, IntList lowered) {
+        for (int i = 0; i < lowered.size; i += 3) {
+            int v = lowered.items[i];
+            if (dist[v] == lowered.items[i + 2]) {
+                parent[v] = lowered.items[i + 1];
+            }
+        }
+    }
+
+    /**
+     * Relaxes the light or heavy edges of every vertex in the frontier, in parallel when it is large.
+     */
+    private Relaxed relax(CsrStore graph, int[] dist, IntList frontier, boolean light, int width, int bucket,
+                          boolean logParents) {
+        int size = frontier.size;
+        if (size < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            return relaxRange(graph, dist, frontier.items, 0, size, light, width, bucket, logParents);
+        }
+        int chunks = (int) Math.min(pool.getParallelism() * 4L, (size + MIN_CHUNK - 1) / MIN_CHUNK);
+        List<Callable<Relaxed>> tasks = new ArrayList<>(chunks);
+        int[] items = frontier.items;
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) size * c / chunks);
+            int to = (int) ((long) size * (c + 1) / chunks);
+            tasks.add(() -> relaxRange(graph, dist, items, from, to, light, width, bucket, logParents));
+        }
+        Relaxed merged = new Relaxed();
+        try {
+            for (Future<Relaxed> future : pool.invokeAll(tasks)) {
+                Relaxed part = future.get();
+                merged.same.addAll(part.same);
+                merged.later.addAll(part.later);
+                merged.lowered.addAll(part.lowered);
+                merged.relaxations += part.relaxations;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Delta-stepping round failed", e);
+        }
+        return merged;
+    }
+
+    private static Relaxed relaxRange(CsrStore graph, int[] dist, int[] frontier, int from, int to,
+                                      boolean light, int width, int bucket, boolean logParents) {
+        Relaxed relaxed = new Relaxed();
+        long relaxations = 0;
+        for (int i = from; i < to; i++) {
+            int u = frontier[i];
+            int du = (int) DIST.getOpaque(dist, u);
+            int end = graph.offset(u + 1);
+            for (int slot = graph.offset(u); slot < end; slot++) {
+                int weight = graph.weight(slot);
+                if ((weight <= width) != light) continue;
+                relaxations++;
+                int newDist = du + weight;
+                // A negative sum means the int overflowed; such a path cannot be shorter
+                int v = graph.target(slot);
+                if (newDist >= 0 && lowerDistance(dist, v, newDist)) {
+                    (newDist / width == bucket ? relaxed.same : relaxed.later).add(v);
+                    if (logParents) {
+                        relaxed.lowered.add(v);
+                        relaxed.lowered.add(u);
+                        relaxed.lowered.add(newDist);
+                    }
+                }
+            }
+        }
+        relaxed.relaxations = relaxations;
+        return relaxed;
+    }
+
+    /**
+     * Atomically lowers dist[v] to newDist if that is smaller.
+     *
+     * @return true if this call lowered the distance.
+     */
+    static boolean lowerDistance(int[] dist, int v, int newDist) {
+        int current = (int) DIST.getOpaque(dist, v);
+        while (newDist < current) {
+            if (DIST.weakCompareAndSet(dist, v, current, newDist)) {
+                return true;
+            }
+            current = (int) DIST.getOpaque(dist, v);
+        }
+        return false;
+    }
+
+    /**
+     * The vertices whose distance a relaxation round lowered, split by whether they stay in the current bucket,
+     * and if parents are logged, a (vertex, parent, distance) triple per lowering.
+     */
+    private static final class Relaxed {
+        final IntList same = new IntList();
+        final IntList later = new IntList();
+        final IntList lowered = new IntList();
+        long relaxations;
+    }
+
+    /**
+     * A growable list of primitive ints.
+     */
+    private static final class IntList {
+        int[] items = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, size + other.size));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+    }
+}
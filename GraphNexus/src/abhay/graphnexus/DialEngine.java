@@ -0,0 +1,107 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Dial's algorithm: Dijkstra with a circular array of maxWeight + 1 buckets indexed by distance.
+ * Every queued distance lies within maxWeight of the one being settled, so the buckets never
+ * collide, and the search runs in O(V + E + maxDistance) without comparisons.
+ *
+ * Buckets are intrusive doubly linked lists threaded through per-vertex next/prev arrays, so
+ * lowering a distance unlinks the vertex in O(1). All arrays are reused between calls.
+ */
+final class DialEngine implements ShortestPathEngine {
+    private static final int[] NONE = new int[0];
+
+    private int[] heads = NONE;
+    private int[] next = NONE;
+    private int[] prev = NONE;
+    private final SearchCounters counters = new SearchCounters();
+
+    @Override
+    public void distances(CsrStore graph, int source, int[] dist, int[] parent) {
+        int n = graph.vertexCount();
+        Arrays.fill(dist, 0, n, Integer.MAX_VALUE);
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        if (source < 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return;
+        }
+        int bucketCount = graph.maxWeight() + 1;
+        if (heads.length < bucketCount) {
+            // Every run leaves the buckets empty, so only a new array needs to be cleared
+            heads = new int[bucketCount];
+            Arrays.fill(heads, -1);
+        }
+        if (next.length < n) {
+            next = new int[n];
+            prev = new int[n];
+        }
+
+        dist[source] = 0;
+        link(source, 0);
+        int queued = 1;
+        long settled = 0, scanned = 0, improved = 0;
+        for (int current = 0; queued > 0; current++) {
+            int bucket = current % bucketCount;
+            int u;
+            while ((u = heads[bucket]) >= 0) {
+                unlink(u, bucket);
+                queued--;
+                int start = graph.offset(u), end = graph.offset(u + 1);
+                settled++;
+                scanned += end - start;
+                for (int slot = start; slot < end; slot++) {
+                    int v = graph.target(slot);
+                    int newDist = current + graph.weight(slot);
+                    // A negative sum means the int overflowed; such a path cannot be shorter
+                    if (newDist >= 0 && newDist < dist[v]) {
+                        if (dist[v] == Integer.MAX_VALUE) {
+                            queued++;
+                        } else {
+                            unlink(v, dist[v] % bucketCount);
+                        }
+                        dist[v] = newDist;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                        link(v, newDist % bucketCount);
+                        improved++;
+                    }
+                }
+            }
+        }
+        // Moving a linked vertex to a lower bucket is Dial's decrease-key
+        counters.set(settled, settled, 0, improved - (settled - 1), scanned, settled);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+
+    private void link(int v, int bucket) {
+        int head = heads[bucket];
+        next[v] = head;
+        prev[v] = -1;
+        if (head >= 0) {
+            prev[head] = v;
+        }
+        heads[bucket] = v;
+    }
+
+    private void unlink(int v, int bucket) {
+        int after = next[v];
+        int before = prev[v];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[bucket] = after;
+        }
+        if (after >= 0) {
+            prev[after] = before;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm on an {@link IndexedIntHeap}. Every vertex is queued at most once and
+ * improvements use decrease-key, so the queue stays within |V| entries and a warmed-up engine
+ * does not allocate. With decrease-key there are no stale entries to skip.
+ */
+final class DijkstraEngine implements ShortestPathEngine {
+    private final IndexedIntHeap queue = new IndexedIntHeap();
+    private final SearchCounters counters = new SearchCounters();
+
+    @Override
+    public void distances(CsrStore graph, int source, int[] dist, int[] parent) {
+        int n = graph.vertexCount();
+        Arrays.fill(dist, 0, n, Integer.MAX_VALUE);
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        if (source < 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return;
+        }
+        queue.ensureCapacity(n);
+        queue.clear();
+        dist[source] = 0;
+        queue.insertOrDecrease(source, 0);
+
+        long settled = 0, scanned = 0, improved = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.pollMin();
+            int du = dist[u];
+            int start = graph.offset(u), end = graph.offset(u + 1);
+            settled++;
+            scanned += end - start;
+            for (int slot = start; slot < end; slot++) {
+                int v = graph.target(slot);
+                int newDist = du + graph.weight(slot);
+                // A negative sum means the int overflowed; such a path cannot be shorter
+                if (newDist >= 0 && newDist < dist[v]) {
+                    dist[v] = newDist;
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                    queue.insertOrDecrease(v, newDist);
+                    improved++;
+                }
+            }
+        }
+        // Every queued vertex is popped once; improvements beyond the first insert were decrease-keys
+        counters.set(settled, settled, 0, improved - (settled - 1), scanned, settled);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+}
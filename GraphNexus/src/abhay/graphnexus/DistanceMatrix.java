@@ -0,0 +1,67 @@
+package abhay.graphnexus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest path distances from several sources to every vertex, stored as one int row per source
+ * indexed by vertex id. Returned by {@link Graph#getShortestPaths(java.util.Collection)}.
+ */
+public final class DistanceMatrix {
+    private final VertexIndex vertices;
+    private final List<String> sources;
+    private final int[][] rows;
+
+    DistanceMatrix(VertexIndex vertices, List<String> sources, int[][] rows) {
+        this.vertices = vertices;
+        this.sources = Collections.unmodifiableList(sources);
+        this.rows = rows;
+    }
+
+    /**
+     * @return The sources in the order they were given, one row each.
+     */
+    public List<String> getSources() {
+        return sources;
+    }
+
+    /**
+     * Returns the length of the shortest path between a source and a vertex.
+     *
+     * @param source One of the sources of this matrix. If it was given more than once, the first row is used.
+     * @param target A vertex of the graph.
+     * @return The length of the shortest source->target path, or -1 if no such path exists.
+     * @throws IllegalArgumentException If source is not a source of this matrix or target is not a vertex.
+     */
+    public int getDistance(String source, String target) {
+        int row = sources.indexOf(source);
+        if (row < 0) {
+            throw new IllegalArgumentException("Not a source of this matrix: " + source);
+        }
+        return getDistance(row, target);
+    }
+
+    /**
+     * Returns the length of the shortest path between the source of a row and a vertex.
+     *
+     * @param row The index of the source in {@link #getSources()}.
+     * @param target A vertex of the graph.
+     * @return The length of the shortest path, or -1 if no such path exists.
+     * @throws IllegalArgumentException If target is not a vertex.
+     */
+    public int getDistance(int row, String target) {
+        int id = vertices.idOf(target);
+        if (id < 0) {
+            throw new IllegalArgumentException("Not a vertex: " + target);
+        }
+        int distance = rows[row][id];
+        return distance == Integer.MAX_VALUE ? -1 : distance;
+    }
+
+    /**
+     * @return The distances of one row indexed by vertex id, Integer.MAX_VALUE for unreachable vertices.
+     */
+    int[] row(int row) {
+        return rows[row];
+    }
+}
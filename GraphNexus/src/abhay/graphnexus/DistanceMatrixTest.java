@@ -0,0 +1,63 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class DistanceMatrixTest {
+
+    @Test
+    public void testMatchesSingleSourceQueries() throws Exception {
+        Graph graph = new GraphImpl();
+        graph.load("g1.txt");
+        List<String> sources = List.of("a", "b", "c", "d");
+        DistanceMatrix matrix = graph.getShortestPaths(sources);
+        Assertions.assertEquals(sources, matrix.getSources());
+        for (String s : sources) {
+            Map<String, Integer> expected = graph.getShortestPaths(s);
+            for (String v : graph.getVertices()) {
+                Assertions.assertEquals(expected.get(v).intValue(), matrix.getDistance(s, v));
+            }
+        }
+    }
+
+    @Test
+    public void testManySourcesOnLargeGraph() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load("e10k.txt");
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 200; i += 3) {
+            sources.add(String.valueOf(i * 50));
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            DistanceMatrix matrix = graph.getShortestPaths(sources, pool);
+            for (int row = 0; row < sources.size(); row += 10) {
+                Map<String, Integer> expected = graph.getShortestPaths(sources.get(row));
+                for (String v : List.of("0", "1", "5000", "10000")) {
+                    Assertions.assertEquals(expected.get(v).intValue(), matrix.getDistance(row, v));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnknownAndUnreachable() throws Exception {
+        Graph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "c", "d"), List.of(3, 4));
+        DistanceMatrix matrix = graph.getShortestPaths(List.of("a", "x", "a"));
+        Assertions.assertEquals(3, matrix.getDistance("a", "b"));
+        Assertions.assertEquals(-1, matrix.getDistance("a", "c"));
+        Assertions.assertEquals(-1, matrix.getDistance("x", "a"));
+        Assertions.assertEquals(3, matrix.getDistance(2, "b"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.getDistance("b", "a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.getDistance("a", "y"));
+        Assertions.assertTrue(graph.getShortestPaths(List.of()).getSources().isEmpty());
+    }
+}
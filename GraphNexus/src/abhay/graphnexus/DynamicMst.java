@@ -0,0 +1,426 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimum spanning forest kept up to date under edge insertions, deletions and weight changes.
+ *
+ * The forest is stored in a link-cut tree in which every tree edge is a node of its own carrying
+ * the edge weight, so the heaviest edge on the tree path between two vertices is found in
+ * amortized O(log V). That answers insertions and weight decreases: the new edge replaces the
+ * heaviest path edge if it is lighter. When a tree edge is deleted or made heavier, the forest is
+ * cut and the lightest edge reconnecting the two halves is searched from the smaller half, found
+ * by searching both halves' tree adjacency in lockstep. That search costs time proportional to the
+ * smaller half and the degrees of its vertices, so deleting an edge near a leaf is cheap.
+ *
+ * Removing or raising an edge that is not in the forest costs O(1).
+ */
+final class DynamicMst {
+
+    private final Adjacency graph;
+
+    // Link-cut tree over vertex nodes and edge nodes
+    private int[] left = new int[0];
+    private int[] right = new int[0];
+    private int[] parent = new int[0];
+    private boolean[] flipped = new boolean[0];
+    private int[] value = new int[0];
+    private int[] maxNode = new int[0];
+    private int[] edgeU = new int[0];
+    private int[] edgeV = new int[0];
+    private int nodeCount;
+    private int[] freeNodes = new int[0];
+    private int freeCount;
+
+    /** The link-cut node of every vertex id, -1 before the vertex is seen. */
+    private int[] vertexNode = new int[0];
+    /** The edge node of every tree edge, keyed by {@link #key(int, int)}. */
+    private final Map<Long, Integer> treeEdges = new HashMap<>();
+    /** Tree neighbors of every vertex id. */
+    private int[][] treeAdjacent = new int[0][];
+    private int[] treeDegree = new int[0];
+
+    private int[] stamp = new int[0];
+    private int round;
+    /** Breadth-first queues of the two halves of a cut tree, reused across deletions. */
+    private final int[][] queues = {new int[16], new int[16]};
+    private final int[] sizes = new int[2];
+    private final int[] marks = new int[2];
+
+    /**
+     * @param graph The adjacency of the graph, read during replacement searches.
+     * @param vertexCount The number of vertices.
+     * @param forest An initial minimum spanning forest as consecutive (u, v) id pairs.
+     */
+    DynamicMst(Adjacency graph, int vertexCount, int[] forest) {
+        this.graph = graph;
+        ensureVertices(vertexCount);
+        for (int i = 0; i < forest.length; i += 2) {
+            int u = forest[i], v = forest[i + 1];
+            link(u, v, weightOf(u, v));
+        }
+    }
+
+    /**
+     * Updates the forest after edge (u,v) was added with the given weight, or had its weight lowered.
+     */
+    void edgeAddedOrLowered(int u, int v, int weight) {
+        if (u == v) return;
+        ensureVertices(Math.max(u, v) + 1);
+        Integer node = treeEdges.get(key(u, v));
+        if (node != null) {
+            // A lighter tree edge stays in the tree
+            setValue(node, weight);
+            return;
+        }
+        int a = vertexNode[u], b = vertexNode[v];
+        if (findRoot(a) != findRoot(b)) {
+            link(u, v, weight);
+            return;
+        }
+        makeRoot(a);
+        access(b);
+        splay(b);
+        int heaviest = maxNode[b];
+        if (value[heaviest] > weight) {
+            cut(edgeU[heaviest], edgeV[heaviest]);
+            link(u, v, weight);
+        }
+    }
+
+    /**
+     * Updates the forest after edge (u,v) was removed from the graph, or had its weight raised.
+     * The adjacency must already reflect the change.
+     */
+    void edgeRemovedOrRaised(int u, int v) {
+        if (u == v || !treeEdges.containsKey(key(u, v))) {
+            // Removing or raising a non-tree edge cannot change the forest
+            return;
+        }
+        cut(u, v);
+        int side = searchSmallerSide(u, v);
+        int[] queue = queues[side];
+        int mark = marks[side];
+        int bestU = -1, bestV = -1, bestWeight = Integer.MAX_VALUE;
+        for (int i = 0; i < sizes[side]; i++) {
+            int x = queue[i];
+            for (int k = 0, degree = graph.degree(x); k < degree; k++) {
+                int y = graph.target(x, k);
+                int w = graph.weight(x, k);
+                // Every vertex of the smaller tree carries its mark, so an unmarked neighbor is across the cut
+                if (stamp[y] != mark && w < bestWeight) {
+                    bestU = x;
+                    bestV = y;
+                    bestWeight = w;
+                }
+            }
+        }
+        if (bestU >= 0) {
+            link(bestU, bestV, bestWeight);
+        }
+    }
+
+    /**
+     * Searches the trees of u and v breadth-first in lockstep until one of them is exhausted, so the
+     * work is proportional to the smaller tree. Fills queues, sizes and marks for both sides.
+     *
+     * @return The side, 0 for u and 1 for v, whose queue holds its whole tree, each vertex stamped with its mark.
+     */
+    private int searchSmallerSide(int u, int v) {
+        int[] heads = {0, 0};
+        int[] starts = {u, v};
+        for (int side = 0; side < 2; side++) {
+            marks[side] = nextRound();
+            stamp[starts[side]] = marks[side];
+            queues[side][0] = starts[side];
+            sizes[side] = 1;
+        }
+        while (true) {
+            for (int side = 0; side < 2; side++) {
+                if (heads[side] == sizes[side]) {
+                    return side;
+                }
+                int x = queues[side][heads[side]++];
+                for (int k = 0; k < treeDegree[x]; k++) {
+                    int y = treeAdjacent[x][k];
+                    if (stamp[y] != marks[side]) {
+                        stamp[y] = marks[side];
+                        if (sizes[side] == queues[side].length) {
+                            queues[side] = Arrays.copyOf(queues[side], sizes[side] * 2);
+                        }
+                        queues[side][sizes[side]++] = y;
+                    }
+                }
+            }
+        }
+    }
+
+    private int nextRound() {
+        if (++round == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            round = 1;
+        }
+        return round;
+    }
+
+    /**
+     * Emits the forest as consecutive (parent, child) id pairs, searching each tree breadth-first.
+     *
+     * @param firstTreeOnly true to emit only the tree containing vertex 0.
+     */
+    int[] edges(int vertexCount, boolean firstTreeOnly) {
+        ensureVertices(vertexCount);
+        int[] result = new int[2 * treeEdges.size()];
+        int count = 0;
+        int mark = nextRound();
+        int[] queue = new int[Math.max(1, vertexCount)];
+        for (int root = 0; root < vertexCount; root++) {
+            if (stamp[root] == mark) continue;
+            if (firstTreeOnly && root > 0) break;
+            int head = 0, tail = 0;
+            queue[tail++] = root;
+            stamp[root] = mark;
+            while (head < tail) {
+                int x = queue[head++];
+                for (int k = 0; k < treeDegree[x]; k++) {
+                    int y = treeAdjacent[x][k];
+                    if (stamp[y] != mark) {
+                        stamp[y] = mark;
+                        queue[tail++] = y;
+                        result[count++] = x;
+                        result[count++] = y;
+                    }
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return The total weight of the forest.
+     */
+    long totalWeight() {
+        long total = 0;
+        for (int node : treeEdges.values()) {
+            total += value[node];
+        }
+        return total;
+    }
+
+    private int weightOf(int u, int v) {
+        int k = graph.indexOf(u, v);
+        if (k < 0) {
+            throw new IllegalArgumentException("Not an edge: " + u + ", " + v);
+        }
+        return graph.weight(u, k);
+    }
+
+    private static long key(int u, int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    private void ensureVertices(int count) {
+        int old = vertexNode.length;
+        if (count <= old) return;
+        int capacity = Math.max(count, old * 2);
+        vertexNode = Arrays.copyOf(vertexNode, capacity);
+        treeAdjacent = Arrays.copyOf(treeAdjacent, capacity);
+        treeDegree = Arrays.copyOf(treeDegree, capacity);
+        stamp = Arrays.copyOf(stamp, capacity);
+        for (int v = old; v < capacity; v++) {
+            vertexNode[v] = newNode(Integer.MIN_VALUE);
+            treeAdjacent[v] = new int[2];
+        }
+    }
+
+    private void link(int u, int v, int weight) {
+        int e = newNode(weight);
+        edgeU[e] = u;
+        edgeV[e] = v;
+        treeEdges.put(key(u, v), e);
+        makeRoot(vertexNode[u]);
+        parent[vertexNode[u]] = e;
+        makeRoot(e);
+        parent[e] = vertexNode[v];
+        addTreeNeighbor(u, v);
+        addTreeNeighbor(v, u);
+    }
+
+    private void cut(int u, int v) {
+        int e = treeEdges.remove(key(u, v));
+        cutNodes(vertexNode[u], e);
+        cutNodes(e, vertexNode[v]);
+        removeTreeNeighbor(u, v);
+        removeTreeNeighbor(v, u);
+        freeNode(e);
+    }
+
+    private void addTreeNeighbor(int u, int v) {
+        if (treeDegree[u] == treeAdjacent[u].length) {
+            treeAdjacent[u] = Arrays.copyOf(treeAdjacent[u], treeDegree[u] * 2);
+        }
+        treeAdjacent[u][treeDegree[u]++] = v;
+    }
+
+    private void removeTreeNeighbor(int u, int v) {
+        int[] neighbors = treeAdjacent[u];
+        for (int k = 0; k < treeDegree[u]; k++) {
+            if (neighbors[k] == v) {
+                neighbors[k] = neighbors[--treeDegree[u]];
+                return;
+            }
+        }
+    }
+
+    // ---- link-cut tree primitives ----
+
+    private int newNode(int weight) {
+        int x;
+        if (freeCount > 0) {
+            x = freeNodes[--freeCount];
+        } else {
+            if (nodeCount == left.length) {
+                int capacity = Math.max(16, nodeCount * 2);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                flipped = Arrays.copyOf(flipped, capacity);
+                value = Arrays.copyOf(value, capacity);
+                maxNode = Arrays.copyOf(maxNode, capacity);
+                edgeU = Arrays.copyOf(edgeU, capacity);
+                edgeV = Arrays.copyOf(edgeV, capacity);
+            }
+            x = nodeCount++;
+        }
+        left[x] = right[x] = parent[x] = -1;
+        flipped[x] = false;
+        value[x] = weight;
+        maxNode[x] = x;
+        return x;
+    }
+
+    private void freeNode(int x) {
+        if (freeCount == freeNodes.length) {
+            freeNodes = Arrays.copyOf(freeNodes, Math.max(16, freeCount * 2));
+        }
+        freeNodes[freeCount++] = x;
+    }
+
+    private void setValue(int x, int weight) {
+        access(x);
+        splay(x);
+        value[x] = weight;
+        update(x);
+    }
+
+    private boolean isRoot(int x) {
+        int p = parent[x];
+        return p < 0 || (left[p] != x && right[p] != x);
+    }
+
+    private void update(int x) {
+        int best = x;
+        int l = left[x], r = right[x];
+        if (l >= 0 && value[maxNode[l]] > value[best]) best = maxNode[l];
+        if (r >= 0 && value[maxNode[r]] > value[best]) best = maxNode[r];
+        maxNode[x] = best;
+    }
+
+    private void push(int x) {
+        if (flipped[x]) {
+            int t = left[x];
+            left[x] = right[x];
+            right[x] = t;
+            if (left[x] >= 0) flipped[left[x]] ^= true;
+            if (right[x] >= 0) flipped[right[x]] ^= true;
+            flipped[x] = false;
+        }
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        boolean pIsRoot = isRoot(p);
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] >= 0) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] >= 0) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        parent[x] = g;
+        if (!pIsRoot) {
+            if (left[g] == p) left[g] = x;
+            else right[g] = x;
+        }
+        update(p);
+        update(x);
+    }
+
+    private int[] pathStack = new int[16];
+
+    private void splay(int x) {
+        // Push pending flips from the splay root down to x first
+        int depth = 0;
+        for (int y = x; ; y = parent[y]) {
+            if (depth == pathStack.length) pathStack = Arrays.copyOf(pathStack, depth * 2);
+            pathStack[depth++] = y;
+            if (isRoot(y)) break;
+        }
+        while (depth > 0) {
+            push(pathStack[--depth]);
+        }
+        while (!isRoot(x)) {
+            int p = parent[x];
+            if (!isRoot(p)) {
+                int g = parent[p];
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    private void access(int x) {
+        int last = -1;
+        for (int y = x; y >= 0; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flipped[x] ^= true;
+        push(x);
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        int r = x;
+        push(r);
+        while (left[r] >= 0) {
+            r = left[r];
+            push(r);
+        }
+        splay(r);
+        return r;
+    }
+
+    private void cutNodes(int a, int b) {
+        makeRoot(a);
+        access(b);
+        // b's left child is now exactly a
+        left[b] = -1;
+        parent[a] = -1;
+        update(b);
+    }
+}
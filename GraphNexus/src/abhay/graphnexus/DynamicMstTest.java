@@ -0,0 +1,92 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DynamicMstTest {
+
+    @Test
+    public void testEdgeChanges() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load("g1.txt");
+        Assertions.assertEquals(6, mstWeight(graph, graph.getMST()));
+
+        Assertions.assertTrue(graph.addEdge("a", "e", 1));
+        Assertions.assertFalse(graph.addEdge("a", "e", 2), "Existing edge gets the new weight");
+        Assertions.assertEquals(2, graph.getWeight("e", "a"));
+        Assertions.assertEquals(8, mstWeight(graph, graph.getMST()));
+
+        Assertions.assertTrue(graph.updateWeight("a", "e", 0));
+        Assertions.assertFalse(graph.updateWeight("a", "x", 0));
+        Assertions.assertEquals(6, mstWeight(graph, graph.getMST()));
+
+        Assertions.assertTrue(graph.removeEdge("e", "a"));
+        Assertions.assertFalse(graph.removeEdge("a", "e"));
+        Assertions.assertFalse(graph.hasEdge("a", "e"));
+        Assertions.assertTrue(graph.hasVertex("e"), "Endpoints stay in the graph");
+        Assertions.assertEquals(5, graph.getEdgeCount());
+        Assertions.assertEquals(6, graph.getMST().size(), "Prim spans the tree of the first vertex only");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> graph.addEdge("a", "b", -1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> graph.freeze().addEdge("a", "b", 1));
+
+        graph.load("g1.txt");
+        Assertions.assertFalse(graph.hasVertex("e"), "Loading drops the changes");
+        Assertions.assertEquals(6, mstWeight(graph, graph.getMST()));
+    }
+
+    @Test
+    public void testRandomChangesMatchKruskal() throws Exception {
+        Random random = new Random(12);
+        for (int n : new int[]{5, 50, 400}) {
+            GraphImpl graph = new GraphImpl();
+            List<String> edges = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            for (int i = 0; i < 2 * n; i++) {
+                edges.add(String.valueOf(random.nextInt(n)));
+                edges.add(String.valueOf(random.nextInt(n)));
+                weights.add(random.nextInt(10));
+            }
+            graph.load(edges, weights);
+            graph.setMstStrategy(MstStrategy.KRUSKAL);
+            for (int change = 0; change < 3000; change++) {
+                // A few ids beyond n add new vertices
+                String u = String.valueOf(random.nextInt(n + 2));
+                String v = String.valueOf(random.nextInt(n + 2));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        graph.addEdge(u, v, random.nextInt(10));
+                        break;
+                    case 1:
+                        graph.removeEdge(u, v);
+                        break;
+                    default:
+                        graph.updateWeight(u, v, random.nextInt(10));
+                }
+                if (change % 10 == 0) {
+                    CsrGraph frozen = graph.freeze();
+                    int[] kruskal = new KruskalMstEngine().spanningEdges(frozen.store());
+                    long expected = MstEngineTest.checkForest(frozen.store(), kruskal, kruskal.length / 2);
+                    List<String> mst = graph.getMST();
+                    int[] ids = new int[mst.size()];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = frozen.vertices().idOf(mst.get(i));
+                    }
+                    Assertions.assertEquals(expected, MstEngineTest.checkForest(frozen.store(), ids, kruskal.length / 2));
+                }
+            }
+        }
+    }
+
+    private static int mstWeight(Graph graph, List<String> mst) {
+        int total = 0;
+        for (int i = 0; i < mst.size(); i += 2) {
+            total += graph.getWeight(mst.get(i), mst.get(i + 1));
+        }
+        return total;
+    }
+}
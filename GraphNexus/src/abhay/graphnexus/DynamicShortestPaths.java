@@ -0,0 +1,261 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shortest path trees from a few registered sources, repaired after every edge change instead of
+ * being recomputed, in the manner of Ramalingam and Reps.
+ *
+ * Each tree keeps the distance and tree parent of every vertex, and the children of every vertex as
+ * a doubly linked list so that moving a vertex to another parent costs O(1).
+ * <ul>
+ * <li>When an edge is added or made lighter, the endpoint it improves is queued and Dijkstra's
+ * algorithm runs from there, touching only the vertices whose distance drops.</li>
+ * <li>When a tree edge is removed or made heavier, only the subtree below it can get longer paths.
+ * The subtree is collected, each of its vertices is seeded with its best edge from outside the
+ * subtree, and Dijkstra's algorithm settles the subtree again. Vertices outside the subtree keep
+ * their distances, since their tree paths do not use the edge.</li>
+ * <li>Removing or raising an edge that is in no tree costs O(1) per source.</li>
+ * </ul>
+ * Distances are Integer.MAX_VALUE for unreachable vertices, as in {@link ShortestPathEngine}.
+ */
+final class DynamicShortestPaths {
+    private static final int NONE = -1;
+
+    private final Adjacency graph;
+    private final Map<Integer, Tree> trees = new HashMap<>();
+    private final IndexedIntHeap heap = new IndexedIntHeap();
+    private int[] subtree = new int[16];
+
+    DynamicShortestPaths(Adjacency graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Starts keeping the shortest path tree of a source, computing it with a full search.
+     */
+    void track(int source, int vertexCount) {
+        Tree tree = new Tree(source, vertexCount);
+        trees.put(source, tree);
+        tree.dist[source] = 0;
+        heap.ensureCapacity(vertexCount);
+        heap.clear();
+        heap.insertOrDecrease(source, 0);
+        settle(tree);
+    }
+
+    /**
+     * @return true if the source was tracked.
+     */
+    boolean untrack(int source) {
+        return trees.remove(source) != null;
+    }
+
+    boolean isTracked(int source) {
+        return trees.containsKey(source);
+    }
+
+    /**
+     * Stops tracking every source.
+     */
+    void clear() {
+        trees.clear();
+    }
+
+    /**
+     * @return The current distances from a tracked source, holding at least vertexCount entries.
+     *          The array is updated in place by later changes and must not be modified.
+     */
+    int[] distances(int source, int vertexCount) {
+        Tree tree = trees.get(source);
+        tree.ensureVertices(vertexCount);
+        return tree.dist;
+    }
+
+    /**
+     * @return The current tree parents from a tracked source, -1 for the source and unreachable vertices,
+     *          holding at least vertexCount entries. Updated in place like {@link #distances(int, int)}.
+     */
+    int[] parents(int source, int vertexCount) {
+        Tree tree = trees.get(source);
+        tree.ensureVertices(vertexCount);
+        return tree.parent;
+    }
+
+    /**
+     * @return The tree parent of v in the tree of a tracked source, or -1 for the source and unreachable vertices.
+     */
+    int parent(int source, int v) {
+        Tree tree = trees.get(source);
+        return v < tree.parent.length ? tree.parent[v] : NONE;
+    }
+
+    /**
+     * Repairs every tree after edge (u,v) was added with the given weight, or had its weight lowered.
+     */
+    void edgeAddedOrLowered(int u, int v, int weight) {
+        if (u == v) return;
+        int needed = Math.max(u, v) + 1;
+        heap.ensureCapacity(needed);
+        for (Tree tree : trees.values()) {
+            tree.ensureVertices(needed);
+            heap.clear();
+            // At most one direction can improve, since the weights are not negative
+            if (!relax(tree, u, v, weight)) {
+                relax(tree, v, u, weight);
+            }
+            settle(tree);
+        }
+    }
+
+    /**
+     * Repairs every tree after edge (u,v) was removed from the graph, or had its weight raised.
+     * The adjacency must already reflect the change.
+     */
+    void edgeRemovedOrRaised(int u, int v) {
+        if (u == v) return;
+        for (Tree tree : trees.values()) {
+            int n = tree.parent.length;
+            if (v < n && tree.parent[v] == u) {
+                repairSubtree(tree, v);
+            } else if (u < n && tree.parent[u] == v) {
+                repairSubtree(tree, u);
+            }
+        }
+    }
+
+    private boolean relax(Tree tree, int from, int to, int weight) {
+        int d = tree.dist[from];
+        if (d == Integer.MAX_VALUE) return false;
+        int newDist = d + weight;
+        if (newDist >= 0 && newDist < tree.dist[to]) {
+            tree.dist[to] = newDist;
+            tree.setParent(to, from);
+            heap.insertOrDecrease(to, newDist);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Recomputes the subtree rooted at x, whose path to the source got longer or disappeared.
+     */
+    private void repairSubtree(Tree tree, int x) {
+        int size = 0;
+        subtree[size++] = x;
+        for (int i = 0; i < size; i++) {
+            for (int c = tree.firstChild[subtree[i]]; c != NONE; c = tree.nextSibling[c]) {
+                if (size == subtree.length) {
+                    subtree = Arrays.copyOf(subtree, size * 2);
+                }
+                subtree[size++] = c;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int y = subtree[i];
+            tree.dist[y] = Integer.MAX_VALUE;
+            tree.setParent(y, NONE);
+        }
+        heap.ensureCapacity(tree.parent.length);
+        heap.clear();
+        // Seed every subtree vertex with its best edge from a vertex that kept its distance
+        for (int i = 0; i < size; i++) {
+            int y = subtree[i];
+            for (int k = 0, degree = graph.degree(y); k < degree; k++) {
+                int z = graph.target(y, k);
+                int dz = tree.dist[z];
+                if (dz == Integer.MAX_VALUE) continue;
+                int newDist = dz + graph.weight(y, k);
+                if (newDist >= 0 && newDist < tree.dist[y]) {
+                    tree.dist[y] = newDist;
+                    tree.setParent(y, z);
+                }
+            }
+            if (tree.dist[y] != Integer.MAX_VALUE) {
+                heap.insertOrDecrease(y, tree.dist[y]);
+            }
+        }
+        settle(tree);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the queued vertices, moving every improved vertex under its new parent.
+     */
+    private void settle(Tree tree) {
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            int du = tree.dist[u];
+            for (int k = 0, degree = graph.degree(u); k < degree; k++) {
+                int v = graph.target(u, k);
+                int newDist = du + graph.weight(u, k);
+                // A negative sum means the int overflowed; such a path cannot be shorter
+                if (newDist >= 0 && newDist < tree.dist[v]) {
+                    tree.dist[v] = newDist;
+                    tree.setParent(v, u);
+                    heap.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * The shortest path tree of one source.
+     */
+    private static final class Tree {
+        int[] dist = new int[0];
+        int[] parent = new int[0];
+        int[] firstChild = new int[0];
+        int[] nextSibling = new int[0];
+        int[] prevSibling = new int[0];
+
+        Tree(int source, int vertexCount) {
+            ensureVertices(Math.max(vertexCount, source + 1));
+        }
+
+        void ensureVertices(int count) {
+            int old = dist.length;
+            if (count <= old) return;
+            int capacity = Math.max(count, old + (old >> 1));
+            dist = Arrays.copyOf(dist, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            prevSibling = Arrays.copyOf(prevSibling, capacity);
+            Arrays.fill(dist, old, capacity, Integer.MAX_VALUE);
+            Arrays.fill(parent, old, capacity, NONE);
+            Arrays.fill(firstChild, old, capacity, NONE);
+            Arrays.fill(nextSibling, old, capacity, NONE);
+            Arrays.fill(prevSibling, old, capacity, NONE);
+        }
+
+        /**
+         * Moves v from the child list of its parent to the child list of p, or to none if p is -1.
+         */
+        void setParent(int v, int p) {
+            int old = parent[v];
+            if (old == p) return;
+            int prev = prevSibling[v], next = nextSibling[v];
+            if (prev != NONE) {
+                nextSibling[prev] = next;
+            } else if (old != NONE) {
+                firstChild[old] = next;
+            }
+            if (next != NONE) {
+                prevSibling[next] = prev;
+            }
+            parent[v] = p;
+            prevSibling[v] = NONE;
+            nextSibling[v] = NONE;
+            if (p != NONE) {
+                int head = firstChild[p];
+                nextSibling[v] = head;
+                if (head != NONE) {
+                    prevSibling[head] = v;
+                }
+                firstChild[p] = v;
+            }
+        }
+    }
+}
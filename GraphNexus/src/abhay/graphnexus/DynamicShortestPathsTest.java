@@ -0,0 +1,75 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class DynamicShortestPathsTest {
+
+    @Test
+    public void testTrackedSourceFollowsChanges() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load("g1.txt");
+        graph.trackShortestPaths("a");
+        Assertions.assertEquals(Map.of("a", 0, "b", 2, "c", 3, "d", 2), graph.getShortestPaths("a"));
+
+        graph.updateWeight("a", "c", 10);
+        Assertions.assertEquals(Map.of("a", 0, "b", 2, "c", 4, "d", 2), graph.getShortestPaths("a"));
+        graph.removeEdge("b", "c");
+        Assertions.assertEquals(Map.of("a", 0, "b", 2, "c", 7, "d", 2), graph.getShortestPaths("a"));
+        graph.addEdge("b", "e", 1);
+        Assertions.assertEquals(Map.of("a", 0, "b", 2, "c", 7, "d", 2, "e", 3), graph.getShortestPaths("a"));
+        graph.removeEdge("a", "b");
+        Assertions.assertEquals(-1, graph.getShortestPaths("a").get("e").intValue());
+
+        Assertions.assertTrue(graph.untrackShortestPaths("a"));
+        Assertions.assertFalse(graph.untrackShortestPaths("a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> graph.trackShortestPaths("x"));
+    }
+
+    @Test
+    public void testRandomChangesMatchDijkstra() throws Exception {
+        Random random = new Random(13);
+        for (int n : new int[]{6, 60, 500}) {
+            GraphImpl graph = new GraphImpl();
+            List<String> edges = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            for (int i = 0; i < 2 * n; i++) {
+                edges.add(String.valueOf(random.nextInt(n)));
+                edges.add(String.valueOf(random.nextInt(n)));
+                // Zero weights make ties, so shortest path trees are not unique
+                weights.add(random.nextInt(6));
+            }
+            graph.load(edges, weights);
+            List<String> sources = List.of(edges.get(0), edges.get(1), edges.get(2));
+            for (String s : sources) {
+                graph.trackShortestPaths(s);
+            }
+            for (int change = 0; change < 3000; change++) {
+                // A few ids beyond n add new vertices
+                String u = String.valueOf(random.nextInt(n + 2));
+                String v = String.valueOf(random.nextInt(n + 2));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        graph.addEdge(u, v, random.nextInt(6));
+                        break;
+                    case 1:
+                        graph.removeEdge(u, v);
+                        break;
+                    default:
+                        graph.updateWeight(u, v, random.nextInt(6));
+                }
+                if (change % 10 == 0) {
+                    CsrGraph frozen = graph.freeze();
+                    for (String s : sources) {
+                        Assertions.assertEquals(frozen.getShortestPaths(s), graph.getShortestPaths(s));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of weighted edges over dense vertex ids, in input order.
+ * Endpoints refer to ids of the accompanying {@link VertexDictionary}.
+ */
+final class EdgeList {
+    final VertexDictionary dictionary;
+    int[] sources;
+    int[] targets;
+    int[] weights;
+    int size;
+
+    EdgeList(VertexDictionary dictionary, int expectedEdges) {
+        this.dictionary = dictionary;
+        int capacity = Math.max(16, expectedEdges);
+        sources = new int[capacity];
+        targets = new int[capacity];
+        weights = new int[capacity];
+    }
+
+    /**
+     * Wraps complete edge arrays without copying them.
+     */
+    EdgeList(VertexDictionary dictionary, int[] sources, int[] targets, int[] weights) {
+        this.dictionary = dictionary;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.size = sources.length;
+    }
+
+    void add(int u, int v, int weight) {
+        if (size == sources.length) {
+            int capacity = size + (size >> 1);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        sources[size] = u;
+        targets[size] = v;
+        weights[size] = weight;
+        size++;
+    }
+}
@@ -0,0 +1,478 @@
+package abhay.graphnexus;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Parses graph files in the text format read by {@link Graph#load(String)}: a vertex count on the first
+ * line, then one "u v weight" edge per line.
+ *
+ * The file is memory-mapped and split into newline-aligned chunks that are tokenized in parallel
+ * straight from the mapped bytes. Each chunk numbers the vertex names it sees without creating
+ * Strings; only one String per distinct name and chunk is created when the chunks are merged,
+ * in file order, so vertex ids come out exactly as a sequential read would assign them.
+ *
+ * The lists taken by {@link Graph#load(List, List)} are numbered the same way: each slice of the
+ * lists is interned into its own dictionary in parallel, and the slices are merged in list order.
+ */
+final class EdgeListLoader {
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1 << 28;
+    private static final int SCAN_WINDOW = 4096;
+    /** The longest first line read for the vertex count; an int with any sensible padding fits easily. */
+    private static final int MAX_HEADER = 4096;
+    /** Lists with fewer edges than this per available thread are numbered in fewer slices. */
+    static final int MIN_SLICE_EDGES = 1 << 14;
+
+    private EdgeListLoader() {
+    }
+
+    /**
+     * Reads and validates a graph file.
+     *
+     * @param path The graph file.
+     * @return The edges in file order, with a dictionary of every vertex name in order of first appearance.
+     * @throws Exception If the file cannot be read, the vertex count line is too long, a line does not
+     *          have exactly three fields or starts with whitespace, a weight is negative or not an int, or the declared vertex count does not match.
+     */
+    static EdgeList load(Path path) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long bodyStart = nextLineStart(channel, 0, fileSize);
+            if (bodyStart == 0) {
+                throw new Exception("Missing vertex count");
+            }
+            if (bodyStart > MAX_HEADER) {
+                throw new NumberFormatException("Vertex count line is longer than " + MAX_HEADER + " bytes");
+            }
+            ByteBuffer headerBytes = ByteBuffer.allocate((int) bodyStart);
+            channel.read(headerBytes, 0);
+            int vertexCount = Integer.parseInt(new String(headerBytes.array(), StandardCharsets.UTF_8).trim());
+
+            long[] bounds = chunkBounds(channel, bodyStart, fileSize);
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long begin = bounds[i];
+                long length = bounds[i + 1] - begin;
+                tasks.add(() -> new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, begin, length)).parse());
+            }
+            Chunk[] chunks = new Chunk[tasks.size()];
+            List<Future<Chunk>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = futures.get(i).get();
+            }
+            // Report the first malformed line in file order, as a sequential read would
+            for (Chunk chunk : chunks) {
+                if (chunk.failure != null) {
+                    throw chunk.failure;
+                }
+            }
+
+            EdgeList edges = merge(chunks);
+            if (edges.dictionary.size() != vertexCount) {
+                throw new Exception("Mismatch between declared vertex count and actual vertex count");
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * Validates and numbers edges given as lists.
+     *
+     * @param names Two vertex names per edge.
+     * @param weights One weight per edge.
+     * @return The edges in list order, with a dictionary of every vertex name in order of first appearance.
+     * @throws Exception If the list sizes do not match or a weight is negative.
+     */
+    static EdgeList load(List<String> names, List<Integer> weights) throws Exception {
+        return load(names, weights, slicesFor(weights.size()));
+    }
+
+    /**
+     * @param sliceCount The number of slices to number in parallel.
+     */
+    static EdgeList load(List<String> names, List<Integer> weights, int sliceCount) throws Exception {
+        if (names.size() != 2 * weights.size()) {
+            throw new Exception("Mismatch between edges and weights lists");
+        }
+        String[] endpoints = names.toArray(new String[0]);
+        Integer[] boxed = weights.toArray(new Integer[0]);
+        int edgeCount = boxed.length;
+        // Slices write chunk-local ids into their range of the arrays, rewritten to global ids below
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int[] values = new int[edgeCount];
+        Slice[] slices = new Slice[Math.max(1, Math.min(sliceCount, edgeCount))];
+        IntStream.range(0, slices.length).parallel().forEach(i -> {
+            int from = (int) ((long) edgeCount * i / slices.length);
+            int to = (int) ((long) edgeCount * (i + 1) / slices.length);
+            slices[i] = new Slice(from, to).number(endpoints, boxed, sources, targets, values);
+        });
+        // Report the first invalid edge in list order, as a sequential read would
+        for (Slice slice : slices) {
+            if (slice.failure != null) {
+                throw slice.failure;
+            }
+        }
+
+        int totalNames = 0;
+        for (Slice slice : slices) {
+            totalNames += slice.names.size();
+        }
+        VertexDictionary dictionary = new VertexDictionary(totalNames);
+        int[][] globalIds = new int[slices.length][];
+        for (int i = 0; i < slices.length; i++) {
+            List<String> local = slices[i].names.names();
+            int[] ids = globalIds[i] = new int[local.size()];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = dictionary.intern(local.get(id));
+            }
+        }
+
+        IntStream.range(0, slices.length).parallel().forEach(i -> {
+            int[] ids = globalIds[i];
+            for (int e = slices[i].from; e < slices[i].to; e++) {
+                sources[e] = ids[sources[e]];
+                targets[e] = ids[targets[e]];
+            }
+        });
+        return new EdgeList(dictionary, sources, targets, values);
+    }
+
+    /**
+     * @return The number of slices to number a list of edgeCount edges in.
+     */
+    static int slicesFor(int edgeCount) {
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), edgeCount / MIN_SLICE_EDGES));
+    }
+
+    /**
+     * Interns chunk-local names into one dictionary in file order, then rewrites the local ids in parallel.
+     */
+    private static EdgeList merge(Chunk[] chunks) {
+        int totalEdges = 0;
+        int totalNames = 0;
+        int[] edgeOffsets = new int[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            edgeOffsets[i] = totalEdges;
+            totalEdges = Math.addExact(totalEdges, chunks[i].edgeCount);
+            totalNames += chunks[i].nameCount;
+        }
+
+        VertexDictionary dictionary = new VertexDictionary(totalNames);
+        int[][] globalIds = new int[chunks.length][];
+        for (int i = 0; i < chunks.length; i++) {
+            globalIds[i] = chunks[i].internNames(dictionary);
+        }
+
+        EdgeList edges = new EdgeList(dictionary, totalEdges);
+        edges.size = totalEdges;
+        IntStream.range(0, chunks.length).parallel().forEach(i -> {
+            Chunk chunk = chunks[i];
+            int[] ids = globalIds[i];
+            int base = edgeOffsets[i];
+            for (int e = 0; e < chunk.edgeCount; e++) {
+                edges.sources[base + e] = ids[chunk.sources[e]];
+                edges.targets[base + e] = ids[chunk.targets[e]];
+                edges.weights[base + e] = chunk.weights[e];
+            }
+        });
+        return edges;
+    }
+
+    /**
+     * Splits [bodyStart, fileSize) into ranges that each start at the beginning of a line.
+     */
+    private static long[] chunkBounds(FileChannel channel, long bodyStart, long fileSize) throws Exception {
+        long body = fileSize - bodyStart;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long chunkSize = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, body / (parallelism * 4L)));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(bodyStart);
+        long position = bodyStart + chunkSize;
+        while (position < fileSize) {
+            long lineStart = nextLineStart(channel, position - 1, fileSize);
+            if (lineStart >= fileSize) break;
+            bounds.add(lineStart);
+            position = lineStart + chunkSize;
+        }
+        bounds.add(fileSize);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return The position just after the first '\n' at or after from, or fileSize if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long fileSize) throws Exception {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long position = from;
+        while (position < fileSize) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    /**
+     * The edges of one newline-aligned range of the file, with endpoints numbered by chunk-local name ids.
+     */
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private final int limit;
+
+        private long[] table = new long[1024];
+        private long[] names = new long[512];
+        private int nameCount;
+
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int[] weights = new int[1024];
+        private int edgeCount;
+
+        private Exception failure;
+
+        Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        /**
+         * Tokenizes every line of the chunk. A malformed line stops parsing and is kept as the failure.
+         */
+        Chunk parse() {
+            try {
+                parseLines();
+            } catch (Exception e) {
+                failure = e;
+            }
+            table = null;
+            return this;
+        }
+
+        private void parseLines() throws Exception {
+            int[] fieldStart = new int[3];
+            int[] fieldEnd = new int[3];
+            int pos = 0;
+            while (pos < limit) {
+                int lineEnd = pos;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+
+                // A line that starts with whitespace splits into an empty first field with split("\\s+"), so it is rejected too
+                if (pos < lineEnd && isWhitespace(buffer.get(pos))) {
+                    throw new Exception("Invalid input format");
+                }
+                int fields = 0;
+                int i = pos;
+                while (true) {
+                    while (i < lineEnd && isWhitespace(buffer.get(i))) i++;
+                    if (i == lineEnd) break;
+                    int start = i;
+                    while (i < lineEnd && !isWhitespace(buffer.get(i))) i++;
+                    if (fields == 3) {
+                        fields++;
+                        break;
+                    }
+                    fieldStart[fields] = start;
+                    fieldEnd[fields++] = i;
+                }
+                if (fields != 3) {
+                    throw new Exception("Invalid input format");
+                }
+
+                int u = nameId(fieldStart[0], fieldEnd[0]);
+                int v = nameId(fieldStart[1], fieldEnd[1]);
+                int weight = parseWeight(fieldStart[2], fieldEnd[2]);
+                addEdge(u, v, weight);
+                pos = lineEnd + 1;
+            }
+        }
+
+        private static boolean isWhitespace(byte b) {
+            // The characters matched by \s, other than the line terminator
+            return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+        }
+
+        private int parseWeight(int start, int end) throws Exception {
+            int i = start;
+            boolean negative = false;
+            byte first = buffer.get(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+            if (i == end) {
+                throw invalidNumber(start, end);
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw invalidNumber(start, end);
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw invalidNumber(start, end);
+                }
+            }
+            if (negative && value != 0) {
+                throw new Exception("Negative edge weight not allowed");
+            }
+            if (value > Integer.MAX_VALUE) {
+                throw invalidNumber(start, end);
+            }
+            return (int) value;
+        }
+
+        private NumberFormatException invalidNumber(int start, int end) {
+            return new NumberFormatException("For input string: \"" + decode(start, end - start) + "\"");
+        }
+
+        /**
+         * Returns the chunk-local id of the name in bytes [start, end), comparing raw bytes.
+         * Table slots pack the spread hash with id + 1; names pack the start offset with the length.
+         */
+        private int nameId(int start, int end) {
+            int length = end - start;
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            hash = VertexDictionary.spread(hash);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            long entry;
+            while ((entry = table[slot]) != 0) {
+                int id = (int) entry - 1;
+                if ((int) (entry >>> 32) == hash && length(id) == length && sameBytes(start(id), start, length)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            int id = nameCount++;
+            names[id] = ((long) start << 32) | length;
+            table[slot] = ((long) hash << 32) | (id + 1);
+            if (nameCount * 2 > table.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private int start(int id) {
+            return (int) (names[id] >>> 32);
+        }
+
+        private int length(int id) {
+            return (int) names[id];
+        }
+
+        private boolean sameBytes(int a, int b, int length) {
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(a + i) != buffer.get(b + i)) return false;
+            }
+            return true;
+        }
+
+        private void rehash() {
+            long[] newTable = new long[table.length * 2];
+            int mask = newTable.length - 1;
+            for (long entry : table) {
+                if (entry == 0) continue;
+                int slot = (int) (entry >>> 32) & mask;
+                while (newTable[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = entry;
+            }
+            table = newTable;
+        }
+
+        private void addEdge(int u, int v, int weight) {
+            if (edgeCount == sources.length) {
+                int capacity = edgeCount * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[edgeCount] = u;
+            targets[edgeCount] = v;
+            weights[edgeCount] = weight;
+            edgeCount++;
+        }
+
+        private String decode(int start, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return The global id of every chunk-local name.
+         */
+        int[] internNames(VertexDictionary dictionary) {
+            int[] ids = new int[nameCount];
+            for (int id = 0; id < nameCount; id++) {
+                ids[id] = dictionary.intern(decode(start(id), length(id)));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * A range of the edge lists, validated and numbered with a dictionary of its own.
+     */
+    private static final class Slice {
+        final int from;
+        final int to;
+        final VertexDictionary names = new VertexDictionary();
+        Exception failure;
+
+        Slice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Stores the chunk-local ids and weights of the range. An invalid weight stops numbering and
+         * is kept as the failure.
+         */
+        Slice number(String[] endpoints, Integer[] weights, int[] sources, int[] targets, int[] values) {
+            for (int e = from; e < to; e++) {
+                int weight = weights[e];
+                if (weight < 0) {
+                    failure = new Exception("Negative edge weight not allowed");
+                    break;
+                }
+                sources[e] = names.intern(endpoints[2 * e]);
+                targets[e] = names.intern(endpoints[2 * e + 1]);
+                values[e] = weight;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class EdgeListLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path write(String content) throws Exception {
+        Path file = dir.resolve("graph.txt");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    public void testLoadSmallFile() throws Exception {
+        EdgeList edges = EdgeListLoader.load(Path.of("g1.txt"));
+        Assertions.assertEquals(5, edges.size);
+        Assertions.assertEquals(4, edges.dictionary.size());
+        Assertions.assertEquals("a", edges.dictionary.nameOf(edges.sources[0]));
+        Assertions.assertEquals("d", edges.dictionary.nameOf(edges.sources[3]));
+        Assertions.assertEquals(5, edges.weights[3]);
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        Exception e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("2\na b\n")));
+        Assertions.assertEquals("Invalid input format", e.getMessage());
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("2\na b 1 2\n")));
+        Assertions.assertEquals("Invalid input format", e.getMessage());
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("2\na b -3\n")));
+        Assertions.assertEquals("Negative edge weight not allowed", e.getMessage());
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("3\na b 1\n")));
+        Assertions.assertEquals("Mismatch between declared vertex count and actual vertex count", e.getMessage());
+        Assertions.assertThrows(NumberFormatException.class, () -> EdgeListLoader.load(write("2\na b 99999999999\n")));
+        Assertions.assertThrows(NumberFormatException.class, () -> EdgeListLoader.load(write("2\na b 1x\n")));
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("2\n a b 3\n")));
+        Assertions.assertEquals("Invalid input format", e.getMessage());
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(write("2\na b 3\n\ta b 3\n")));
+        Assertions.assertEquals("Invalid input format", e.getMessage());
+        Assertions.assertThrows(NumberFormatException.class,
+                () -> EdgeListLoader.load(write(" ".repeat(10000) + "2\na b 3\n")));
+    }
+
+    @Test
+    public void testWhitespaceAndLineEndings() throws Exception {
+        EdgeList edges = EdgeListLoader.load(write(" 3 \r\na\tb  7\r\nb c +2 \nc a 0"));
+        Assertions.assertEquals(3, edges.size);
+        Assertions.assertEquals(7, edges.weights[0]);
+        Assertions.assertEquals(2, edges.weights[1]);
+        Assertions.assertEquals("c", edges.dictionary.nameOf(edges.sources[2]));
+    }
+
+    @Test
+    public void testMultipleChunksKeepFileOrder() throws Exception {
+        // Large enough to be split into several chunks
+        int n = 300000;
+        Path file = dir.resolve("path.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write((n + 1) + "\n");
+            for (int i = 0; i < n; i++) {
+                out.write("vertex" + i + " vertex" + (i + 1) + " " + (i % 10) + "\n");
+            }
+        }
+        EdgeList edges = EdgeListLoader.load(file);
+        Assertions.assertEquals(n, edges.size);
+        for (int i = 0; i < n; i++) {
+            Assertions.assertEquals(i, edges.sources[i]);
+            Assertions.assertEquals(i + 1, edges.targets[i]);
+            Assertions.assertEquals(i % 10, edges.weights[i]);
+        }
+        Assertions.assertEquals("vertex" + n, edges.dictionary.nameOf(n));
+    }
+
+    @Test
+    public void testListSlicesKeepListOrder() throws Exception {
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add("v" + (i * 7 % 300));
+            names.add("v" + (i * 13 % 500));
+            weights.add(i % 9);
+        }
+        EdgeList sequential = EdgeListLoader.load(names, weights, 1);
+        EdgeList sliced = EdgeListLoader.load(names, weights, 7);
+        Assertions.assertEquals(sequential.dictionary.names(), sliced.dictionary.names());
+        for (int e = 0; e < 1000; e++) {
+            Assertions.assertEquals(sequential.sources[e], sliced.sources[e]);
+            Assertions.assertEquals(sequential.targets[e], sliced.targets[e]);
+            Assertions.assertEquals(weights.get(e).intValue(), sliced.weights[e]);
+        }
+
+        weights.set(900, -1);
+        Exception e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(names, weights, 7));
+        Assertions.assertEquals("Negative edge weight not allowed", e.getMessage());
+        e = Assertions.assertThrows(Exception.class, () -> EdgeListLoader.load(names.subList(0, 3), weights, 7));
+        Assertions.assertEquals("Mismatch between edges and weights lists", e.getMessage());
+    }
+
+    /**
+     * The parallel build must give the graph that adding the edges one by one gives, with repeated
+     * edges in both directions, self-loops and zero weights.
+     */
+    @Test
+    public void testParallelBuildMatchesAddEdge() throws Exception {
+        Random random = new Random(5);
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            names.add(String.valueOf(random.nextInt(400)));
+            names.add(String.valueOf(random.nextInt(10) == 0 ? names.get(names.size() - 1) : random.nextInt(400)));
+            weights.add(random.nextInt(5));
+        }
+        GraphImpl expected = new GraphImpl();
+        for (int i = 0; i < weights.size(); i++) {
+            expected.addEdge(names.get(2 * i), names.get(2 * i + 1), weights.get(i));
+        }
+        for (int slices : new int[]{1, 3, 16}) {
+            GraphImpl graph = new GraphImpl();
+            graph.load(names, weights, slices);
+            Assertions.assertEquals(expected.getVertices(), graph.getVertices());
+            Assertions.assertEquals(expected.getEdgeCount(), graph.getEdgeCount());
+            for (String u : expected.getVertices()) {
+                Assertions.assertEquals(expected.getAdjacent(u), graph.getAdjacent(u));
+                for (String v : expected.getAdjacent(u)) {
+                    Assertions.assertEquals(expected.getWeight(u, v), graph.getWeight(u, v));
+                }
+            }
+            // The reference keeps its tree up to date edge by edge, so only the total weight must match
+            Assertions.assertEquals(treeWeight(expected), treeWeight(graph));
+        }
+    }
+
+    private static long treeWeight(GraphImpl graph) {
+        List<String> mst = graph.getMST();
+        long total = 0;
+        for (int i = 0; i < mst.size(); i += 2) {
+            total += graph.getWeight(mst.get(i), mst.get(i + 1));
+        }
+        return total;
+    }
+}
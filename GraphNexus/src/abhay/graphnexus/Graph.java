@@ -1,5 +1,6 @@
 package abhay.graphnexus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -7,7 +8,8 @@ import java.util.Set;
 /**
  * @author Abhay Prasanna Rao
  * 
- * An interface for implementing various operations on connected weighted undirected graphs.
+ * An interface for implementing various operations on weighted undirected graphs.
+ * Graphs need not be connected; the component queries tell which vertices can reach each other.
  * Vertices are identified by Strings. Equal strings <=> same vertex.
  * Weights are non-negative integers.
  * Note that some documentation may use an overloaded definition for [i], such as [i] for List.get(i).
@@ -30,6 +32,38 @@ public interface Graph {
      */
     public void load(List<String> edges, List<Integer> weights) throws Exception;
 
+    /**
+     * Adds edge (u,v), adding its endpoints if they are not in the graph yet.
+     * If the edge already exists, its weight is replaced.
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @param weight The non-negative weight of the edge.
+     * @return True if the edge was added, false if an existing edge was given the new weight.
+     * @throws IllegalArgumentException If the weight is negative.
+     * @throws UnsupportedOperationException If this graph is read-only.
+     */
+    public boolean addEdge(String u, String v, int weight);
+
+    /**
+     * Removes edge (u,v). Its endpoints stay in the graph, even if they have no edges left.
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @return True if the edge was removed, false if it did not exist.
+     * @throws UnsupportedOperationException If this graph is read-only.
+     */
+    public boolean removeEdge(String u, String v);
+
+    /**
+     * Changes the weight of an existing edge.
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @param weight The new non-negative weight of the edge.
+     * @return True if the edge exists and was given the new weight, false if it does not exist.
+     * @throws IllegalArgumentException If the weight is negative.
+     * @throws UnsupportedOperationException If this graph is read-only.
+     */
+    public boolean updateWeight(String u, String v, int weight);
+
     /**
      *
      * @return |V|
@@ -80,6 +114,8 @@ public interface Graph {
 
     /**
      * Gets an MST of the graph represented by this object.
+     * If the graph is not connected (see getComponentCount()), each implementation documents whether the
+     * result spans one component or all of them.
      * @return A list of edges in an MST for this graph. For every even index i, ([i], [i+1]) represents an edge.
      */
     public List<String> getMST();
@@ -91,6 +127,31 @@ public interface Graph {
      */
     public Map<String, Integer> getShortestPaths(String s);
 
+    /**
+     * Finds the length of the shortest path between two vertices, searching only as much of the graph as needed.
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The length of the shortest s->t path, or -1 if no such path exists or a vertex is not in the graph.
+     */
+    public int getDistance(String s, String t);
+
+    /**
+     * Finds a shortest path between two vertices.
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The vertices of a shortest s->t path, starting with s and ending with t.
+     *          Empty if no such path exists or a vertex is not in the graph.
+     */
+    public List<String> getPath(String s, String t);
+
+    /**
+     * Finds the length of the shortest path from each of several sources to all vertices in the graph.
+     * The sources may be searched concurrently.
+     * @param sources The source vertices. Sources that are not in the graph reach no vertex.
+     * @return One row of distances per source, in the order of the collection.
+     */
+    public DistanceMatrix getShortestPaths(Collection<String> sources);
+
     /**
      * A vertex v is in the return set iff the given subgraph contains a shortest path from s to v.
      * @param s A source vertex in the subgraph.
@@ -99,4 +160,41 @@ public interface Graph {
      *          Returns null for invalid arguments.
      */
     public Set<String> getReport(String s, List<String> subgraph);
+
+    /**
+     * Computes getReport(s, subgraph) for each of several subgraphs. The shortest paths from s are
+     * computed once for all of them, and the subgraphs may be checked concurrently.
+     * @param s A source vertex in the subgraphs.
+     * @param subgraphs Subgraphs in the form taken by getReport.
+     * @return One report per subgraph, in the order of the list. Every report is null if s is not in the graph.
+     */
+    public List<Set<String>> getReports(String s, List<List<String>> subgraphs);
+
+    /**
+     * Returns the connected component of a vertex. Components are numbered 0 .. getComponentCount() - 1
+     * in an order fixed by the implementation; two vertices share a number iff a path connects them.
+     * @param v A vertex.
+     * @return The component of v, or -1 if v is not in the graph.
+     */
+    public int componentOf(String v);
+
+    /**
+     * Checks whether a path connects two vertices, without searching for it.
+     * @param u A vertex.
+     * @param v Another vertex.
+     * @return True if both vertices are in the graph and in the same component.
+     */
+    public boolean sameComponent(String u, String v);
+
+    /**
+     * Returns the number of vertices reachable from a vertex, itself included.
+     * @param v A vertex.
+     * @return The size of the component of v, or 0 if v is not in the graph.
+     */
+    public int getComponentSize(String v);
+
+    /**
+     * @return The number of connected components; 1 for a connected graph, 0 for an empty one.
+     */
+    public int getComponentCount();
 }
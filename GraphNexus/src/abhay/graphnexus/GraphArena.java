@@ -0,0 +1,169 @@
+package abhay.graphnexus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns graphs whose adjacency, weights and vertex name table live outside the Java heap, and ends
+ * their use together.
+ *
+ * {@link #copy(CsrGraph)} lays a graph out in direct memory, and {@link #open(Path)} maps a file
+ * written by {@link CsrGraph#save(Path)}. Both use the sections of the binary graph format, and
+ * getShortestPaths, getMST, getAdjacent and the other queries read those sections in place. The heap
+ * only holds the buffer objects, a few of them per section, and a bounded cache of recently decoded
+ * names. Direct memory counts against -XX:MaxDirectMemorySize, which defaults to the heap limit;
+ * mapping a file has no such limit and leaves paging to the operating system.
+ *
+ * Closing the arena closes every graph it still owns: later calls on them throw
+ * IllegalStateException, and the graphs no longer refer to the memory. A graph that was loaded
+ * again since it was handed out has left the arena and is not affected. The memory itself is
+ * returned when the collector clears the buffers, as Java 17 offers no way to release direct or
+ * mapped memory that another thread might still read. A graph call reads its names and adjacency
+ * once, when it starts, so queries already running, and views such as getAdjacent results taken
+ * before the close, finish safely on the old memory.
+ */
+public final class GraphArena implements AutoCloseable {
+    private final List<CsrGraph> graphs = new ArrayList<>();
+    private final List<CsrStore> stores = new ArrayList<>();
+    private long byteSize;
+    private boolean closed;
+
+    /**
+     * Copies a graph into direct memory owned by this arena. A {@link GraphImpl} is copied through
+     * {@link GraphImpl#freeze()}.
+     *
+     * @param graph The graph to copy.
+     * @return A read-only graph whose arrays and names are off-heap, with default settings.
+     * @throws IllegalStateException If the arena is closed.
+     */
+    public synchronized CsrGraph copy(CsrGraph graph) {
+        checkOpen();
+        return own(GraphFile.copyOffHeap(graph));
+    }
+
+    /**
+     * Maps a graph file written by {@link CsrGraph#save(Path)} into memory owned by this arena.
+     *
+     * @param path The binary graph file.
+     * @return A read-only graph backed by the file, with default settings.
+     * @throws IOException If the file cannot be read or is not a supported graph file.
+     * @throws IllegalStateException If the arena is closed.
+     */
+    public synchronized CsrGraph open(Path path) throws IOException {
+        checkOpen();
+        return own(GraphFile.open(path));
+    }
+
+    private CsrGraph own(CsrGraph graph) {
+        graphs.add(graph);
+        stores.add(graph.store());
+        byteSize += ((GraphFile.BufferCsrStore) graph.store()).byteSize()
+                + ((GraphFile.BufferVertexIndex) graph.vertices()).byteSize();
+        return graph;
+    }
+
+    /**
+     * @return The bytes of off-heap memory, direct or mapped, held by the graphs of this arena.
+     */
+    public synchronized long byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * @return Whether the arena has been closed.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes every graph of this arena that still reads the memory it was given. Closing again has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < graphs.size(); i++) {
+            graphs.get(i).replaceStore(stores.get(i), Closed.INSTANCE, Closed.INSTANCE);
+        }
+        graphs.clear();
+        stores.clear();
+        byteSize = 0;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Graph arena is closed");
+        }
+    }
+
+    /**
+     * The storage of a closed graph, which fails every call.
+     */
+    private static final class Closed implements CsrStore, VertexIndex {
+        static final Closed INSTANCE = new Closed();
+
+        private static IllegalStateException closed() {
+            return new IllegalStateException("Graph arena is closed");
+        }
+
+        @Override
+        public int vertexCount() {
+            throw closed();
+        }
+
+        @Override
+        public int entryCount() {
+            throw closed();
+        }
+
+        @Override
+        public int offset(int u) {
+            throw closed();
+        }
+
+        @Override
+        public int target(int i) {
+            throw closed();
+        }
+
+        @Override
+        public int weight(int i) {
+            throw closed();
+        }
+
+        @Override
+        public int minWeight() {
+            throw closed();
+        }
+
+        @Override
+        public int maxWeight() {
+            throw closed();
+        }
+
+        @Override
+        public int idOf(String name) {
+            throw closed();
+        }
+
+        @Override
+        public String nameOf(int id) {
+            throw closed();
+        }
+
+        @Override
+        public int size() {
+            throw closed();
+        }
+
+        @Override
+        public List<String> names() {
+            throw closed();
+        }
+    }
+}
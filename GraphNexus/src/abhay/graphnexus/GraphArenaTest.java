@@ -0,0 +1,103 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GraphArenaTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testQueriesMatchHeapGraph() throws Exception {
+        Random random = new Random(11);
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // Names of different lengths, some outside ASCII
+            edges.add("ü" + random.nextInt(500));
+            edges.add("v" + random.nextInt(500) * 7919);
+            weights.add(random.nextInt(20));
+        }
+        CsrGraph heap = new CsrGraph();
+        heap.load(edges, weights);
+        Path file = dir.resolve("graph.gnx");
+        heap.save(file);
+
+        try (GraphArena arena = new GraphArena()) {
+            for (CsrGraph graph : List.of(arena.copy(heap), arena.open(file))) {
+                Assertions.assertEquals(heap.getVertices(), graph.getVertices());
+                Assertions.assertEquals(heap.getEdgeCount(), graph.getEdgeCount());
+                for (String u : heap.getVertices()) {
+                    Assertions.assertTrue(graph.hasVertex(u));
+                    Assertions.assertEquals(heap.getAdjacent(u), graph.getAdjacent(u));
+                }
+                Assertions.assertEquals(heap.getMST(), graph.getMST());
+                String source = edges.get(0);
+                Assertions.assertEquals(heap.getShortestPaths(source), graph.getShortestPaths(source));
+                Assertions.assertEquals(heap.getReport(source, heap.getMST()), graph.getReport(source, graph.getMST()));
+                Assertions.assertEquals(heap.getWeight(edges.get(0), edges.get(1)), graph.getWeight(edges.get(0), edges.get(1)));
+                Assertions.assertFalse(graph.hasVertex("missing"));
+            }
+            Assertions.assertTrue(arena.byteSize() > 0);
+        }
+    }
+
+    @Test
+    public void testNamesPastTheCache() throws Exception {
+        // More vertices than the name cache holds, so ids that share a cache slot evict each other
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            edges.add("v" + i);
+            edges.add("v" + (i + 1));
+            weights.add(1);
+        }
+        CsrGraph heap = new CsrGraph();
+        heap.load(edges, weights);
+        try (GraphArena arena = new GraphArena()) {
+            CsrGraph graph = arena.copy(heap);
+            List<String> expected = new ArrayList<>();
+            heap.getVertices().forEach(expected::add);
+            for (int pass = 0; pass < 2; pass++) {
+                List<String> names = new ArrayList<>();
+                graph.getVertices().forEach(names::add);
+                Assertions.assertEquals(expected, names);
+            }
+            for (int id = expected.size() - 1; id >= 0; id -= 4096) {
+                Assertions.assertEquals(expected.get(id), graph.vertices().nameOf(id));
+                Assertions.assertEquals(id, graph.vertices().idOf(expected.get(id)));
+            }
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        CsrGraph heap = new CsrGraph();
+        heap.load(List.of("a", "b", "b", "c"), List.of(1, 2));
+        GraphArena arena = new GraphArena();
+        CsrGraph closed = arena.copy(heap);
+        CsrGraph reloaded = arena.copy(heap);
+        Iterable<String> adjacent = closed.getAdjacent("b");
+        reloaded.load(List.of("x", "y"), List.of(3));
+        Assertions.assertEquals(1, closed.getDistance("a", "b"));
+
+        arena.close();
+        Assertions.assertTrue(arena.isClosed());
+        Assertions.assertEquals(0, arena.byteSize());
+        Assertions.assertThrows(IllegalStateException.class, closed::getVertexCount);
+        Assertions.assertThrows(IllegalStateException.class, () -> closed.getShortestPaths("a"));
+        Assertions.assertThrows(IllegalStateException.class, closed::getMST);
+        Assertions.assertThrows(IllegalStateException.class, () -> arena.copy(heap));
+        // A view taken before the close still reads the old memory
+        Assertions.assertEquals(List.of("a", "c"), adjacent);
+        // A graph loaded since it was handed out has left the arena
+        Assertions.assertEquals(3, reloaded.getWeight("x", "y"));
+        arena.close();
+    }
+}
@@ -0,0 +1,112 @@
+package abhay.graphnexus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects edges one at a time for loading into a graph, without the String and Integer lists that
+ * {@link Graph#load(List, List)} takes.
+ *
+ * Each endpoint is numbered as it arrives by a {@link VertexDictionary}, which only creates a String
+ * the first time it sees a name, and the edge is appended to primitive int arrays. Ingestion therefore
+ * holds 12 bytes per edge plus one String per distinct vertex, and a caller can pass a reused
+ * StringBuilder or a slice of its own buffer as the name. Edges are taken synchronously on the
+ * caller's thread, so a producer can never run ahead of the builder.
+ *
+ * Loading the builder with {@link GraphImpl#load(GraphBuilder)}, {@link CsrGraph#load(GraphBuilder)} or
+ * {@link ConcurrentGraph#load(GraphBuilder)} gives the same graph as loading the same edges from lists,
+ * and hands the collected edges over, leaving the builder empty. A builder is not thread-safe.
+ */
+public final class GraphBuilder {
+    private final int expectedVertices;
+    private final int expectedEdges;
+    private EdgeList edges;
+
+    /**
+     * Constructs an empty builder.
+     */
+    public GraphBuilder() {
+        this(16, 16);
+    }
+
+    /**
+     * Constructs an empty builder sized for a graph, so that its arrays do not have to grow.
+     *
+     * @param expectedVertices The number of distinct vertices expected.
+     * @param expectedEdges The number of edges expected.
+     * @throws IllegalArgumentException If a count is negative.
+     */
+    public GraphBuilder(int expectedVertices, int expectedEdges) {
+        if (expectedVertices < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("Expected counts must not be negative: "
+                    + expectedVertices + ", " + expectedEdges);
+        }
+        this.expectedVertices = expectedVertices;
+        this.expectedEdges = expectedEdges;
+        clear();
+    }
+
+    /**
+     * Adds an edge. A repeated edge, in either direction, replaces the weight when the graph is loaded.
+     * The names are copied only if they are new, so the caller may change them after the call.
+     *
+     * @param u One endpoint.
+     * @param v The other endpoint.
+     * @param weight The weight of the edge.
+     * @return This builder.
+     * @throws IllegalArgumentException If the weight is negative.
+     */
+    public GraphBuilder addEdge(CharSequence u, CharSequence v, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative edge weight not allowed: " + weight);
+        }
+        Objects.requireNonNull(u);
+        Objects.requireNonNull(v);
+        VertexDictionary dictionary = edges.dictionary;
+        edges.add(dictionary.intern(u), dictionary.intern(v), weight);
+        return this;
+    }
+
+    /**
+     * @return The number of distinct vertices added so far.
+     */
+    public int getVertexCount() {
+        return edges.dictionary.size();
+    }
+
+    /**
+     * @return The number of edges added so far, counting repeated edges each time.
+     */
+    public int getEdgeCount() {
+        return edges.size;
+    }
+
+    /**
+     * Loads the collected edges into a new graph, leaving this builder empty.
+     *
+     * @return The loaded graph.
+     */
+    public GraphImpl build() {
+        GraphImpl graph = new GraphImpl();
+        graph.load(this);
+        return graph;
+    }
+
+    /**
+     * Discards the collected edges.
+     */
+    public void clear() {
+        edges = new EdgeList(new VertexDictionary(expectedVertices), expectedEdges);
+    }
+
+    /**
+     * Hands the collected edges over to a graph being loaded, so the builder does not keep them alive.
+     * The builder starts again with the smallest arrays rather than its expected size, which would
+     * add to the peak while the graph is built.
+     */
+    EdgeList take() {
+        EdgeList taken = edges;
+        edges = new EdgeList(new VertexDictionary(), 0);
+        return taken;
+    }
+}
@@ -0,0 +1,85 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GraphBuilderTest {
+
+    @Test
+    public void testMatchesListLoad() throws Exception {
+        Random random = new Random(3);
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        GraphBuilder builder = new GraphBuilder(100, 5000);
+        // One buffer per endpoint, reused for every edge
+        StringBuilder u = new StringBuilder();
+        StringBuilder v = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            int a = random.nextInt(100);
+            int b = random.nextInt(100);
+            int weight = random.nextInt(10);
+            names.add("v" + a);
+            names.add("v" + b);
+            weights.add(weight);
+            u.setLength(0);
+            v.setLength(0);
+            builder.addEdge(u.append('v').append(a), v.append('v').append(b), weight);
+        }
+        Assertions.assertEquals(5000, builder.getEdgeCount());
+        GraphImpl expected = new GraphImpl();
+        expected.load(names, weights);
+        Assertions.assertEquals(expected.getVertexCount(), builder.getVertexCount());
+
+        GraphImpl graph = builder.build();
+        Assertions.assertEquals(0, builder.getEdgeCount());
+        Assertions.assertEquals(0, builder.getVertexCount());
+        Assertions.assertEquals(expected.getVertices(), graph.getVertices());
+        Assertions.assertEquals(expected.getEdgeCount(), graph.getEdgeCount());
+        for (String s : expected.getVertices()) {
+            Assertions.assertEquals(expected.getAdjacent(s), graph.getAdjacent(s));
+            for (String t : expected.getAdjacent(s)) {
+                Assertions.assertEquals(expected.getWeight(s, t), graph.getWeight(s, t));
+            }
+        }
+        Assertions.assertEquals(expected.getMST(), graph.getMST());
+        Assertions.assertEquals(expected.getShortestPaths("v0"), graph.getShortestPaths("v0"));
+    }
+
+    @Test
+    public void testLoadsEveryGraph() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge("a", "b", 1).addEdge("b", "c", 1).addEdge("a", "c", 5);
+        CsrGraph csr = new CsrGraph();
+        csr.load(builder);
+        Assertions.assertEquals(2, csr.getDistance("a", "c"));
+        Assertions.assertEquals(0, builder.getEdgeCount());
+
+        builder.addEdge("x", "y", 2);
+        ConcurrentGraph concurrent = new ConcurrentGraph();
+        concurrent.load(builder);
+        Assertions.assertEquals(2, concurrent.getWeight("y", "x"));
+        Assertions.assertEquals(2, concurrent.getVertexCount());
+
+        // An empty builder loads an empty graph
+        GraphImpl empty = builder.build();
+        Assertions.assertEquals(0, empty.getVertexCount());
+    }
+
+    @Test
+    public void testValidation() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge("a", "b", 0);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.addEdge("a", "c", -1));
+        Assertions.assertThrows(NullPointerException.class, () -> builder.addEdge("a", null, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GraphBuilder(-1, 0));
+        // A rejected edge leaves the builder as it was
+        Assertions.assertEquals(1, builder.getEdgeCount());
+        Assertions.assertEquals(2, builder.getVertexCount());
+        builder.clear();
+        Assertions.assertEquals(0, builder.getEdgeCount());
+    }
+}
@@ -0,0 +1,58 @@
+package abhay.graphnexus;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder event for one call measured by {@link GraphMetrics}. Its duration is the wall
+ * time of the call.
+ */
+@Name("abhay.graphnexus.GraphCall")
+@Label("Graph Call")
+@Category("GraphNexus")
+@Description("Work done by one getShortestPaths, getDistance, getPath or getMST call")
+final class GraphCallEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Pushes")
+    long pushes;
+
+    @Label("Pops")
+    long pops;
+
+    @Label("Stale Skips")
+    long staleSkips;
+
+    @Label("Decrease Keys")
+    long decreaseKeys;
+
+    @Label("Relaxations")
+    long relaxations;
+
+    @Label("Settled")
+    long settled;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    void set(GraphMetrics.Call call) {
+        operation = call.getOperation().name();
+        algorithm = call.getAlgorithm();
+        pushes = call.getPushes();
+        pops = call.getPops();
+        staleSkips = call.getStaleSkips();
+        decreaseKeys = call.getDecreaseKeys();
+        relaxations = call.getRelaxations();
+        settled = call.getSettled();
+        allocatedBytes = call.getAllocatedBytes();
+    }
+}
@@ -0,0 +1,609 @@
+package abhay.graphnexus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads and writes the binary graph format behind {@link CsrGraph#save(Path)} and {@link CsrGraph#open(Path)}.
+ *
+ * All values are little-endian and every section starts on an 8-byte boundary:
+ * <pre>
+ * header       magic "GNXG", version, |V|, adjacency entry count, hash table slots, largest weight,
+ *              the file position of each section below, the total file length and the smallest weight
+ * nameOffsets  long[|V| + 1], start of each name in nameBytes
+ * nameBytes    the UTF-8 encoded vertex names, in id order
+ * nameTable    long[slots], open-addressing table; each slot packs the spread String hash with id + 1
+ * offsets      int[|V| + 1], CSR range boundaries
+ * targets      int[entries], neighbor ids, sorted within each range
+ * weights      int[entries], edge weights
+ * </pre>
+ * Opening maps every section read-only and wraps it without copying, so only the pages a query
+ * touches are ever read from disk. {@link #copyOffHeap(CsrGraph)} lays the same sections out in
+ * direct buffers instead, for a graph that lives outside the heap without a file.
+ */
+final class GraphFile {
+    static final int MAGIC = 0x47584E47; // "GNXG" in little-endian byte order
+    static final int VERSION = 2;
+    private static final int HEADER_BYTES = 96;
+    private static final int INT_CHUNK_SHIFT = 28;
+    private static final int LONG_CHUNK_SHIFT = 27;
+    private static final int BYTE_CHUNK_SHIFT = 30;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Writes a graph in the binary format.
+     *
+     * @param graph The graph to write.
+     * @param path The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(CsrGraph graph, Path path) throws IOException {
+        CsrGraph pinned = graph.pinned();
+        VertexIndex vertices = pinned.vertices();
+        CsrStore store = pinned.store();
+        int n = vertices.size();
+        int entries = store.entryCount();
+
+        long[] nameOffsets = nameOffsets(vertices);
+        long[] table = nameTable(vertices);
+        int slots = table.length;
+
+        long nameOffsetsAt = HEADER_BYTES;
+        long nameBytesAt = nameOffsetsAt + 8L * (n + 1);
+        long tableAt = align(nameBytesAt + nameOffsets[n]);
+        long offsetsAt = tableAt + 8L * slots;
+        long targetsAt = align(offsetsAt + 4L * (n + 1));
+        long weightsAt = align(targetsAt + 4L * entries);
+        long fileLength = align(weightsAt + 4L * entries);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(n);
+            out.putInt(entries);
+            out.putInt(slots);
+            out.putInt(store.maxWeight());
+            out.putLong(nameOffsetsAt);
+            out.putLong(nameBytesAt);
+            out.putLong(tableAt);
+            out.putLong(offsetsAt);
+            out.putLong(targetsAt);
+            out.putLong(weightsAt);
+            out.putLong(fileLength);
+            out.putInt(store.minWeight());
+            out.padTo(nameOffsetsAt);
+
+            for (long offset : nameOffsets) {
+                out.putLong(offset);
+            }
+            for (int id = 0; id < n; id++) {
+                out.putBytes(vertices.nameOf(id).getBytes(StandardCharsets.UTF_8));
+            }
+            out.padTo(tableAt);
+            for (long slot : table) {
+                out.putLong(slot);
+            }
+            for (int u = 0; u <= n; u++) {
+                out.putInt(store.offset(u));
+            }
+            out.padTo(targetsAt);
+            for (int i = 0; i < entries; i++) {
+                out.putInt(store.target(i));
+            }
+            out.padTo(weightsAt);
+            for (int i = 0; i < entries; i++) {
+                out.putInt(store.weight(i));
+            }
+            out.padTo(fileLength);
+            out.flush();
+        }
+    }
+
+    /**
+     * Memory-maps a graph file.
+     *
+     * @param path The binary graph file.
+     * @return A graph whose queries read the mapped sections.
+     * @throws IOException If the file cannot be read or is not a supported graph file.
+     */
+    static CsrGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || channel.read(header, 0) < HEADER_BYTES) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported graph file version " + header.getInt(4) + ": " + path);
+            }
+            int n = header.getInt(8);
+            int entries = header.getInt(12);
+            int slots = header.getInt(16);
+            int maxWeight = header.getInt(20);
+            long nameOffsetsAt = header.getLong(24);
+            long nameBytesAt = header.getLong(32);
+            long tableAt = header.getLong(40);
+            long offsetsAt = header.getLong(48);
+            long targetsAt = header.getLong(56);
+            long weightsAt = header.getLong(64);
+            long fileLength = header.getLong(72);
+            int minWeight = header.getInt(80);
+            if (fileLength != channel.size()) {
+                throw new IOException("Truncated graph file: " + path);
+            }
+            // An empty slot ends every lookup, so the name table needs more slots than names
+            if (n < 0 || entries < 0 || slots <= n || Integer.bitCount(slots) != 1) {
+                throw new IOException("Corrupt graph file header: " + path);
+            }
+            // The sections follow each other in the order written, each ending before the next starts
+            checkSection(HEADER_BYTES, nameOffsetsAt, 8L * (n + 1L), nameBytesAt, path);
+            checkSection(nameBytesAt, tableAt, 8L * slots, offsetsAt, path);
+            checkSection(tableAt, offsetsAt, 4L * (n + 1L), targetsAt, path);
+            checkSection(offsetsAt, targetsAt, 4L * entries, weightsAt, path);
+            checkSection(targetsAt, weightsAt, 4L * entries, fileLength, path);
+
+            LongBuffer[] nameOffsets = mapLongs(channel, nameOffsetsAt, n + 1L);
+            long nameBytesLength = get(nameOffsets, n);
+            checkSection(nameOffsetsAt, nameBytesAt, nameBytesLength, tableAt, path);
+            BufferVertexIndex vertices = new BufferVertexIndex(n, nameOffsets,
+                    mapBytes(channel, nameBytesAt, nameBytesLength), mapLongs(channel, tableAt, slots));
+            BufferCsrStore store = new BufferCsrStore(n, entries, minWeight, maxWeight, mapInts(channel, offsetsAt, n + 1L),
+                    mapInts(channel, targetsAt, entries), mapInts(channel, weightsAt, entries));
+            return new CsrGraph(vertices, store);
+        }
+    }
+
+    /**
+     * Checks that a section starts no earlier than the one before it and ends no later than the
+     * position of the one after it.
+     *
+     * @param previous The start of the section before, or the header length for the first section.
+     * @param end The start of the section after, or the file length for the last section.
+     * @throws IOException If the section is out of place.
+     */
+    private static void checkSection(long previous, long position, long length, long end, Path path) throws IOException {
+        if (position < previous || length < 0 || end < position || end - position < length) {
+            throw new IOException("Corrupt graph file section at " + position + ": " + path);
+        }
+    }
+
+    /**
+     * Copies a graph into direct buffers with the sections of the file format, so that its adjacency,
+     * weights and name table are all outside the heap.
+     *
+     * @param graph The graph to copy.
+     * @return A graph whose queries read the direct buffers.
+     */
+    static CsrGraph copyOffHeap(CsrGraph graph) {
+        CsrGraph pinned = graph.pinned();
+        VertexIndex vertices = pinned.vertices();
+        CsrStore store = pinned.store();
+        int n = vertices.size();
+        int entries = store.entryCount();
+
+        long[] offsetsOfNames = nameOffsets(vertices);
+        LongBuffer[] nameOffsets = allocateLongs(n + 1L);
+        for (int id = 0; id <= n; id++) {
+            put(nameOffsets, id, offsetsOfNames[id]);
+        }
+        ByteBuffer[] nameBytes = allocateBytes(offsetsOfNames[n]);
+        for (int id = 0; id < n; id++) {
+            byte[] bytes = vertices.nameOf(id).getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i++) {
+                put(nameBytes, offsetsOfNames[id] + i, bytes[i]);
+            }
+        }
+        long[] slots = nameTable(vertices);
+        LongBuffer[] table = allocateLongs(slots.length);
+        for (int slot = 0; slot < slots.length; slot++) {
+            put(table, slot, slots[slot]);
+        }
+
+        IntBuffer[] offsets = allocateInts(n + 1L);
+        for (int u = 0; u <= n; u++) {
+            put(offsets, u, store.offset(u));
+        }
+        IntBuffer[] targets = allocateInts(entries);
+        IntBuffer[] weights = allocateInts(entries);
+        for (int i = 0; i < entries; i++) {
+            put(targets, i, store.target(i));
+            put(weights, i, store.weight(i));
+        }
+        return new CsrGraph(new BufferVertexIndex(n, nameOffsets, nameBytes, table),
+                new BufferCsrStore(n, entries, store.minWeight(), store.maxWeight(), offsets, targets, weights));
+    }
+
+    /**
+     * @return The start of each UTF-8 encoded name in the name bytes, and their total length at index |V|.
+     */
+    private static long[] nameOffsets(VertexIndex vertices) {
+        int n = vertices.size();
+        long[] nameOffsets = new long[n + 1];
+        for (int id = 0; id < n; id++) {
+            nameOffsets[id + 1] = nameOffsets[id] + vertices.nameOf(id).getBytes(StandardCharsets.UTF_8).length;
+        }
+        return nameOffsets;
+    }
+
+    /**
+     * @return The open-addressing name table, at most half full; each slot packs the spread hash with id + 1.
+     */
+    private static long[] nameTable(VertexIndex vertices) {
+        int n = vertices.size();
+        int slots = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+        long[] table = new long[slots];
+        for (int id = 0; id < n; id++) {
+            int hash = VertexDictionary.spread(vertices.nameOf(id).hashCode());
+            int slot = hash & (slots - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            table[slot] = ((long) hash << 32) | (id + 1);
+        }
+        return table;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        int chunk = 1 << INT_CHUNK_SHIFT;
+        IntBuffer[] buffers = new IntBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            long length = Math.min(chunk, count - (long) c * chunk);
+            buffers[c] = map(channel, position + 4L * c * chunk, 4L * length).asIntBuffer();
+        }
+        return buffers;
+    }
+
+    private static LongBuffer[] mapLongs(FileChannel channel, long position, long count) throws IOException {
+        int chunk = 1 << LONG_CHUNK_SHIFT;
+        LongBuffer[] buffers = new LongBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            long length = Math.min(chunk, count - (long) c * chunk);
+            buffers[c] = map(channel, position + 8L * c * chunk, 8L * length).asLongBuffer();
+        }
+        return buffers;
+    }
+
+    private static ByteBuffer[] mapBytes(FileChannel channel, long position, long count) throws IOException {
+        int chunk = 1 << BYTE_CHUNK_SHIFT;
+        ByteBuffer[] buffers = new ByteBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            long length = Math.min(chunk, count - (long) c * chunk);
+            buffers[c] = map(channel, position + (long) c * chunk, length);
+        }
+        return buffers;
+    }
+
+    private static IntBuffer[] allocateInts(long count) {
+        int chunk = 1 << INT_CHUNK_SHIFT;
+        IntBuffer[] buffers = new IntBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            long length = Math.min(chunk, count - (long) c * chunk);
+            buffers[c] = ByteBuffer.allocateDirect((int) (4 * length)).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return buffers;
+    }
+
+    private static LongBuffer[] allocateLongs(long count) {
+        int chunk = 1 << LONG_CHUNK_SHIFT;
+        LongBuffer[] buffers = new LongBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            long length = Math.min(chunk, count - (long) c * chunk);
+            buffers[c] = ByteBuffer.allocateDirect((int) (8 * length)).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return buffers;
+    }
+
+    private static ByteBuffer[] allocateBytes(long count) {
+        int chunk = 1 << BYTE_CHUNK_SHIFT;
+        ByteBuffer[] buffers = new ByteBuffer[(int) Math.max(1, (count + chunk - 1) / chunk)];
+        for (int c = 0; c < buffers.length; c++) {
+            buffers[c] = ByteBuffer.allocateDirect((int) Math.min(chunk, count - (long) c * chunk));
+        }
+        return buffers;
+    }
+
+    private static void put(IntBuffer[] buffers, int index, int value) {
+        buffers[index >>> INT_CHUNK_SHIFT].put(index & ((1 << INT_CHUNK_SHIFT) - 1), value);
+    }
+
+    private static void put(LongBuffer[] buffers, long index, long value) {
+        buffers[(int) (index >>> LONG_CHUNK_SHIFT)].put((int) (index & ((1 << LONG_CHUNK_SHIFT) - 1)), value);
+    }
+
+    private static void put(ByteBuffer[] buffers, long index, byte value) {
+        buffers[(int) (index >>> BYTE_CHUNK_SHIFT)].put((int) (index & ((1 << BYTE_CHUNK_SHIFT) - 1)), value);
+    }
+
+    static int get(IntBuffer[] buffers, int index) {
+        return buffers[index >>> INT_CHUNK_SHIFT].get(index & ((1 << INT_CHUNK_SHIFT) - 1));
+    }
+
+    static long get(LongBuffer[] buffers, long index) {
+        return buffers[(int) (index >>> LONG_CHUNK_SHIFT)].get((int) (index & ((1 << LONG_CHUNK_SHIFT) - 1)));
+    }
+
+    static byte get(ByteBuffer[] buffers, long index) {
+        return buffers[(int) (index >>> BYTE_CHUNK_SHIFT)].get((int) (index & ((1 << BYTE_CHUNK_SHIFT) - 1)));
+    }
+
+    /**
+     * Sequential little-endian writer over a file channel, staging through a direct buffer.
+     */
+    static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(bytes.length - i, buffer.remaining());
+                buffer.put(bytes, i, length);
+                i += length;
+                position += length;
+            }
+        }
+
+        void padTo(long target) throws IOException {
+            while (position < target) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * CSR arrays read from int sections, mapped from a file or allocated off-heap, with the weight range
+     * taken from the header.
+     */
+    static final class BufferCsrStore implements CsrStore {
+        private final int vertexCount;
+        private final int entryCount;
+        private final int minWeight;
+        private final int maxWeight;
+        private final IntBuffer[] offsets;
+        private final IntBuffer[] targets;
+        private final IntBuffer[] weights;
+        /** The only chunk of each section, or null if a section has several; saves the chunk lookup. */
+        private final IntBuffer offsets0;
+        private final IntBuffer targets0;
+        private final IntBuffer weights0;
+
+        BufferCsrStore(int vertexCount, int entryCount, int minWeight, int maxWeight,
+                       IntBuffer[] offsets, IntBuffer[] targets, IntBuffer[] weights) {
+            this.vertexCount = vertexCount;
+            this.entryCount = entryCount;
+            this.minWeight = minWeight;
+            this.maxWeight = maxWeight;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.offsets0 = offsets.length == 1 ? offsets[0] : null;
+            this.targets0 = targets.length == 1 ? targets[0] : null;
+            this.weights0 = weights.length == 1 ? weights[0] : null;
+        }
+
+        @Override
+        public int vertexCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public int entryCount() {
+            return entryCount;
+        }
+
+        @Override
+        public int offset(int u) {
+            return offsets0 != null ? offsets0.get(u) : get(offsets, u);
+        }
+
+        @Override
+        public int target(int i) {
+            return targets0 != null ? targets0.get(i) : get(targets, i);
+        }
+
+        @Override
+        public int weight(int i) {
+            return weights0 != null ? weights0.get(i) : get(weights, i);
+        }
+
+        @Override
+        public int minWeight() {
+            return minWeight;
+        }
+
+        @Override
+        public int maxWeight() {
+            return maxWeight;
+        }
+
+        /**
+         * @return The bytes of the offset, target and weight sections.
+         */
+        long byteSize() {
+            return 4L * (vertexCount + 1L) + 8L * entryCount;
+        }
+    }
+
+    /**
+     * Vertex names read from the name sections, mapped from a file or allocated off-heap. Names are
+     * decoded on each use; only the last few thousand stay on the heap, in a direct-mapped cache by id,
+     * so listing every vertex does not pull the whole name table onto the heap.
+     */
+    static final class BufferVertexIndex implements VertexIndex {
+        private static final int CACHED_NAMES = 4096;
+
+        private final int size;
+        private final LongBuffer[] nameOffsets;
+        private final ByteBuffer[] nameBytes;
+        private final LongBuffer[] table;
+        private final long slots;
+        private final Name[] recent;
+
+        BufferVertexIndex(int size, LongBuffer[] nameOffsets, ByteBuffer[] nameBytes, LongBuffer[] table) {
+            this.size = size;
+            this.nameOffsets = nameOffsets;
+            this.nameBytes = nameBytes;
+            this.table = table;
+            long count = 0;
+            for (LongBuffer buffer : table) {
+                count += buffer.capacity();
+            }
+            this.slots = count;
+            this.recent = new Name[Math.min(CACHED_NAMES, Math.max(1, Integer.highestOneBit(size)))];
+        }
+
+        @Override
+        public int idOf(String name) {
+            if (name == null || size == 0) {
+                return -1;
+            }
+            int hash = VertexDictionary.spread(name.hashCode());
+            long mask = slots - 1;
+            byte[] encoded = null;
+            // Bounded by the table size, so a file whose table has no empty slot cannot hang the lookup
+            for (long slot = hash & mask, probes = 0; probes < slots; slot = (slot + 1) & mask, probes++) {
+                long entry = get(table, slot);
+                if (entry == 0) {
+                    return -1;
+                }
+                if ((int) (entry >>> 32) == hash) {
+                    int id = (int) entry - 1;
+                    if (encoded == null) {
+                        encoded = name.getBytes(StandardCharsets.UTF_8);
+                    }
+                    if (sameBytes(id, encoded)) {
+                        return id;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private boolean sameBytes(int id, byte[] encoded) {
+            long start = get(nameOffsets, id);
+            long end = get(nameOffsets, id + 1L);
+            if (end - start != encoded.length) {
+                return false;
+            }
+            for (int i = 0; i < encoded.length; i++) {
+                if (get(nameBytes, start + i) != encoded[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String nameOf(int id) {
+            Objects.checkIndex(id, size);
+            int slot = id & (recent.length - 1);
+            Name cached = recent[slot];
+            if (cached != null && cached.id == id) {
+                return cached.name;
+            }
+            long start = get(nameOffsets, id);
+            byte[] bytes = new byte[(int) (get(nameOffsets, id + 1L) - start)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = get(nameBytes, start + i);
+            }
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            // Entries are immutable, so racing threads at worst evict each other's names
+            recent[slot] = new Name(id, name);
+            return name;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return The bytes of the name offset, name and name table sections.
+         */
+        long byteSize() {
+            return 8L * (size + 1L) + get(nameOffsets, size) + 8L * slots;
+        }
+
+        @Override
+        public List<String> names() {
+            return new AbstractList<String>() {
+                @Override
+                public String get(int index) {
+                    return nameOf(index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private static final class Name {
+            final int id;
+            final String name;
+
+            Name(int id, String name) {
+                this.id = id;
+                this.name = name;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        GraphImpl source = new GraphImpl();
+        source.load("g1.txt");
+        Path file = dir.resolve("g1.gnx");
+        source.save(file);
+
+        CsrGraph opened = CsrGraph.open(file);
+        Assertions.assertEquals(source.getVertexCount(), opened.getVertexCount());
+        Assertions.assertEquals(source.getEdgeCount(), opened.getEdgeCount());
+        for (String u : source.getVertices()) {
+            Assertions.assertTrue(opened.hasVertex(u));
+            for (String v : source.getVertices()) {
+                Assertions.assertEquals(source.getWeight(u, v), opened.getWeight(u, v));
+            }
+        }
+        Assertions.assertFalse(opened.hasVertex("e"));
+        Assertions.assertFalse(opened.hasVertex(null));
+        Assertions.assertEquals(source.getShortestPaths("a"), opened.getShortestPaths("a"));
+        Assertions.assertEquals(source.getMST(), opened.getMST());
+    }
+
+    @Test
+    public void testNonAsciiNamesAndEmptyGraph() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("Z\u00fcrich", "\u6771\u4eac", "\u6771\u4eac", "a b"), List.of(7, 3));
+        Path file = dir.resolve("names.gnx");
+        graph.save(file);
+
+        CsrGraph opened = CsrGraph.open(file);
+        Assertions.assertEquals(List.of("Z\u00fcrich", "\u6771\u4eac", "a b"), new ArrayList<>(opened.vertices().names()));
+        Assertions.assertEquals(7, opened.getWeight("\u6771\u4eac", "Z\u00fcrich"));
+        Assertions.assertEquals(3, opened.getWeight("a b", "\u6771\u4eac"));
+
+        Path empty = dir.resolve("empty.gnx");
+        new CsrGraph().save(empty);
+        Assertions.assertEquals(0, CsrGraph.open(empty).getVertexCount());
+        Assertions.assertFalse(CsrGraph.open(empty).hasVertex("a"));
+    }
+
+    @Test
+    public void testLargeGraph() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load("e10k.txt");
+        Path file = dir.resolve("e10k.gnx");
+        graph.save(file);
+
+        CsrGraph opened = CsrGraph.open(file);
+        Assertions.assertEquals(10001, opened.getVertexCount());
+        Assertions.assertEquals(10000, opened.getEdgeCount());
+        Assertions.assertEquals(graph.getShortestPaths("0"), opened.getShortestPaths("0"));
+        Assertions.assertEquals(graph.getMST(), opened.getMST());
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws Exception {
+        Path text = dir.resolve("g1.txt");
+        Files.copy(Path.of("g1.txt"), text);
+        Assertions.assertThrows(IOException.class, () -> CsrGraph.open(text));
+
+        CsrGraph graph = new CsrGraph();
+        graph.load("g1.txt");
+        Path file = dir.resolve("g1.gnx");
+        graph.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        Assertions.assertThrows(IOException.class, () -> CsrGraph.open(file));
+    }
+
+    @Test
+    public void testRejectsCorruptHeaders() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load("g1.txt");
+        Path file = dir.resolve("g1.gnx");
+        graph.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int n = header.getInt(8);
+        int slots = header.getInt(16);
+
+        // |V|, entries, slots, then the position of each section
+        assertRejected(bytes, file, 8, -1);
+        assertRejected(bytes, file, 12, -1);
+        assertRejected(bytes, file, 16, 0);
+        assertRejected(bytes, file, 16, n);
+        assertRejected(bytes, file, 16, slots - 1);
+        assertRejected(bytes, file, 16, slots * 2);
+        for (int field = 24; field <= 64; field += 8) {
+            assertRejected(bytes, file, field, -8L);
+            assertRejected(bytes, file, field, 0L);
+            assertRejected(bytes, file, field, (long) bytes.length);
+        }
+        // The total name length, stored as the last name offset
+        assertRejected(bytes, file, (int) header.getLong(24) + 8 * n, (long) bytes.length);
+        assertRejected(bytes, file, 12, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testLookupInFullNameTable() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load("g1.txt");
+        Path file = dir.resolve("g1.gnx");
+        graph.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int tableAt = (int) buffer.getLong(40);
+        for (int slot = 0; slot < buffer.getInt(16); slot++) {
+            buffer.putLong(tableAt + 8 * slot, buffer.getLong(tableAt + 8 * slot) | 1);
+        }
+        Files.write(file, bytes);
+        CsrGraph opened = CsrGraph.open(file);
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> Assertions.assertFalse(opened.hasVertex("e")));
+    }
+
+    private static void assertRejected(byte[] bytes, Path file, int position, int value) throws IOException {
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(position, value);
+        Files.write(file, corrupt);
+        Assertions.assertThrows(IOException.class, () -> CsrGraph.open(file), "int at " + position + " = " + value);
+    }
+
+    private static void assertRejected(byte[] bytes, Path file, int position, long value) throws IOException {
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putLong(position, value);
+        Files.write(file, corrupt);
+        Assertions.assertThrows(IOException.class, () -> CsrGraph.open(file), "long at " + position + " = " + value);
+    }
+}
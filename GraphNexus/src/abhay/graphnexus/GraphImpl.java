@@ -1,21 +1,52 @@
 package abhay.graphnexus;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.IntStream;
 /**
  * Implementation of the Graph interface representing a weighted undirected graph.
  * This class provides methods for loading, querying, and analyzing graph structures.
  *
+ * Vertices are given dense int ids by a {@link VertexDictionary} as they are loaded, and each
+ * vertex keeps its neighbors in an int-keyed adjacency row. The algorithms run on a frozen
+ * {@link CsrGraph} snapshot that is built on first use after a load, so their inner loops
+ * only touch int arrays; names are looked up at the API boundary.
+ *
+ * Edges can also be added, removed and reweighted one at a time. After the first such change,
+ * {@link #getMST()} builds a {@link DynamicMst} once and every later change updates it in place,
+ * so the spanning tree is not recomputed from scratch. Likewise, the shortest paths from sources
+ * registered with {@link #trackShortestPaths(String)} are repaired by each change.
+ *
+ * The connected components are found while loading, so {@link #componentOf(String)} and the other
+ * component queries answer in O(1). A change that cannot join or split components keeps them; any
+ * other change has them found again, on the next snapshot, when they are next needed.
+ *
  * @author Abhay Prasanna Rao
  */
 public class GraphImpl implements Graph {
-    private Map<String, Map<String, Integer>> adjacencyMap;
+    private VertexDictionary dictionary;
+    private AdjacencyRow[] rows;
+    private int adjacencyEntries;
+    private CsrGraph snapshot;
+    private ShortestPathStrategy shortestPathStrategy = ShortestPathStrategy.AUTO;
+    private int deltaSteppingDelta;
+    private int landmarkCount;
+    private final ShortestPathCache cache = new ShortestPathCache();
+    private MstStrategy mstStrategy = MstStrategy.PRIM;
+    /** True once an edge was changed through the public API since the last load. */
+    private boolean changedSinceLoad;
+    /** The components of the current graph, or null after a change that may have joined or split them. */
+    private ComponentIndex components;
+    /** The spanning forest maintained under edge changes, or null until getMST needs it. */
+    private DynamicMst dynamicMst;
+    /** Shortest path trees of the sources registered with trackShortestPaths, repaired under edge changes. */
+    private final DynamicShortestPaths trackedPaths = new DynamicShortestPaths(new RowAdjacency());
     /**
      * Constructs an empty graph.
      */
     public GraphImpl() {
-        adjacencyMap = new HashMap<>();
+        reset();
     }
     /**
      * Loads a graph from a file.
@@ -26,32 +57,10 @@ public class GraphImpl implements Graph {
 
     @Override
     public void load(String pathToFile) throws Exception {
-        adjacencyMap.clear();
-        try (BufferedReader reader = new BufferedReader(new FileReader(pathToFile))) {
-            int vertexCount = Integer.parseInt(reader.readLine().trim());
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\s+");
-                if (parts.length != 3) {
-                    throw new Exception("Invalid input format");
-                }
-                String u = parts[0], v = parts[1];
-                int weight = Integer.parseInt(parts[2]);
-                if (weight < 0) {
-                    throw new Exception("Negative edge weight not allowed");
-                }
-                // Only add edge if it's not a self-loop with zero weight
-                if (!u.equals(v) || weight != 0) {
-                    addEdge(u, v, weight);
-                } else {
-                    // For a self-loop with zero weight, just add the vertex
-                    adjacencyMap.putIfAbsent(u, new HashMap<>());
-                }
-            }
-            if (adjacencyMap.size() != vertexCount) {
-                throw new Exception("Mismatch between declared vertex count and actual vertex count");
-            }
-        }
+        reset();
+        EdgeList edges = EdgeListLoader.load(Path.of(pathToFile));
+        // A self-loop with zero weight only adds its vertex
+        build(edges, true, EdgeListLoader.slicesFor(edges.size));
     }
     /**
      * Loads a graph from lists of edges and weights.
@@ -63,31 +72,441 @@ public class GraphImpl implements Graph {
 
     @Override
     public void load(List<String> edges, List<Integer> weights) throws Exception {
-        adjacencyMap.clear();
-        if (edges.size() != 2 * weights.size()) {
-            throw new Exception("Mismatch between edges and weights lists");
-        }
-        for (int i = 0; i < weights.size(); i++) {
-            String u = edges.get(2 * i);
-            String v = edges.get(2 * i + 1);
-            int weight = weights.get(i);
-            if (weight < 0) {
-                throw new Exception("Negative edge weight not allowed");
+        load(edges, weights, EdgeListLoader.slicesFor(weights.size()));
+    }
+
+    /**
+     * Loads the edges collected by a builder, giving the same graph as {@link #load(List, List)} with
+     * the same edges. The builder is empty afterwards.
+     *
+     * @param builder The builder holding the edges.
+     */
+    public void load(GraphBuilder builder) {
+        EdgeList edges = builder.take();
+        reset();
+        build(edges, false, EdgeListLoader.slicesFor(edges.size));
+    }
+
+    /**
+     * @param sliceCount The number of slices the edges are split into for parallel work.
+     */
+    void load(List<String> edges, List<Integer> weights, int sliceCount) throws Exception {
+        reset();
+        build(EdgeListLoader.load(edges, weights, sliceCount), false, sliceCount);
+    }
+
+    /**
+     * Builds the adjacency rows of a freshly reset graph from an edge list, with the result of adding
+     * the edges one by one in list order: a repeated edge, in either direction, keeps its first
+     * position in each row and takes its last weight.
+     *
+     * The work runs on the common pool without locks. Each slice of the edges counts the entries it
+     * adds to every row; prefix sums of those counts give each slice its own positions in one shared
+     * entry array, which the slices then fill in parallel. Each row is then built from its range of
+     * entries, which hold the edges in list order.
+     *
+     * @param dropZeroSelfLoops Whether a self-loop with zero weight only adds its vertex, as in a file.
+     */
+    private void build(EdgeList edges, boolean dropZeroSelfLoops, int sliceCount) {
+        dictionary = edges.dictionary;
+        components = ComponentIndex.of(edges, sliceCount);
+        int n = dictionary.size();
+        int m = edges.size;
+        int[] sources = edges.sources, targets = edges.targets, weights = edges.weights;
+        int slices = Math.max(1, Math.min(sliceCount, m));
+
+        // counts[s][v] becomes the first position of slice s in the range of v
+        int[][] counts = new int[slices][];
+        IntStream.range(0, slices).parallel().forEach(s -> {
+            int[] count = new int[n];
+            for (int e = sliceStart(m, slices, s), end = sliceStart(m, slices, s + 1); e < end; e++) {
+                int u = sources[e], v = targets[e];
+                if (u == v && dropZeroSelfLoops && weights[e] == 0) continue;
+                count[u]++;
+                if (u != v) count[v]++;
             }
-            addEdge(u, v, weight);
-        }
+            counts[s] = count;
+        });
+        int[] offsets = new int[n + 1];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int degree = 0;
+            for (int[] count : counts) {
+                degree += count[v];
+            }
+            offsets[v + 1] = degree;
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int position = offsets[v];
+            for (int[] count : counts) {
+                int degree = count[v];
+                count[v] = position;
+                position += degree;
+            }
+        });
+
+        int[] entryTargets = new int[offsets[n]];
+        int[] entryEdges = new int[offsets[n]];
+        IntStream.range(0, slices).parallel().forEach(s -> {
+            int[] next = counts[s];
+            for (int e = sliceStart(m, slices, s), end = sliceStart(m, slices, s + 1); e < end; e++) {
+                int u = sources[e], v = targets[e];
+                if (u == v && dropZeroSelfLoops && weights[e] == 0) continue;
+                int slot = next[u]++;
+                entryTargets[slot] = v;
+                entryEdges[slot] = e;
+                if (u != v) {
+                    slot = next[v]++;
+                    entryTargets[slot] = u;
+                    entryEdges[slot] = e;
+                }
+            }
+        });
+
+        AdjacencyRow[] built = new AdjacencyRow[Math.max(16, n)];
+        adjacencyEntries = IntStream.range(0, n).parallel().map(u -> {
+            AdjacencyRow row = built[u] = new AdjacencyRow(offsets[u + 1] - offsets[u]);
+            for (int slot = offsets[u]; slot < offsets[u + 1]; slot++) {
+                row.put(entryTargets[slot], weights[entryEdges[slot]]);
+            }
+            return row.size;
+        }).sum();
+        rows = built;
     }
+
+    private static int sliceStart(int m, int slices, int s) {
+        return (int) ((long) m * s / slices);
+    }
+
+    private void reset() {
+        dictionary = new VertexDictionary();
+        rows = new AdjacencyRow[16];
+        adjacencyEntries = 0;
+        snapshot = null;
+        components = null;
+        cache.clear();
+        changedSinceLoad = false;
+        dynamicMst = null;
+        trackedPaths.clear();
+    }
+
     /**
-     * Adds an edge to the graph.
+     * Adds an edge to the graph, replacing the weight if the edge already exists.
      *
      * @param u One endpoint of the edge.
      * @param v The other endpoint of the edge.
      * @param weight The weight of the edge.
+     * @return true if the edge was added, false if an existing edge was given the new weight.
+     * @throws IllegalArgumentException If the weight is negative.
      */
+    @Override
+    public boolean addEdge(String u, String v, int weight) {
+        checkWeight(weight);
+        int uid = dictionary.intern(u);
+        int vid = dictionary.intern(v);
+        int i = rowOf(uid).find(vid);
+        int oldWeight = i >= 0 ? rows[uid].weights[i] : -1;
+        addEdge(uid, vid, weight);
+        if (components != null && !(Math.max(uid, vid) < components.vertexCount() && components.connected(uid, vid))) {
+            // The edge adds a vertex or joins two components
+            components = null;
+        }
+        edgeChanged(uid, vid, oldWeight, weight);
+        return i < 0;
+    }
 
-    private void addEdge(String u, String v, int weight) {
-        adjacencyMap.computeIfAbsent(u, k -> new HashMap<>()).put(v, weight);
-        adjacencyMap.computeIfAbsent(v, k -> new HashMap<>()).put(u, weight);
+    /**
+     * Removes an edge from the graph. Its endpoints stay in the graph.
+     *
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @return true if the edge was removed, false if it did not exist.
+     */
+    @Override
+    public boolean removeEdge(String u, String v) {
+        int uid = dictionary.idOf(u);
+        int vid = dictionary.idOf(v);
+        int i = uid >= 0 && vid >= 0 ? rows[uid].find(vid) : -1;
+        if (i < 0) {
+            return false;
+        }
+        int oldWeight = rows[uid].weights[i];
+        rows[uid].remove(vid);
+        adjacencyEntries--;
+        if (uid != vid) {
+            rows[vid].remove(uid);
+            adjacencyEntries--;
+        }
+        snapshot = null;
+        // The edge may have been the only path between its endpoints
+        components = null;
+        edgeChanged(uid, vid, oldWeight, -1);
+        return true;
+    }
+
+    /**
+     * Changes the weight of an existing edge.
+     *
+     * @param u One endpoint of the edge.
+     * @param v The other endpoint of the edge.
+     * @param weight The new weight of the edge.
+     * @return true if the edge was given the new weight, false if it does not exist.
+     * @throws IllegalArgumentException If the weight is negative.
+     */
+    @Override
+    public boolean updateWeight(String u, String v, int weight) {
+        checkWeight(weight);
+        int uid = dictionary.idOf(u);
+        int vid = dictionary.idOf(v);
+        int i = uid >= 0 && vid >= 0 ? rows[uid].find(vid) : -1;
+        if (i < 0) {
+            return false;
+        }
+        int oldWeight = rows[uid].weights[i];
+        addEdge(uid, vid, weight);
+        edgeChanged(uid, vid, oldWeight, weight);
+        return true;
+    }
+
+    private static void checkWeight(int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative edge weight not allowed: " + weight);
+        }
+    }
+
+    /**
+     * Records a change made through the public API and passes it on to the dynamic spanning forest
+     * and the tracked shortest path trees.
+     *
+     * @param oldWeight The weight before the change, or -1 if the edge was added.
+     * @param weight The weight after the change, or -1 if the edge was removed.
+     */
+    private void edgeChanged(int u, int v, int oldWeight, int weight) {
+        changedSinceLoad = true;
+        if (weight == oldWeight) {
+            return;
+        }
+        if (oldWeight < 0 || (weight >= 0 && weight < oldWeight)) {
+            if (dynamicMst != null) {
+                dynamicMst.edgeAddedOrLowered(u, v, weight);
+            }
+            trackedPaths.edgeAddedOrLowered(u, v, weight);
+        } else {
+            if (dynamicMst != null) {
+                dynamicMst.edgeRemovedOrRaised(u, v);
+            }
+            trackedPaths.edgeRemovedOrRaised(u, v);
+        }
+    }
+
+    /**
+     * Keeps the shortest paths from a source up to date under edge changes, so that
+     * {@link #getShortestPaths(String)} for it reads them without searching the graph again.
+     * Each change repairs only the vertices whose distance it affects. Loading the graph stops
+     * tracking every source.
+     *
+     * @param s The source vertex.
+     * @throws IllegalArgumentException If s is not in the graph.
+     */
+    public void trackShortestPaths(String s) {
+        int source = dictionary.idOf(s);
+        if (source < 0) {
+            throw new IllegalArgumentException("Unknown vertex: " + s);
+        }
+        if (!trackedPaths.isTracked(source)) {
+            trackedPaths.track(source, dictionary.size());
+        }
+    }
+
+    /**
+     * Stops keeping the shortest paths from a source up to date.
+     *
+     * @param s The source vertex.
+     * @return true if s was tracked.
+     */
+    public boolean untrackShortestPaths(String s) {
+        int source = dictionary.idOf(s);
+        return source >= 0 && trackedPaths.untrack(source);
+    }
+
+    private void addEdge(int u, int v, int weight) {
+        if (rowOf(u).put(v, weight)) {
+            adjacencyEntries++;
+        }
+        if (rowOf(v).put(u, weight)) {
+            adjacencyEntries++;
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Returns the adjacency row of a vertex id, creating it if needed.
+     */
+    private AdjacencyRow rowOf(int id) {
+        if (id >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(rows.length * 2, id + 1));
+        }
+        AdjacencyRow row = rows[id];
+        if (row == null) {
+            row = rows[id] = new AdjacencyRow();
+        }
+        return row;
+    }
+
+    /**
+     * Creates a CSR snapshot of the current graph, using the same vertex ids.
+     * Later loads of this object do not affect the returned snapshot.
+     *
+     * @return A compact, read-only copy of this graph.
+     */
+    public CsrGraph freeze() {
+        int n = dictionary.size();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + rows[u].size;
+        }
+        int[] targets = new int[adjacencyEntries];
+        int[] weights = new int[adjacencyEntries];
+        for (int u = 0; u < n; u++) {
+            AdjacencyRow row = rows[u];
+            System.arraycopy(row.targets, 0, targets, offsets[u], row.size);
+            System.arraycopy(row.weights, 0, weights, offsets[u], row.size);
+        }
+        CsrGraph.sortNeighbors(offsets, targets, weights);
+        CsrGraph frozen = new CsrGraph(dictionary.copy(), offsets, targets, weights);
+        // The snapshot keeps the vertex ids, so the components still apply
+        frozen.setComponents(components);
+        return frozen;
+    }
+
+    /**
+     * Creates a mutable copy of a snapshot, with the same vertex ids.
+     *
+     * @param graph The snapshot to copy.
+     * @return A graph holding the vertices and edges of the snapshot.
+     */
+    static GraphImpl copyOf(CsrGraph graph) {
+        GraphImpl copy = new GraphImpl();
+        CsrGraph pinned = graph.pinned();
+        VertexIndex vertices = pinned.vertices();
+        CsrStore store = pinned.store();
+        int n = vertices.size();
+        for (int u = 0; u < n; u++) {
+            copy.dictionary.intern(vertices.nameOf(u));
+            copy.rowOf(u);
+        }
+        for (int u = 0; u < n; u++) {
+            int end = store.offset(u + 1);
+            for (int slot = store.offset(u); slot < end; slot++) {
+                // Each edge is stored in both directions; copy it from the row of its smaller end
+                if (store.target(slot) >= u) {
+                    copy.addEdge(u, store.target(slot), store.weight(slot));
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Writes the graph in the binary format read by {@link CsrGraph#open(Path)}.
+     *
+     * @param path The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        snapshot().save(path);
+    }
+
+    /**
+     * Preprocesses the current graph for fast point-to-point queries. The hierarchy does not follow
+     * later changes to this graph.
+     *
+     * @return The contraction hierarchy of the current snapshot.
+     */
+    public ContractionHierarchy buildContractionHierarchy() {
+        return ContractionHierarchy.build(snapshot());
+    }
+
+    /**
+     * Returns the snapshot the algorithms run on, freezing the graph if it changed since the last call.
+     */
+    private CsrGraph snapshot() {
+        if (snapshot == null) {
+            snapshot = freeze();
+            // Cached results belong to the previous snapshot
+            cache.clear();
+            snapshot.setShortestPathCache(cache);
+            snapshot.setShortestPathStrategy(shortestPathStrategy);
+            snapshot.setDeltaSteppingDelta(deltaSteppingDelta);
+            snapshot.setMstStrategy(mstStrategy);
+            snapshot.setLandmarkCount(landmarkCount);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the cache of shortest path results shared by the snapshots of this graph.
+     * It is cleared whenever the graph is loaded or changed.
+     *
+     * @return The shortest path cache.
+     */
+    public ShortestPathCache getShortestPathCache() {
+        return cache;
+    }
+
+    /**
+     * Selects the shortest path algorithm, see {@link CsrGraph#setShortestPathStrategy(ShortestPathStrategy)}.
+     *
+     * @param strategy The strategy to use for later queries.
+     */
+    public void setShortestPathStrategy(ShortestPathStrategy strategy) {
+        this.shortestPathStrategy = Objects.requireNonNull(strategy);
+        if (snapshot != null) {
+            snapshot.setShortestPathStrategy(strategy);
+        }
+    }
+
+    /**
+     * Selects the minimum spanning tree algorithm, see {@link CsrGraph#setMstStrategy(MstStrategy)}.
+     *
+     * @param strategy The strategy to use for later calls.
+     */
+    public void setMstStrategy(MstStrategy strategy) {
+        this.mstStrategy = Objects.requireNonNull(strategy);
+        if (snapshot != null) {
+            snapshot.setMstStrategy(strategy);
+        }
+    }
+
+    /**
+     * Sets the number of landmarks for point-to-point queries, see {@link CsrGraph#setLandmarkCount(int)}.
+     * The landmarks are chosen again after every change to the graph.
+     *
+     * @param count The number of landmarks, or 0 for plain bidirectional Dijkstra.
+     */
+    public void setLandmarkCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + count);
+        }
+        this.landmarkCount = count;
+        if (snapshot != null) {
+            snapshot.setLandmarkCount(count);
+        }
+    }
+
+    /**
+     * Sets the delta-stepping bucket width, see {@link CsrGraph#setDeltaSteppingDelta(int)}.
+     *
+     * @param delta The bucket width, or 0 to derive it from the graph.
+     */
+    public void setDeltaSteppingDelta(int delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative: " + delta);
+        }
+        this.deltaSteppingDelta = delta;
+        if (snapshot != null) {
+            snapshot.setDeltaSteppingDelta(delta);
+        }
     }
     /**
      * Returns the number of vertices in the graph.
@@ -96,7 +515,7 @@ public class GraphImpl implements Graph {
      */
     @Override
     public int getVertexCount() {
-        return adjacencyMap.size();
+        return dictionary.size();
     }
     /**
      * Checks if a vertex exists in the graph.
@@ -106,7 +525,7 @@ public class GraphImpl implements Graph {
      */
     @Override
     public boolean hasVertex(String v) {
-        return adjacencyMap.containsKey(v);
+        return dictionary.idOf(v) >= 0;
     }
     /**
      * Returns an iterable of all vertices in the graph.
@@ -115,7 +534,7 @@ public class GraphImpl implements Graph {
      */
     @Override
     public Iterable<String> getVertices() {
-        return adjacencyMap.keySet();
+        return dictionary.names();
     }
     /**
      * Returns the number of edges in the graph.
@@ -124,11 +543,7 @@ public class GraphImpl implements Graph {
      */
     @Override
     public int getEdgeCount() {
-        int count = 0;
-        for (Map<String, Integer> edges : adjacencyMap.values()) {
-            count += edges.size();
-        }
-        return count / 2; // Each edge is counted twice
+        return adjacencyEntries / 2; // Each edge is counted twice
     }
     /**
      * Checks if an edge exists between two vertices.
@@ -139,10 +554,12 @@ public class GraphImpl implements Graph {
      */
     @Override
     public boolean hasEdge(String u, String v) {
-        return adjacencyMap.containsKey(u) && adjacencyMap.get(u).containsKey(v);
+        int uid = dictionary.idOf(u);
+        int vid = dictionary.idOf(v);
+        return uid >= 0 && vid >= 0 && rows[uid].find(vid) >= 0;
     }
-    
-    
+
+
     /**
      * Returns the weight of an edge.
      *
@@ -152,109 +569,214 @@ public class GraphImpl implements Graph {
      */
     @Override
     public int getWeight(String u, String v) {
-        if (hasEdge(u, v)) {
-            return adjacencyMap.get(u).get(v);
+        int uid = dictionary.idOf(u);
+        int vid = dictionary.idOf(v);
+        if (uid < 0 || vid < 0) {
+            return -1;
         }
-        return -1;
+        AdjacencyRow row = rows[uid];
+        int i = row.find(vid);
+        return i >= 0 ? row.weights[i] : -1;
     }
-    
-    
+
+
     /**
      * Returns an iterable of vertices adjacent to a given vertex.
      *
      * @param u The vertex whose adjacent vertices are to be returned.
-     * @return An iterable of adjacent vertices.
+     * @return An iterable of adjacent vertices, in the order their edges were added, until an edge is removed.
      */
     @Override
     public Iterable<String> getAdjacent(String u) {
-        if (!adjacencyMap.containsKey(u)) {
+        int uid = dictionary.idOf(u);
+        if (uid < 0) {
             return Collections.emptyList();
         }
-        return adjacencyMap.get(u).keySet();
+        AdjacencyRow row = rows[uid];
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                Objects.checkIndex(index, row.size);
+                return dictionary.nameOf(row.targets[index]);
+            }
+
+            @Override
+            public int size() {
+                return row.size;
+            }
+        };
     }
-    
+
     /**
-     * Computes a Minimum Spanning Tree (MST) of the graph using Prim's algorithm.
+     * Computes a Minimum Spanning Tree (MST) of the graph, by default using Prim's algorithm.
+     * Once an edge was changed since the last load, the tree is read from the {@link DynamicMst}
+     * kept up to date by the changes instead, listed breadth-first from each tree's first vertex.
+     * With {@link MstStrategy#PRIM} that is still only the tree of the first vertex.
      *
      * @return A list of strings representing the edges in the MST.
      */
     @Override
     public List<String> getMST() {
+        if (!changedSinceLoad) {
+            return snapshot().getMST();
+        }
         List<String> result = new ArrayList<>();
-        if (adjacencyMap.isEmpty()) {
-            return result;  // Return empty list for empty graph
+        int n = dictionary.size();
+        if (n <= 1) {
+            return result;
         }
-        
-        if (adjacencyMap.size() == 1) {
-            result.add(adjacencyMap.keySet().iterator().next());
-            return result;  // Return the single vertex for single-vertex graphs
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        if (dynamicMst == null) {
+            // The forest must span every component, so start it from Kruskal whatever the strategy
+            int[] forest = new KruskalMstEngine().spanningEdges(snapshot().store());
+            dynamicMst = new DynamicMst(new RowAdjacency(), n, forest);
         }
-        
-        Set<String> visited = new HashSet<>();
-        PriorityQueue<Edge> pq = new PriorityQueue<>();
-
-        String start = adjacencyMap.keySet().iterator().next();
-        visited.add(start);
-
-        for (Map.Entry<String, Integer> entry : adjacencyMap.get(start).entrySet()) {
-            pq.offer(new Edge(start, entry.getKey(), entry.getValue()));
+        for (int id : dynamicMst.edges(n, mstStrategy == MstStrategy.PRIM)) {
+            result.add(dictionary.nameOf(id));
         }
-
-        while (!pq.isEmpty() && visited.size() < adjacencyMap.size()) {
-            Edge edge = pq.poll();
-            if (visited.contains(edge.to)) continue;
-
-            visited.add(edge.to);
-            result.add(edge.from);
-            result.add(edge.to);
-
-            for (Map.Entry<String, Integer> entry : adjacencyMap.get(edge.to).entrySet()) {
-                if (!visited.contains(entry.getKey())) {
-                    pq.offer(new Edge(edge.to, entry.getKey(), entry.getValue()));
-                }
-            }
+        if (recorder != null) {
+            recorder.searched("DYNAMIC", null);
+            recorder.finish(GraphMetrics.Operation.MST);
         }
-
         return result;
     }
-    
+
     /**
      * Computes the shortest paths from a source vertex to all other vertices using Dijkstra's algorithm.
+     * The distances from a tracked source are read from its repaired tree instead.
      *
      * @param s The source vertex.
-     * @return A map of vertices to their shortest distance from the source.
+     * @return The shortest path tree of the source, which maps every vertex to its distance, -1 if unreachable.
      */
+    @Override
+    public ShortestPathTree getShortestPaths(String s) {
+        int source = dictionary.idOf(s);
+        if (source < 0 || !trackedPaths.isTracked(source)) {
+            return snapshot().getShortestPaths(s);
+        }
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        // The tracked arrays change with the graph; the result keeps the paths of this moment, and
+        // the names of its vertices through a view, since the dictionary only grows
+        int n = dictionary.size();
+        int[] dist = Arrays.copyOf(trackedPaths.distances(source, n), n);
+        int[] parent = Arrays.copyOf(trackedPaths.parents(source, n), n);
+        ShortestPathTree tree = new ShortestPathTree(dictionary.prefix(), source, dist, parent);
+        if (recorder != null) {
+            recorder.searched("TRACKED", null);
+            recorder.finish(GraphMetrics.Operation.SHORTEST_PATHS);
+        }
+        return tree;
+    }
 
+    /**
+     * Returns the connected component of a vertex, see {@link CsrGraph#componentOf(String)}.
+     *
+     * @param v A vertex.
+     * @return The component of v, or -1 if v is not in the graph.
+     */
     @Override
-    public Map<String, Integer> getShortestPaths(String s) {
-        Map<String, Integer> distances = new HashMap<>();
-        PriorityQueue<Node> pq = new PriorityQueue<>();
+    public int componentOf(String v) {
+        int id = dictionary.idOf(v);
+        return id >= 0 ? components().componentOf(id) : -1;
+    }
 
-        for (String v : adjacencyMap.keySet()) {
-            distances.put(v, v.equals(s) ? 0 : Integer.MAX_VALUE);
-        }
+    @Override
+    public boolean sameComponent(String u, String v) {
+        int uid = dictionary.idOf(u);
+        int vid = dictionary.idOf(v);
+        return uid >= 0 && vid >= 0 && components().connected(uid, vid);
+    }
 
-        pq.offer(new Node(s, 0));
+    @Override
+    public int getComponentSize(String v) {
+        int id = dictionary.idOf(v);
+        if (id < 0) {
+            return 0;
+        }
+        ComponentIndex index = components();
+        return index.size(index.componentOf(id));
+    }
 
-        while (!pq.isEmpty()) {
-            Node node = pq.poll();
-            String u = node.vertex;
+    @Override
+    public int getComponentCount() {
+        return components().count();
+    }
 
-            if (node.distance > distances.get(u)) continue;
+    /**
+     * Returns the components of the current graph, finding them on the snapshot after a change that may
+     * have joined or split them.
+     */
+    private ComponentIndex components() {
+        if (components == null) {
+            components = snapshot().components();
+        }
+        return components;
+    }
 
-            for (Map.Entry<String, Integer> entry : adjacencyMap.get(u).entrySet()) {
-                String v = entry.getKey();
-                int weight = entry.getValue();
-                int newDist = distances.get(u) + weight;
+    /**
+     * Finds the distance between two vertices, see {@link CsrGraph#getDistance(String, String)}.
+     * If s is tracked, the distance is read from its repaired tree without a search.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The length of the shortest s->t path, or -1 if no such path exists.
+     */
+    @Override
+    public int getDistance(String s, String t) {
+        int source = dictionary.idOf(s);
+        int target = dictionary.idOf(t);
+        if (source < 0 || target < 0 || !trackedPaths.isTracked(source)) {
+            return snapshot().getDistance(s, t);
+        }
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        int dist = trackedPaths.distances(source, dictionary.size())[target];
+        if (recorder != null) {
+            recorder.searched("TRACKED", null);
+            recorder.finish(GraphMetrics.Operation.DISTANCE);
+        }
+        return dist == Integer.MAX_VALUE ? -1 : dist;
+    }
 
-                if (newDist < distances.getOrDefault(v, Integer.MAX_VALUE)) {
-                    distances.put(v, newDist);
-                    pq.offer(new Node(v, newDist));
-                }
+    /**
+     * Finds a shortest path between two vertices, see {@link CsrGraph#getPath(String, String)}.
+     * If s is tracked, the path is read from its repaired tree without a search.
+     *
+     * @param s The source vertex.
+     * @param t The target vertex.
+     * @return The vertices of the path from s to t, or an empty list if no such path exists.
+     */
+    @Override
+    public List<String> getPath(String s, String t) {
+        int source = dictionary.idOf(s);
+        int target = dictionary.idOf(t);
+        if (source < 0 || target < 0 || !trackedPaths.isTracked(source)) {
+            return snapshot().getPath(s, t);
+        }
+        GraphMetrics.Recorder recorder = GraphMetrics.recorder();
+        List<String> path = new ArrayList<>();
+        if (trackedPaths.distances(source, dictionary.size())[target] != Integer.MAX_VALUE) {
+            for (int v = target; v >= 0; v = trackedPaths.parent(source, v)) {
+                path.add(dictionary.nameOf(v));
             }
+            Collections.reverse(path);
         }
+        if (recorder != null) {
+            recorder.searched("TRACKED", null);
+            recorder.finish(GraphMetrics.Operation.PATH);
+        }
+        return path;
+    }
 
-        return distances;
+    /**
+     * Computes the shortest paths from several sources concurrently, see
+     * {@link CsrGraph#getShortestPaths(Collection)}.
+     *
+     * @param sources The source vertices.
+     * @return One row of distances per source, in the order of the collection.
+     */
+    @Override
+    public DistanceMatrix getShortestPaths(Collection<String> sources) {
+        return snapshot().getShortestPaths(sources);
     }
 
     /**
@@ -267,87 +789,182 @@ public class GraphImpl implements Graph {
      */
     @Override
     public Set<String> getReport(String s, List<String> subgraph) {
-        if (!hasVertex(s)) {
-            return null;
+        return snapshot().getReport(s, subgraph);
+    }
+
+    /**
+     * Computes the reports of several subgraphs concurrently, see {@link CsrGraph#getReports(String, List)}.
+     *
+     * @param s The source vertex.
+     * @param subgraphs The subgraphs, each in the form taken by getReport.
+     * @return One report per subgraph, in the order of the list.
+     */
+    @Override
+    public List<Set<String>> getReports(String s, List<List<String>> subgraphs) {
+        return snapshot().getReports(s, subgraphs);
+    }
+
+
+    /**
+     * The adjacency rows, seen by the structures that are kept up to date under edge changes.
+     */
+    private final class RowAdjacency implements Adjacency {
+        @Override
+        public int degree(int u) {
+            AdjacencyRow row = rows[u];
+            return row == null ? 0 : row.size;
+        }
+
+        @Override
+        public int target(int u, int i) {
+            return rows[u].targets[i];
         }
-        
-        if (subgraph == null || subgraph.isEmpty()) {
-            return Collections.singleton(s);
+
+        @Override
+        public int weight(int u, int i) {
+            return rows[u].weights[i];
+        }
+
+        @Override
+        public int indexOf(int u, int v) {
+            return rows[u].find(v);
         }
+    }
+
+    /**
+     * The neighbors of one vertex as parallel int arrays, in insertion order. Removing a neighbor
+     * moves the last one into its place.
+     * Small rows are searched linearly; larger rows get an open-addressing index over their targets.
+     */
+    private static final class AdjacencyRow {
+        private static final int[] NONE = new int[0];
+        private static final int INDEX_THRESHOLD = 16;
 
-        Map<String, Integer> shortestPaths = getShortestPaths(s);
-        Map<String, Integer> subgraphDistances = new HashMap<>();
-        Map<String, Set<String>> subgraphAdjList = new HashMap<>();
+        int[] targets = NONE;
+        int[] weights = NONE;
+        int size;
+        private int[] index;
 
-        // Build subgraph adjacency list
-        for (int i = 0; i < subgraph.size(); i += 2) {
-            String u = subgraph.get(i);
-            String v = subgraph.get(i + 1);
-            subgraphAdjList.computeIfAbsent(u, k -> new HashSet<>()).add(v);
-            subgraphAdjList.computeIfAbsent(v, k -> new HashSet<>()).add(u);
+        AdjacencyRow() {
         }
 
-        // BFS to calculate distances in subgraph
-        Queue<String> queue = new LinkedList<>();
-        queue.offer(s);
-        subgraphDistances.put(s, 0);
+        /**
+         * @param capacity The number of neighbors to make room for.
+         */
+        AdjacencyRow(int capacity) {
+            if (capacity > 0) {
+                targets = new int[capacity];
+                weights = new int[capacity];
+            }
+        }
 
-        while (!queue.isEmpty()) {
-            String u = queue.poll();
-            for (String v : subgraphAdjList.getOrDefault(u, Collections.emptySet())) {
-                if (!subgraphDistances.containsKey(v)) {
-                    subgraphDistances.put(v, subgraphDistances.get(u) + getWeight(u, v));
-                    queue.offer(v);
+        /**
+         * @return The position of v in this row, or -1 if v is not a neighbor.
+         */
+        int find(int v) {
+            if (index == null) {
+                for (int i = 0; i < size; i++) {
+                    if (targets[i] == v) return i;
                 }
+                return -1;
             }
+            int mask = index.length - 1;
+            for (int slot = hash(v) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                int i = index[slot] - 1;
+                if (targets[i] == v) return i;
+            }
+            return -1;
         }
 
-        // Compare subgraph distances with shortest paths
-        Set<String> result = new HashSet<>();
-        for (String v : subgraphDistances.keySet()) {
-            if (subgraphDistances.get(v).equals(shortestPaths.get(v))) {
-                result.add(v);
+        /**
+         * Adds neighbor v or replaces its weight.
+         *
+         * @return true if v was not a neighbor before.
+         */
+        boolean put(int v, int weight) {
+            int i = find(v);
+            if (i >= 0) {
+                weights[i] = weight;
+                return false;
+            }
+            if (size == targets.length) {
+                int capacity = Math.max(4, size * 2);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
             }
+            targets[size] = v;
+            weights[size] = weight;
+            size++;
+            if (index != null && size * 2 <= index.length) {
+                insertIndex(index, size - 1);
+            } else if (size > INDEX_THRESHOLD) {
+                index = new int[Integer.highestOneBit(size * 4 - 1) << 1];
+                for (int k = 0; k < size; k++) {
+                    insertIndex(index, k);
+                }
+            }
+            return true;
         }
 
-        return result;
-    }
-
-    
-    /**
-     * Represents an edge in the graph.
-     */
-    private static class Edge implements Comparable<Edge> {
-        String from, to;
-        int weight;
-
-        Edge(String from, String to, int weight) {
-            this.from = from;
-            this.to = to;
-            this.weight = weight;
+        /**
+         * Removes neighbor v.
+         *
+         * @return true if v was a neighbor.
+         */
+        boolean remove(int v) {
+            int i = find(v);
+            if (i < 0) {
+                return false;
+            }
+            int last = --size;
+            if (index != null) {
+                unindex(i);
+                if (i != last) {
+                    // The last entry moves to position i
+                    int mask = index.length - 1;
+                    int slot = hash(targets[last]) & mask;
+                    while (index[slot] != last + 1) {
+                        slot = (slot + 1) & mask;
+                    }
+                    index[slot] = i + 1;
+                }
+            }
+            targets[i] = targets[last];
+            weights[i] = weights[last];
+            return true;
         }
 
-        @Override
-        public int compareTo(Edge other) {
-            return Integer.compare(this.weight, other.weight);
+        /**
+         * Deletes the index slot of a position, shifting later slots of its probe run back into the hole.
+         */
+        private void unindex(int position) {
+            int mask = index.length - 1;
+            int hole = hash(targets[position]) & mask;
+            while (index[hole] != position + 1) {
+                hole = (hole + 1) & mask;
+            }
+            for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+                int home = hash(targets[index[next] - 1]) & mask;
+                // The entry may move back only if the hole is between its home slot and its slot
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    index[hole] = index[next];
+                    hole = next;
+                }
+            }
+            index[hole] = 0;
         }
-    }
-    
-    /**
-     * Represents a node in the priority queue for Dijkstra's algorithm.
-     */
-    private static class Node implements Comparable<Node> {
-        String vertex;
-        int distance;
 
-        Node(String vertex, int distance) {
-            this.vertex = vertex;
-            this.distance = distance;
+        private void insertIndex(int[] table, int position) {
+            int mask = table.length - 1;
+            int slot = hash(targets[position]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = position + 1;
         }
 
-        @Override
-        public int compareTo(Node other) {
-            return Integer.compare(this.distance, other.distance);
+        private static int hash(int v) {
+            return VertexDictionary.spread(v);
         }
     }
 }
@@ -0,0 +1,304 @@
+package abhay.graphnexus;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Per-call work counters for {@code getShortestPaths(String)}, {@code getDistance(String, String)},
+ * {@code getPath(String, String)} and {@code getMST()}: queue pushes and pops, stale entries skipped,
+ * decrease-keys, edge relaxations, vertices settled, bytes allocated by the calling thread and wall time.
+ *
+ * Calls are measured while metrics are enabled with {@link #setEnabled(boolean)}, and also while a
+ * Flight Recorder recording is running, which receives them as {@code abhay.graphnexus.GraphCall}
+ * events. Otherwise a call pays one volatile read: the engines always count in local variables and
+ * store the totals once per call, and nothing else happens unless a call is measured.
+ *
+ * <pre>
+ * GraphMetrics.setEnabled(true);
+ * graph.getShortestPaths("a");
+ * GraphMetrics.Call call = GraphMetrics.lastCall();
+ * </pre>
+ * or, without code changes, {@code java -XX:StartFlightRecording:filename=graph.jfr ...} and
+ * {@code jfr print --events abhay.graphnexus.GraphCall graph.jfr}.
+ */
+public final class GraphMetrics {
+    private static final List<Consumer<Call>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Call> LAST_CALL = new ThreadLocal<>();
+
+    private static volatile boolean enabled;
+    private static volatile int runningRecordings;
+    /** enabled || runningRecordings > 0, the one field a call reads. */
+    private static volatile boolean active;
+
+    static {
+        if (FlightRecorder.isAvailable()) {
+            FlightRecorder.addListener(new RecordingTracker());
+        }
+    }
+
+    private GraphMetrics() {
+    }
+
+    /**
+     * The public operation a call measured.
+     */
+    public enum Operation {
+        SHORTEST_PATHS,
+        DISTANCE,
+        PATH,
+        MST
+    }
+
+    /**
+     * Switches the recording of {@link #lastCall()} and the listeners on or off for every thread.
+     * Flight Recorder events are recorded while a recording runs, whatever this setting.
+     */
+    public static void setEnabled(boolean enabled) {
+        synchronized (GraphMetrics.class) {
+            GraphMetrics.enabled = enabled;
+            updateActive();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The last call measured on this thread while metrics were enabled, or null if there was none.
+     */
+    public static Call lastCall() {
+        return LAST_CALL.get();
+    }
+
+    /**
+     * Adds a listener that receives every call measured while metrics are enabled, on the thread
+     * that made the call, after the call has finished.
+     */
+    public static void addListener(Consumer<Call> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<Call> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Starts measuring a call.
+     *
+     * @return A recorder for the call, or null if nothing is listening.
+     */
+    static Recorder recorder() {
+        return active ? new Recorder() : null;
+    }
+
+    private static void updateActive() {
+        active = enabled || runningRecordings > 0;
+    }
+
+    /**
+     * The work done by one call.
+     */
+    public static final class Call {
+        private final Operation operation;
+        private final String algorithm;
+        private final long pushes;
+        private final long pops;
+        private final long staleSkips;
+        private final long decreaseKeys;
+        private final long relaxations;
+        private final long settled;
+        private final long allocatedBytes;
+        private final long wallNanos;
+
+        Call(Operation operation, String algorithm, SearchCounters counters, long allocatedBytes, long wallNanos) {
+            this.operation = operation;
+            this.algorithm = algorithm;
+            this.pushes = counters.pushes;
+            this.pops = counters.pops;
+            this.staleSkips = counters.staleSkips;
+            this.decreaseKeys = counters.decreaseKeys;
+            this.relaxations = counters.relaxations;
+            this.settled = counters.settled;
+            this.allocatedBytes = allocatedBytes;
+            this.wallNanos = wallNanos;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return The strategy that ran, such as DIJKSTRA, KRUSKAL, or BIDIRECTIONAL and ALT for the
+         *          point-to-point searches without and with landmarks, or how the call was answered
+         *          without a search: CACHE for a cached shortest path result, TRACKED for a tracked
+         *          source, COMPONENTS for two vertices in different components and DYNAMIC for a
+         *          spanning forest maintained across updates.
+         */
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return Entries added to the priority queue, buckets or sorted edge array.
+         */
+        public long getPushes() {
+            return pushes;
+        }
+
+        /**
+         * @return Entries taken from the queue, including stale ones.
+         */
+        public long getPops() {
+            return pops;
+        }
+
+        /**
+         * @return Entries taken from the queue and dropped because their vertex was already settled or
+         *          their edge already inside one tree. Zero for the decrease-key queues of Dijkstra and Dial.
+         */
+        public long getStaleSkips() {
+            return staleSkips;
+        }
+
+        /**
+         * @return Queued entries whose distance was lowered in place.
+         */
+        public long getDecreaseKeys() {
+            return decreaseKeys;
+        }
+
+        /**
+         * @return Adjacency entries examined.
+         */
+        public long getRelaxations() {
+            return relaxations;
+        }
+
+        /**
+         * @return Vertices whose distance became final, or edges accepted into the spanning forest.
+         */
+        public long getSettled() {
+            return settled;
+        }
+
+        /**
+         * @return Bytes allocated by the calling thread during the call, or -1 if the JVM does not measure it.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " " + algorithm + ": pushes=" + pushes + " pops=" + pops + " staleSkips=" + staleSkips
+                    + " decreaseKeys=" + decreaseKeys + " relaxations=" + relaxations + " settled=" + settled
+                    + " allocatedBytes=" + allocatedBytes + " wallNanos=" + wallNanos;
+        }
+    }
+
+    /**
+     * Measures one call on the calling thread.
+     */
+    static final class Recorder {
+        private static final SearchCounters NONE = new SearchCounters();
+
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = Allocation.currentThread();
+        private final GraphCallEvent event = new GraphCallEvent();
+        private String algorithm = "CACHE";
+        private SearchCounters counters = NONE;
+
+        private Recorder() {
+            event.begin();
+        }
+
+        /**
+         * Records what answered the call, and the work it did if it was a search.
+         *
+         * @param counters The engine's counters, or null for an answer that needed no search.
+         */
+        void searched(String algorithm, SearchCounters counters) {
+            this.algorithm = algorithm;
+            this.counters = counters != null ? counters : NONE;
+        }
+
+        void finish(Operation operation) {
+            long wallNanos = System.nanoTime() - startNanos;
+            long bytes = Allocation.currentThread();
+            Call call = new Call(operation, algorithm, counters, bytes < 0 ? -1 : bytes - startBytes, wallNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(call);
+                event.commit();
+            }
+            if (enabled) {
+                LAST_CALL.set(call);
+                for (Consumer<Call> listener : LISTENERS) {
+                    listener.accept(call);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread; loaded only once a call is measured.
+     */
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        private static com.sun.management.ThreadMXBean threads() {
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+                ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+                return (com.sun.management.ThreadMXBean) threads;
+            }
+            return null;
+        }
+
+        static long currentThread() {
+            return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+        }
+    }
+
+    /**
+     * Keeps count of the running Flight Recorder recordings, so that calls are measured while any runs.
+     */
+    private static final class RecordingTracker implements FlightRecorderListener {
+        @Override
+        public void recorderInitialized(FlightRecorder recorder) {
+            // Recordings may have started before this class was loaded, e.g. by -XX:StartFlightRecording
+            recount(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(Recording recording) {
+            recount(FlightRecorder.getFlightRecorder());
+        }
+
+        private void recount(FlightRecorder recorder) {
+            int running = 0;
+            for (Recording recording : recorder.getRecordings()) {
+                if (recording.getState() == RecordingState.RUNNING) {
+                    running++;
+                }
+            }
+            synchronized (GraphMetrics.class) {
+                runningRecordings = running;
+                updateActive();
+            }
+        }
+    }
+}
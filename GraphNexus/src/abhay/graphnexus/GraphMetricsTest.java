@@ -0,0 +1,188 @@
+package abhay.graphnexus;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class GraphMetricsTest {
+    // a - b - c is shorter than a - c, so reaching c takes a decrease-key
+    private static final List<String> EDGES = List.of("a", "b", "b", "c", "a", "c", "x", "y");
+    private static final List<Integer> WEIGHTS = List.of(1, 1, 5, 3);
+
+    @AfterEach
+    public void disable() {
+        GraphMetrics.setEnabled(false);
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(EDGES, WEIGHTS);
+        List<GraphMetrics.Call> calls = new ArrayList<>();
+        Consumer<GraphMetrics.Call> listener = calls::add;
+        GraphMetrics.addListener(listener);
+        try {
+            GraphMetrics.setEnabled(false);
+            graph.getShortestPaths("a");
+            graph.getMST();
+            Assertions.assertTrue(calls.isEmpty());
+        } finally {
+            GraphMetrics.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testShortestPathCounters() throws Exception {
+        for (ShortestPathStrategy strategy : new ShortestPathStrategy[]{ShortestPathStrategy.DIJKSTRA, ShortestPathStrategy.DIAL}) {
+            CsrGraph graph = new CsrGraph();
+            graph.load(EDGES, WEIGHTS);
+            graph.setShortestPathStrategy(strategy);
+            GraphMetrics.setEnabled(true);
+            graph.getShortestPaths("a");
+            GraphMetrics.Call call = GraphMetrics.lastCall();
+            Assertions.assertEquals(GraphMetrics.Operation.SHORTEST_PATHS, call.getOperation());
+            Assertions.assertEquals(strategy.name(), call.getAlgorithm());
+            Assertions.assertEquals(3, call.getPushes());
+            Assertions.assertEquals(3, call.getPops());
+            Assertions.assertEquals(0, call.getStaleSkips());
+            Assertions.assertEquals(1, call.getDecreaseKeys());
+            Assertions.assertEquals(6, call.getRelaxations());
+            Assertions.assertEquals(3, call.getSettled());
+            Assertions.assertTrue(call.getWallNanos() > 0);
+            Assertions.assertTrue(call.getAllocatedBytes() >= 0);
+
+            // The second call is answered from the cache without a search
+            graph.getShortestPaths("a");
+            call = GraphMetrics.lastCall();
+            Assertions.assertEquals("CACHE", call.getAlgorithm());
+            Assertions.assertEquals(0, call.getRelaxations());
+        }
+
+        CsrGraph graph = new CsrGraph();
+        graph.load(EDGES, WEIGHTS);
+        graph.setShortestPathStrategy(ShortestPathStrategy.DELTA_STEPPING);
+        graph.getShortestPaths("a");
+        Assertions.assertEquals("DELTA_STEPPING", GraphMetrics.lastCall().getAlgorithm());
+        Assertions.assertEquals(3, GraphMetrics.lastCall().getSettled());
+    }
+
+    @Test
+    public void testMstCounters() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(EDGES, WEIGHTS);
+        GraphMetrics.setEnabled(true);
+
+        graph.setMstStrategy(MstStrategy.PRIM);
+        graph.getMST();
+        GraphMetrics.Call call = GraphMetrics.lastCall();
+        Assertions.assertEquals(GraphMetrics.Operation.MST, call.getOperation());
+        Assertions.assertEquals("PRIM", call.getAlgorithm());
+        Assertions.assertEquals(3, call.getPushes());
+        Assertions.assertEquals(3, call.getPops());
+        // a - c is still queued when c joins the tree through b
+        Assertions.assertEquals(1, call.getStaleSkips());
+        Assertions.assertEquals(6, call.getRelaxations());
+        Assertions.assertEquals(2, call.getSettled());
+
+        graph.setMstStrategy(MstStrategy.KRUSKAL);
+        graph.getMST();
+        call = GraphMetrics.lastCall();
+        Assertions.assertEquals("KRUSKAL", call.getAlgorithm());
+        Assertions.assertEquals(4, call.getPushes());
+        Assertions.assertEquals(4, call.getPops());
+        Assertions.assertEquals(1, call.getStaleSkips());
+        Assertions.assertEquals(8, call.getRelaxations());
+        Assertions.assertEquals(3, call.getSettled());
+    }
+
+    @Test
+    public void testPointToPointCounters() throws Exception {
+        CsrGraph graph = PointToPointTest.grid(new Random(16), 100, 100);
+        graph.setShortestPathStrategy(ShortestPathStrategy.DIJKSTRA);
+        GraphMetrics.setEnabled(true);
+        graph.getShortestPaths("0");
+        long full = GraphMetrics.lastCall().getSettled();
+
+        graph.getDistance("0", "5050");
+        GraphMetrics.Call call = GraphMetrics.lastCall();
+        Assertions.assertEquals(GraphMetrics.Operation.DISTANCE, call.getOperation());
+        Assertions.assertEquals("BIDIRECTIONAL", call.getAlgorithm());
+        long plain = call.getSettled();
+        Assertions.assertTrue(plain > 0 && plain < full, plain + " settled, " + full + " by a full search");
+        Assertions.assertEquals(plain, call.getPops());
+        Assertions.assertTrue(call.getRelaxations() >= plain);
+
+        graph.setLandmarkCount(8);
+        graph.getPath("0", "5050");
+        call = GraphMetrics.lastCall();
+        Assertions.assertEquals(GraphMetrics.Operation.PATH, call.getOperation());
+        Assertions.assertEquals("ALT", call.getAlgorithm());
+        Assertions.assertTrue(call.getSettled() < plain, call.getSettled() + " settled with landmarks, " + plain + " without");
+
+        graph.load(EDGES, WEIGHTS);
+        graph.getDistance("a", "x");
+        call = GraphMetrics.lastCall();
+        Assertions.assertEquals("COMPONENTS", call.getAlgorithm());
+        Assertions.assertEquals(0, call.getSettled());
+    }
+
+    @Test
+    public void testListenersAndUpdates() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(EDGES, WEIGHTS);
+        List<GraphMetrics.Call> calls = new ArrayList<>();
+        Consumer<GraphMetrics.Call> listener = calls::add;
+        GraphMetrics.addListener(listener);
+        try {
+            GraphMetrics.setEnabled(true);
+            graph.trackShortestPaths("a");
+            graph.getShortestPaths("a");
+            graph.addEdge("c", "d", 1);
+            graph.getMST();
+            Assertions.assertEquals(2, calls.size());
+            Assertions.assertEquals("TRACKED", calls.get(0).getAlgorithm());
+            Assertions.assertEquals(GraphMetrics.Operation.MST, calls.get(1).getOperation());
+            Assertions.assertEquals("DYNAMIC", calls.get(1).getAlgorithm());
+        } finally {
+            GraphMetrics.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(EDGES, WEIGHTS);
+        graph.setShortestPathStrategy(ShortestPathStrategy.DIJKSTRA);
+        Path file = Files.createTempFile("graph-metrics", ".jfr");
+        GraphMetrics.Call last = GraphMetrics.lastCall();
+        try (Recording recording = new Recording()) {
+            recording.enable("abhay.graphnexus.GraphCall");
+            recording.start();
+            // Measured because a recording runs, although metrics are disabled
+            graph.getShortestPaths("a");
+            recording.stop();
+            recording.dump(file);
+            Assertions.assertSame(last, GraphMetrics.lastCall());
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Assertions.assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            Assertions.assertEquals("SHORTEST_PATHS", event.getString("operation"));
+            Assertions.assertEquals("DIJKSTRA", event.getString("algorithm"));
+            Assertions.assertEquals(6, event.getLong("relaxations"));
+            Assertions.assertEquals(1, event.getLong("decreaseKeys"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Contracts the vertices of a graph into a {@link ContractionHierarchy}.
+ *
+ * Vertices are ordered by edge difference: the shortcuts contracting a vertex would add, minus the
+ * edges it would remove, plus the neighbors already contracted, so sparse regions are contracted
+ * evenly. Contraction runs in rounds on a ForkJoinPool. Each round takes every remaining vertex whose
+ * priority is lower than that of all its remaining neighbors; these vertices are independent, so their
+ * witness searches run in parallel. A witness search is a Dijkstra bounded by distance and by
+ * {@link #SETTLE_LIMIT} settled vertices, and avoids every vertex of the round, so a witness is never
+ * removed in the same round. Shortcuts are then applied sequentially, and the priorities of the
+ * neighbors of the round are recomputed in parallel.
+ *
+ * When a vertex is contracted, its remaining edges are exactly its edges to vertices contracted later,
+ * and become its upward edges in the hierarchy.
+ */
+final class HierarchyBuilder {
+    /** Witness searches give up after settling this many vertices and add the shortcut instead. */
+    static final int SETTLE_LIMIT = 500;
+    private static final int[] NONE = new int[0];
+
+    private final int n;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<WitnessSearch> searches;
+
+    // The remaining graph, one growable row per vertex; middle is -1 for an original edge
+    private final int[][] targets;
+    private final int[][] weights;
+    private final int[][] middles;
+    private final int[] degree;
+
+    private final int[] priority;
+    private final int[] contractedNeighbors;
+    /** The round a vertex was contracted in, 0 while it remains. */
+    private final int[] round;
+    private int shortcuts;
+
+    HierarchyBuilder(CsrStore graph, ForkJoinPool pool) {
+        this.n = graph.vertexCount();
+        this.pool = pool;
+        this.searches = ThreadLocal.withInitial(() -> new WitnessSearch(n));
+        targets = new int[n][];
+        weights = new int[n][];
+        middles = new int[n][];
+        degree = new int[n];
+        priority = new int[n];
+        contractedNeighbors = new int[n];
+        round = new int[n];
+        for (int u = 0; u < n; u++) {
+            int begin = graph.offset(u), end = graph.offset(u + 1);
+            targets[u] = new int[end - begin];
+            weights[u] = new int[end - begin];
+            middles[u] = new int[end - begin];
+            for (int slot = begin; slot < end; slot++) {
+                int v = graph.target(slot);
+                // Self-loops are never on a shortest path
+                if (v != u) {
+                    int i = degree[u]++;
+                    targets[u][i] = v;
+                    weights[u][i] = graph.weight(slot);
+                    middles[u][i] = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Contracts every vertex.
+     *
+     * @return The hierarchy's upward edges, as CSR offsets, targets, weights and middle vertices.
+     */
+    int[][] build() {
+        int[] remaining = new int[n];
+        for (int v = 0; v < n; v++) {
+            remaining[v] = v;
+        }
+        int remainingCount = n;
+        parallel(remaining, n, v -> priority[v] = simulate(v, 0));
+
+        int[][] upTargets = new int[n][];
+        int[][] upWeights = new int[n][];
+        int[][] upMiddles = new int[n][];
+        boolean[] selected = new boolean[n];
+        int[] chosen = new int[n];
+        int[][] found = new int[n][];
+        int[] touched = new int[n];
+        int[] touchStamp = new int[n];
+        for (int r = 1; remainingCount > 0; r++) {
+            int[] rest = remaining;
+            parallel(rest, remainingCount, v -> selected[v] = isLocalMinimum(v));
+            int count = 0, kept = 0;
+            for (int i = 0; i < remainingCount; i++) {
+                int v = rest[i];
+                if (selected[v]) {
+                    chosen[count++] = v;
+                    round[v] = r;
+                } else {
+                    rest[kept++] = v;
+                }
+            }
+            remainingCount = kept;
+
+            int current = r;
+            parallel(chosen, count, v -> found[v] = shortcutsFor(v, current));
+
+            int touchedCount = 0;
+            for (int i = 0; i < count; i++) {
+                int v = chosen[i];
+                selected[v] = false;
+                upTargets[v] = Arrays.copyOf(targets[v], degree[v]);
+                upWeights[v] = Arrays.copyOf(weights[v], degree[v]);
+                upMiddles[v] = Arrays.copyOf(middles[v], degree[v]);
+                for (int k = 0; k < degree[v]; k++) {
+                    int u = targets[v][k];
+                    removeEdge(u, v);
+                    contractedNeighbors[u]++;
+                    if (touchStamp[u] != r) {
+                        touchStamp[u] = r;
+                        touched[touchedCount++] = u;
+                    }
+                }
+                int[] list = found[v];
+                for (int k = 0; k < list.length; k += 3) {
+                    addShortcut(list[k], list[k + 1], list[k + 2], v);
+                }
+                found[v] = null;
+                targets[v] = weights[v] = middles[v] = NONE;
+                degree[v] = 0;
+            }
+            parallel(touched, touchedCount, u -> priority[u] = simulate(u, 0));
+        }
+        return toCsr(upTargets, upWeights, upMiddles);
+    }
+
+    /**
+     * @return The number of shortcuts added so far.
+     */
+    int shortcutCount() {
+        return shortcuts;
+    }
+
+    private void parallel(int[] ids, int count, java.util.function.IntConsumer action) {
+        ForkJoinTask<?> task = pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> action.accept(ids[i])));
+        task.join();
+    }
+
+    /**
+     * @return true if v has a lower priority than each remaining neighbor, ties broken by id.
+     */
+    private boolean isLocalMinimum(int v) {
+        int p = priority[v];
+        for (int k = 0; k < degree[v]; k++) {
+            int u = targets[v][k];
+            int q = priority[u];
+            if (q < p || (q == p && u < v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The priority of contracting v now: edge difference plus contracted neighbors.
+     */
+    private int simulate(int v, int currentRound) {
+        int added = shortcutsFor(v, currentRound).length / 3;
+        return added - degree[v] + contractedNeighbors[v];
+    }
+
+    /**
+     * Finds the shortcuts contracting v needs: for each pair of neighbors u, w, the edge u-w with
+     * weight d(u,v) + d(v,w) unless a witness path avoiding v is at most as long.
+     *
+     * @param currentRound Vertices contracted in this round are avoided by witness searches; 0 for none.
+     * @return The shortcuts as consecutive (u, w, weight) triples.
+     */
+    private int[] shortcutsFor(int v, int currentRound) {
+        int d = degree[v];
+        if (d < 2) {
+            return NONE;
+        }
+        int[] vt = targets[v], vw = weights[v];
+        WitnessSearch search = searches.get();
+        int[] result = NONE;
+        int size = 0;
+        for (int i = 0; i < d - 1; i++) {
+            int u = vt[i];
+            int maxWeight = 0;
+            for (int j = i + 1; j < d; j++) {
+                maxWeight = Math.max(maxWeight, vw[j]);
+            }
+            search.run(u, v, currentRound, (long) vw[i] + maxWeight, vt, i + 1, d);
+            for (int j = i + 1; j < d; j++) {
+                long via = (long) vw[i] + vw[j];
+                if (via > Integer.MAX_VALUE) continue;
+                if (search.distance(vt[j]) > via) {
+                    if (size == result.length) {
+                        result = Arrays.copyOf(result, Math.max(12, size * 2));
+                    }
+                    result[size++] = u;
+                    result[size++] = vt[j];
+                    result[size++] = (int) via;
+                }
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private void addShortcut(int u, int w, int weight, int middle) {
+        if (!lowerEdge(u, w, weight, middle)) {
+            appendEdge(u, w, weight, middle);
+            appendEdge(w, u, weight, middle);
+            shortcuts++;
+        } else {
+            lowerEdge(w, u, weight, middle);
+        }
+    }
+
+    /**
+     * Lowers the weight of edge (u,w) if it exists and is heavier.
+     *
+     * @return true if the edge exists.
+     */
+    private boolean lowerEdge(int u, int w, int weight, int middle) {
+        for (int k = 0; k < degree[u]; k++) {
+            if (targets[u][k] == w) {
+                if (weight < weights[u][k]) {
+                    weights[u][k] = weight;
+                    middles[u][k] = middle;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void appendEdge(int u, int w, int weight, int middle) {
+        int k = degree[u]++;
+        if (k == targets[u].length) {
+            int capacity = Math.max(4, k * 2);
+            targets[u] = Arrays.copyOf(targets[u], capacity);
+            weights[u] = Arrays.copyOf(weights[u], capacity);
+            middles[u] = Arrays.copyOf(middles[u], capacity);
+        }
+        targets[u][k] = w;
+        weights[u][k] = weight;
+        middles[u][k] = middle;
+    }
+
+    private void removeEdge(int u, int v) {
+        int[] t = targets[u];
+        for (int k = 0; k < degree[u]; k++) {
+            if (t[k] == v) {
+                int last = --degree[u];
+                t[k] = t[last];
+                weights[u][k] = weights[u][last];
+                middles[u][k] = middles[u][last];
+                return;
+            }
+        }
+    }
+
+    private int[][] toCsr(int[][] upTargets, int[][] upWeights, int[][] upMiddles) {
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + upTargets[v].length;
+        }
+        int[] t = new int[offsets[n]], w = new int[offsets[n]], m = new int[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(upTargets[v], 0, t, offsets[v], upTargets[v].length);
+            System.arraycopy(upWeights[v], 0, w, offsets[v], upWeights[v].length);
+            System.arraycopy(upMiddles[v], 0, m, offsets[v], upMiddles[v].length);
+        }
+        return new int[][]{offsets, t, w, m};
+    }
+
+    /**
+     * A bounded Dijkstra over the remaining graph, with scratch arrays stamped per search.
+     */
+    private final class WitnessSearch {
+        private final IndexedIntHeap queue = new IndexedIntHeap();
+        private final int[] dist;
+        private final int[] stamp;
+        /** Marks the targets of the current search that are not settled yet. */
+        private final int[] pending;
+        private int search;
+
+        WitnessSearch(int n) {
+            dist = new int[n];
+            stamp = new int[n];
+            pending = new int[n];
+            queue.ensureCapacity(n);
+        }
+
+        /**
+         * Searches from u without passing through v or any vertex contracted in the given round, up to
+         * the given distance, and stops early once every vertex of goals[from..to) is settled.
+         */
+        void run(int u, int v, int currentRound, long limit, int[] goals, int from, int to) {
+            if (++search == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                Arrays.fill(pending, 0);
+                search = 1;
+            }
+            int unsettled = 0;
+            for (int j = from; j < to; j++) {
+                if (pending[goals[j]] != search) {
+                    pending[goals[j]] = search;
+                    unsettled++;
+                }
+            }
+            queue.clear();
+            stamp[u] = search;
+            dist[u] = 0;
+            queue.insertOrDecrease(u, 0);
+            int settled = 0;
+            while (!queue.isEmpty() && settled++ < SETTLE_LIMIT) {
+                int x = queue.pollMin();
+                int dx = dist[x];
+                if (dx > limit) break;
+                if (pending[x] == search) {
+                    pending[x] = 0;
+                    if (--unsettled == 0) break;
+                }
+                int[] xt = targets[x], xw = weights[x];
+                for (int k = 0, d = degree[x]; k < d; k++) {
+                    int y = xt[k];
+                    if (y == v || (currentRound != 0 && round[y] == currentRound)) continue;
+                    int newDist = dx + xw[k];
+                    if (newDist >= 0 && (stamp[y] != search || newDist < dist[y])) {
+                        stamp[y] = search;
+                        dist[y] = newDist;
+                        queue.insertOrDecrease(y, newDist);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return The distance found to x by the last search, or Long.MAX_VALUE if it was not reached.
+         */
+        long distance(int x) {
+            return stamp[x] == search ? dist[x] : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * An indexed 4-ary min-heap of vertex ids keyed by int priorities, with a real decrease-key.
+ * Each id is in the heap at most once, so the heap never holds more than |V| entries.
+ *
+ * The arrays are kept between uses: {@link #clear()} only touches the ids still queued, and
+ * {@link #ensureCapacity(int)} grows the arrays only when a larger graph is seen, so a warmed-up
+ * heap runs without allocating.
+ */
+final class IndexedIntHeap {
+    private static final int ARITY = 4;
+    private static final int[] NONE = new int[0];
+
+    private int[] heap = NONE;
+    private int[] keys = NONE;
+    /** Heap index of every queued id, -1 for ids that are not queued. */
+    private int[] position = NONE;
+    private int size;
+
+    /**
+     * Makes room for ids 0 .. capacity - 1.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > position.length) {
+            int oldLength = position.length;
+            heap = Arrays.copyOf(heap, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, oldLength, capacity, -1);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The smallest queued key. The heap must not be empty.
+     */
+    int minKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes every queued id.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Queues id with the given key, or lowers its key if it is queued with a larger one.
+     */
+    void insertOrDecrease(int id, int key) {
+        int i = position[id];
+        if (i < 0) {
+            i = size++;
+        } else if (key >= keys[id]) {
+            return;
+        }
+        keys[id] = key;
+        siftUp(id, i);
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return The removed id.
+     */
+    int pollMin() {
+        int min = heap[0];
+        position[min] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(last, 0);
+        }
+        return min;
+    }
+
+    private void siftUp(int id, int i) {
+        int key = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) break;
+            heap[i] = parentId;
+            position[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void siftDown(int id, int i) {
+        int key = keys[id];
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size) break;
+            int end = Math.min(first + ARITY, size);
+            int child = first;
+            int childKey = keys[heap[first]];
+            for (int c = first + 1; c < end; c++) {
+                int k = keys[heap[c]];
+                if (k < childKey) {
+                    child = c;
+                    childKey = k;
+                }
+            }
+            if (key <= childKey) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+}
@@ -0,0 +1,52 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Kruskal's algorithm. Every undirected edge is packed once into a long as (weight, entry index),
+ * the array is sorted with a parallel sort, and edges are accepted in order while a union-find
+ * shows they join two different trees. Spans every component, giving a minimum spanning forest.
+ */
+final class KruskalMstEngine implements MstEngine {
+    private final SearchCounters counters = new SearchCounters();
+
+    @Override
+    public int[] spanningEdges(CsrStore graph) {
+        int n = graph.vertexCount();
+        long[] keys = new long[graph.entryCount() / 2];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            int end = graph.offset(u + 1);
+            for (int slot = graph.offset(u); slot < end; slot++) {
+                // Each edge is stored in both directions; keep the copy in the row of its smaller end
+                if (graph.target(slot) > u) {
+                    keys[count++] = ((long) graph.weight(slot) << 32) | slot;
+                }
+            }
+        }
+        // Equal weights are ordered by entry index, so the result is deterministic
+        Arrays.parallelSort(keys, 0, count);
+
+        UnionFind sets = new UnionFind(n);
+        int[] edges = new int[2 * Math.max(0, n - 1)];
+        int chosen = 0;
+        int i = 0;
+        for (; i < count && chosen < edges.length; i++) {
+            int slot = (int) keys[i];
+            int v = graph.target(slot);
+            int u = MstEngine.sourceOf(graph, slot);
+            if (sets.union(u, v)) {
+                edges[chosen++] = u;
+                edges[chosen++] = v;
+            }
+        }
+        // The sorted array is the queue; an edge within one tree is a skipped entry
+        counters.set(count, i, i - chosen / 2, 0, graph.entryCount(), chosen / 2);
+        return chosen == edges.length ? edges : Arrays.copyOf(edges, chosen);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+}
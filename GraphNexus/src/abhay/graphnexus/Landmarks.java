@@ -0,0 +1,86 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * The distance arrays of a few landmark vertices, used by {@link PointToPointEngine} for ALT
+ * (A*, landmarks, triangle inequality) lower bounds. For any landmark L,
+ * |d(L,t) - d(L,v)| <= d(v,t), because the graph is undirected.
+ *
+ * Landmarks are chosen by farthest-point selection: each new landmark is the vertex farthest from
+ * the landmarks chosen so far, and a vertex no landmark reaches counts as farthest, so every
+ * component gets a landmark while there are landmarks left. Instances are immutable.
+ */
+final class Landmarks {
+    private final int[] ids;
+    private final int[][] dist;
+
+    private Landmarks(int[] ids, int[][] dist) {
+        this.ids = ids;
+        this.dist = dist;
+    }
+
+    /**
+     * Chooses up to k landmarks and computes their distances, with k single-source searches.
+     */
+    static Landmarks choose(CsrStore graph, int k) {
+        int n = graph.vertexCount();
+        k = Math.min(k, n);
+        int[] ids = new int[k];
+        int[][] dist = new int[k][];
+        // The smallest distance from any chosen landmark, Integer.MAX_VALUE where none reaches
+        int[] nearest = new int[n];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        DijkstraEngine engine = new DijkstraEngine();
+        int next = 0;
+        for (int i = 0; i < k; i++) {
+            ids[i] = next;
+            dist[i] = new int[n];
+            engine.distances(graph, next, dist[i]);
+            int farthest = -1;
+            for (int v = 0; v < n; v++) {
+                nearest[v] = Math.min(nearest[v], dist[i][v]);
+                if (nearest[v] > 0 && (farthest < 0 || nearest[v] > nearest[farthest])) {
+                    farthest = v;
+                }
+            }
+            if (farthest < 0) {
+                // Every vertex is a landmark or at distance 0 from one
+                return new Landmarks(Arrays.copyOf(ids, i + 1), Arrays.copyOf(dist, i + 1));
+            }
+            next = farthest;
+        }
+        return new Landmarks(ids, dist);
+    }
+
+    /**
+     * @return The number of landmarks.
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return The landmark ids, in the order they were chosen.
+     */
+    int[] ids() {
+        return ids.clone();
+    }
+
+    /**
+     * @return A lower bound on d(v,t), or -1 if some landmark reaches exactly one of v and t, so no
+     *          path connects them.
+     */
+    int lowerBound(int v, int t) {
+        int bound = 0;
+        for (int[] d : dist) {
+            int dv = d[v], dt = d[t];
+            if (dv == Integer.MAX_VALUE || dt == Integer.MAX_VALUE) {
+                if (dv != dt) return -1;
+                continue;
+            }
+            bound = Math.max(bound, Math.abs(dt - dv));
+        }
+        return bound;
+    }
+}
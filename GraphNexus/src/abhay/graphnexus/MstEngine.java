@@ -0,0 +1,34 @@
+package abhay.graphnexus;
+
+/**
+ * Computes a minimum spanning tree or forest over the id space of a CSR adjacency.
+ */
+interface MstEngine {
+
+    /**
+     * @param graph The adjacency to span.
+     * @return The chosen edges as consecutive (u, v) id pairs, in the order they were chosen.
+     */
+    int[] spanningEdges(CsrStore graph);
+
+    /**
+     * @return The work done by the last call to {@link #spanningEdges}, overwritten by the next call.
+     */
+    SearchCounters counters();
+
+    /**
+     * Finds the vertex whose neighbor range contains the given adjacency entry index.
+     */
+    static int sourceOf(CsrStore graph, int slot) {
+        int lo = 0, hi = graph.vertexCount() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (graph.offset(mid) <= slot) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,109 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class MstEngineTest {
+
+    @Test
+    public void testEnginesAgreeOnConnectedGraphs() throws Exception {
+        Random random = new Random(5);
+        for (int n : new int[]{2, 10, 300, 2000}) {
+            CsrStore g = connectedGraph(random, n, n * 3, 50).store();
+            long prim = checkForest(g, new PrimMstEngine().spanningEdges(g), n - 1);
+            long kruskal = checkForest(g, new KruskalMstEngine().spanningEdges(g), n - 1);
+            Assertions.assertEquals(prim, kruskal, "n = " + n);
+        }
+    }
+
+    @Test
+    public void testBoruvkaMatchesKruskal() throws Exception {
+        Random random = new Random(9);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BoruvkaMstEngine boruvka = new BoruvkaMstEngine(pool);
+            // Weights up to 0 and 3 produce many ties, which must not create cycles
+            for (int maxWeight : new int[]{0, 3, 1000}) {
+                for (int n : new int[]{1, 2, 500, 20000}) {
+                    CsrStore g = connectedGraph(random, n, n * 3, maxWeight).store();
+                    long kruskal = checkForest(g, new KruskalMstEngine().spanningEdges(g), n - 1);
+                    Assertions.assertEquals(kruskal, checkForest(g, boruvka.spanningEdges(g), n - 1));
+                }
+            }
+            // A forest: three components, one of them a single vertex with a self-loop
+            CsrGraph graph = new CsrGraph();
+            graph.load(List.of("a", "b", "b", "c", "a", "c", "x", "y", "z", "z"), List.of(1, 2, 3, 4, 0));
+            Assertions.assertEquals(7, checkForest(graph.store(), boruvka.spanningEdges(graph.store()), 3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testKruskalSpansEveryComponent() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "b", "c", "a", "c", "x", "y", "z", "z"), List.of(1, 2, 3, 4, 0));
+        graph.setMstStrategy(MstStrategy.KRUSKAL);
+        List<String> mst = graph.getMST();
+        Assertions.assertEquals(List.of("a", "b", "b", "c", "x", "y"), mst);
+
+        graph.setMstStrategy(MstStrategy.PRIM);
+        Assertions.assertEquals(List.of("a", "b", "b", "c"), graph.getMST(), "Prim spans the first component");
+    }
+
+    @Test
+    public void testStrategyThroughGraph() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load("e10k.txt");
+        graph.setMstStrategy(MstStrategy.KRUSKAL);
+        Assertions.assertEquals(20000, graph.getMST().size());
+        graph.load("g1.txt");
+        List<String> mst = graph.getMST();
+        Assertions.assertEquals(6, mst.size());
+        int total = 0;
+        for (int i = 0; i < mst.size(); i += 2) {
+            total += graph.getWeight(mst.get(i), mst.get(i + 1));
+        }
+        Assertions.assertEquals(6, total);
+    }
+
+    static CsrGraph connectedGraph(Random random, int n, int m, int maxWeight) throws Exception {
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < m; i++) {
+            // A random tree over every vertex first, then random extra edges
+            int u = i < n - 1 ? i + 1 : random.nextInt(n);
+            int v = i < n - 1 ? random.nextInt(i + 1) : random.nextInt(n);
+            edges.add(String.valueOf(u));
+            edges.add(String.valueOf(v));
+            weights.add(random.nextInt(maxWeight + 1));
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        return graph;
+    }
+
+    /**
+     * Checks that the edges exist and form a forest with the expected number of edges.
+     *
+     * @return The total weight of the edges.
+     */
+    static long checkForest(CsrStore g, int[] edges, int expectedEdges) {
+        Assertions.assertEquals(2 * expectedEdges, edges.length);
+        UnionFind sets = new UnionFind(g.vertexCount());
+        long total = 0;
+        CsrGraph lookup = new CsrGraph(new VertexDictionary(), g);
+        for (int i = 0; i < edges.length; i += 2) {
+            int slot = lookup.findSlot(edges[i], edges[i + 1]);
+            Assertions.assertTrue(slot >= 0, "not an edge");
+            Assertions.assertTrue(sets.union(edges[i], edges[i + 1]), "cycle");
+            total += g.weight(slot);
+        }
+        return total;
+    }
+}
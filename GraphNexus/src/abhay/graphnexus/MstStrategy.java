@@ -0,0 +1,37 @@
+package abhay.graphnexus;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The minimum spanning tree algorithm used by {@link CsrGraph#getMST()}.
+ */
+public enum MstStrategy {
+    /**
+     * Lazy Prim's algorithm from the first vertex, O(E log E). Spans only the component of that vertex.
+     */
+    PRIM,
+    /**
+     * Kruskal's algorithm on a sorted primitive edge array with union-find, O(E log E).
+     * Spans every component.
+     */
+    KRUSKAL,
+    /**
+     * Parallel Boruvka on the common ForkJoinPool, O(E log V) work in O(log V) rounds.
+     * Spans every component.
+     */
+    BORUVKA;
+
+    /**
+     * @return A new engine for this algorithm.
+     */
+    MstEngine newEngine() {
+        switch (this) {
+            case KRUSKAL:
+                return new KruskalMstEngine();
+            case BORUVKA:
+                return new BoruvkaMstEngine(ForkJoinPool.commonPool());
+            default:
+                return new PrimMstEngine();
+        }
+    }
+}
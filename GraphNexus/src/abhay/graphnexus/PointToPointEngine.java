@@ -0,0 +1,241 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional Dijkstra for one s-t distance: a forward search from s and a backward search from t
+ * take turns, always expanding the side with the smaller queue key, and stop once the two smallest
+ * keys together reach the best s-t path seen. Both searches only settle vertices near s and t.
+ *
+ * Given {@link Landmarks}, the searches are directed with ALT potentials. With lower bounds
+ * pi_t(v) <= d(v,t) and pi_s(v) <= d(s,v), the forward search is keyed by
+ * 2 d_f(v) + pi_t(v) - pi_s(v) and the backward search by 2 d_b(v) + pi_s(v) - pi_t(v). Averaging the
+ * two potentials keeps them consistent for both directions, and doubling keeps the keys integral.
+ *
+ * The scratch arrays are stamped per query instead of cleared, so a query costs time in the number of
+ * vertices it touches. An engine is not thread-safe; give every thread its own instance.
+ */
+final class PointToPointEngine {
+    private static final int[] NONE = new int[0];
+
+    private final IndexedIntHeap forward = new IndexedIntHeap();
+    private final IndexedIntHeap backward = new IndexedIntHeap();
+    private int[] distF = NONE, distB = NONE;
+    private int[] parentF = NONE, parentB = NONE;
+    private int[] stampF = NONE, stampB = NONE;
+    private int[] potential = NONE, potentialStamp = NONE;
+    private int round;
+
+    private CsrStore graph;
+    private Landmarks landmarks;
+    private int scale;
+    private int source, target;
+    private int meet;
+    private long best;
+    private int settled;
+    private long pushes, decreaseKeys, relaxations;
+    private final SearchCounters counters = new SearchCounters();
+
+    /**
+     * Finds the length of the shortest s-t path.
+     *
+     * @param graph The adjacency to search.
+     * @param landmarks The landmarks that direct the search, or null for plain bidirectional Dijkstra.
+     * @param s The source id, or -1 for a vertex that is not in the graph.
+     * @param t The target id, or -1 for a vertex that is not in the graph.
+     * @return The distance, or Integer.MAX_VALUE if no path exists.
+     */
+    int distance(CsrStore graph, Landmarks landmarks, int s, int t) {
+        this.graph = graph;
+        this.landmarks = landmarks != null && landmarks.size() > 0 ? landmarks : null;
+        try {
+            int dist = search(s, t);
+            counters.set(pushes, settled, 0, decreaseKeys, relaxations, settled);
+            return dist;
+        } finally {
+            // Do not keep a replaced snapshot reachable from a thread's engine
+            this.graph = null;
+            this.landmarks = null;
+        }
+    }
+
+    private int search(int s, int t) {
+        scale = landmarks != null ? 2 : 1;
+        source = s;
+        target = t;
+        meet = -1;
+        best = Long.MAX_VALUE;
+        settled = 0;
+        pushes = decreaseKeys = relaxations = 0;
+        if (s < 0 || t < 0) {
+            return Integer.MAX_VALUE;
+        }
+        prepare(graph.vertexCount());
+        if (landmarks != null && landmarks.lowerBound(s, t) < 0) {
+            // A landmark reaches only one of them, so they are in different components
+            return Integer.MAX_VALUE;
+        }
+        reachForward(s, 0, -1);
+        reachBackward(t, 0, -1);
+        if (s == t) {
+            meet = s;
+            best = 0;
+            return 0;
+        }
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            int minF = forward.minKey();
+            int minB = backward.minKey();
+            if (best != Long.MAX_VALUE && (long) minF + minB >= scale * best) {
+                break;
+            }
+            if (minF <= minB) {
+                expandForward(forward.pollMin());
+            } else {
+                expandBackward(backward.pollMin());
+            }
+            settled++;
+        }
+        return best == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) best;
+    }
+
+    /**
+     * @return The vertices of the path found by the last query, from s to t, or an empty array if
+     *          it found none.
+     */
+    int[] path() {
+        if (meet < 0) {
+            return NONE;
+        }
+        int forwardLength = 0, backwardLength = 0;
+        for (int v = meet; v != source; v = parentF[v]) forwardLength++;
+        for (int v = meet; v != target; v = parentB[v]) backwardLength++;
+        int[] path = new int[forwardLength + 1 + backwardLength];
+        int v = meet;
+        for (int i = forwardLength; i > 0; i--) {
+            path[i] = v;
+            v = parentF[v];
+        }
+        path[0] = source;
+        v = meet;
+        for (int i = forwardLength + 1; i < path.length; i++) {
+            v = parentB[v];
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * @return The number of vertices the last query settled, over both directions.
+     */
+    int settledCount() {
+        return settled;
+    }
+
+    /**
+     * @return The work done by the last query, over both directions. Pops and settled vertices are
+     *          the same count, since the queues lower keys in place.
+     */
+    SearchCounters counters() {
+        return counters;
+    }
+
+    private void prepare(int n) {
+        if (distF.length < n) {
+            distF = new int[n];
+            distB = new int[n];
+            parentF = new int[n];
+            parentB = new int[n];
+            stampF = new int[n];
+            stampB = new int[n];
+            potential = new int[n];
+            potentialStamp = new int[n];
+            round = 0;
+        }
+        if (++round == Integer.MAX_VALUE) {
+            Arrays.fill(stampF, 0);
+            Arrays.fill(stampB, 0);
+            Arrays.fill(potentialStamp, 0);
+            round = 1;
+        }
+        forward.ensureCapacity(n);
+        backward.ensureCapacity(n);
+        forward.clear();
+        backward.clear();
+    }
+
+    private void expandForward(int u) {
+        int du = distF[u];
+        int start = graph.offset(u), end = graph.offset(u + 1);
+        relaxations += end - start;
+        for (int slot = start; slot < end; slot++) {
+            int v = graph.target(slot);
+            int newDist = du + graph.weight(slot);
+            // A negative sum means the int overflowed; such a path cannot be shorter
+            if (newDist >= 0 && (stampF[v] != round || newDist < distF[v])) {
+                reachForward(v, newDist, u);
+            }
+        }
+    }
+
+    private void expandBackward(int u) {
+        int du = distB[u];
+        int start = graph.offset(u), end = graph.offset(u + 1);
+        relaxations += end - start;
+        for (int slot = start; slot < end; slot++) {
+            int v = graph.target(slot);
+            int newDist = du + graph.weight(slot);
+            if (newDist >= 0 && (stampB[v] != round || newDist < distB[v])) {
+                reachBackward(v, newDist, u);
+            }
+        }
+    }
+
+    private void reachForward(int v, int dist, int parent) {
+        long key = (long) scale * dist + potentialOf(v);
+        if (key > Integer.MAX_VALUE) return;
+        if (stampF[v] == round) decreaseKeys++; else pushes++;
+        stampF[v] = round;
+        distF[v] = dist;
+        parentF[v] = parent;
+        forward.insertOrDecrease(v, (int) key);
+        if (stampB[v] == round) {
+            meetAt(v);
+        }
+    }
+
+    private void reachBackward(int v, int dist, int parent) {
+        long key = (long) scale * dist - potentialOf(v);
+        if (key > Integer.MAX_VALUE) return;
+        if (stampB[v] == round) decreaseKeys++; else pushes++;
+        stampB[v] = round;
+        distB[v] = dist;
+        parentB[v] = parent;
+        backward.insertOrDecrease(v, (int) key);
+        if (stampF[v] == round) {
+            meetAt(v);
+        }
+    }
+
+    private void meetAt(int v) {
+        long length = (long) distF[v] + distB[v];
+        if (length < best) {
+            best = length;
+            meet = v;
+        }
+    }
+
+    /**
+     * @return pi_t(v) - pi_s(v), computed once per query and vertex, or 0 without landmarks.
+     */
+    private int potentialOf(int v) {
+        if (landmarks == null) {
+            return 0;
+        }
+        if (potentialStamp[v] != round) {
+            potentialStamp[v] = round;
+            potential[v] = landmarks.lowerBound(v, target) - landmarks.lowerBound(v, source);
+        }
+        return potential[v];
+    }
+}
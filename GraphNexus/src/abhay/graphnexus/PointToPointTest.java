@@ -0,0 +1,125 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PointToPointTest {
+
+    @Test
+    public void testSmallGraph() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(List.of("a", "b", "b", "c", "a", "c", "x", "y"), List.of(1, 1, 5, 2));
+        Assertions.assertEquals(2, graph.getDistance("a", "c"));
+        Assertions.assertEquals(List.of("a", "b", "c"), graph.getPath("a", "c"));
+        Assertions.assertEquals(List.of("c", "b", "a"), graph.getPath("c", "a"));
+        Assertions.assertEquals(0, graph.getDistance("b", "b"));
+        Assertions.assertEquals(List.of("b"), graph.getPath("b", "b"));
+        Assertions.assertEquals(-1, graph.getDistance("a", "x"));
+        Assertions.assertEquals(List.of(), graph.getPath("a", "x"));
+        Assertions.assertEquals(-1, graph.getDistance("a", "z"));
+
+        // A tracked source answers from its tree
+        graph.trackShortestPaths("a");
+        graph.updateWeight("a", "c", 1);
+        Assertions.assertEquals(1, graph.getDistance("a", "c"));
+        Assertions.assertEquals(List.of("a", "c"), graph.getPath("a", "c"));
+        Assertions.assertEquals(List.of(), graph.getPath("a", "y"));
+    }
+
+    @Test
+    public void testMatchesDijkstra() throws Exception {
+        Random random = new Random(15);
+        for (int landmarks : new int[]{0, 1, 4, 16}) {
+            for (int n : new int[]{2, 30, 1000}) {
+                CsrGraph graph = randomForest(random, n, 10);
+                graph.setLandmarkCount(landmarks);
+                for (int query = 0; query < 50; query++) {
+                    String s = String.valueOf(random.nextInt(n));
+                    String t = String.valueOf(random.nextInt(n));
+                    int expected = graph.getShortestPaths(s).get(t);
+                    Assertions.assertEquals(expected, graph.getDistance(s, t));
+                    List<String> path = graph.getPath(s, t);
+                    if (expected < 0) {
+                        Assertions.assertTrue(path.isEmpty());
+                        continue;
+                    }
+                    Assertions.assertEquals(s, path.get(0));
+                    Assertions.assertEquals(t, path.get(path.size() - 1));
+                    int length = 0;
+                    for (int i = 0; i + 1 < path.size(); i++) {
+                        length += graph.getWeight(path.get(i), path.get(i + 1));
+                    }
+                    Assertions.assertEquals(expected, length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarksSettleFewerVertices() throws Exception {
+        // Landmarks pay off on road-like graphs, where distances grow with the number of hops
+        CsrGraph graph = grid(new Random(16), 100, 100);
+        graph.setLandmarkCount(8);
+        PointToPointEngine engine = new PointToPointEngine();
+        int[] dist = new int[graph.getVertexCount()];
+        new DijkstraEngine().distances(graph.store(), 0, dist);
+        long plain = 0, directed = 0;
+        for (int t = 0; t < dist.length; t += 97) {
+            Assertions.assertEquals(dist[t], engine.distance(graph.store(), null, 0, t));
+            plain += engine.settledCount();
+            Assertions.assertEquals(dist[t], engine.distance(graph.store(), graph.landmarks(), 0, t));
+            directed += engine.settledCount();
+        }
+        Assertions.assertTrue(directed * 2 < plain, directed + " settled with landmarks, " + plain + " without");
+    }
+
+    /**
+     * A graph of three components, with edges only between vertices of equal id mod 3.
+     */
+    private static CsrGraph randomForest(Random random, int n, int maxWeight) throws Exception {
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            // Every vertex gets an edge, so all of 0 .. n - 1 are in the graph
+            for (int k = 0; k < 2; k++) {
+                int v = random.nextInt((n + 2) / 3) * 3 + u % 3;
+                edges.add(String.valueOf(u));
+                edges.add(String.valueOf(v < n ? v : u));
+                weights.add(random.nextInt(maxWeight + 1));
+            }
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        return graph;
+    }
+
+    /**
+     * A rows x columns grid with weights 1..100, vertex r * columns + c at row r and column c.
+     */
+    static CsrGraph grid(Random random, int rows, int columns) throws Exception {
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int v = r * columns + c;
+                if (c + 1 < columns) {
+                    edges.add(String.valueOf(v));
+                    edges.add(String.valueOf(v + 1));
+                    weights.add(random.nextInt(100) + 1);
+                }
+                if (r + 1 < rows) {
+                    edges.add(String.valueOf(v));
+                    edges.add(String.valueOf(v + columns));
+                    weights.add(random.nextInt(100) + 1);
+                }
+            }
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        return graph;
+    }
+}
@@ -0,0 +1,106 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * Lazy Prim's algorithm from the vertex with id 0, on a binary heap of packed (weight, entry index)
+ * longs. Spans the component of vertex 0 only.
+ */
+final class PrimMstEngine implements MstEngine {
+    private final SearchCounters counters = new SearchCounters();
+
+    @Override
+    public int[] spanningEdges(CsrStore graph) {
+        int n = graph.vertexCount();
+        if (n == 0) {
+            counters.set(0, 0, 0, 0, 0, 0);
+            return new int[0];
+        }
+        int[] edges = new int[2 * (n - 1)];
+        int count = 0;
+        boolean[] visited = new boolean[n];
+        LongHeap pq = new LongHeap();
+        visited[0] = true;
+        int visitedCount = 1;
+        for (int slot = graph.offset(0); slot < graph.offset(1); slot++) {
+            pq.push(((long) graph.weight(slot) << 32) | slot);
+        }
+        long pushes = graph.offset(1) - graph.offset(0), pops = 0, stale = 0, scanned = pushes;
+
+        while (!pq.isEmpty() && visitedCount < n) {
+            int slot = (int) pq.pop();
+            int to = graph.target(slot);
+            pops++;
+            // Lazy deletion: edges into the tree stay queued until they come out here
+            if (visited[to]) {
+                stale++;
+                continue;
+            }
+
+            visited[to] = true;
+            visitedCount++;
+            edges[count++] = MstEngine.sourceOf(graph, slot);
+            edges[count++] = to;
+
+            scanned += graph.offset(to + 1) - graph.offset(to);
+            for (int next = graph.offset(to); next < graph.offset(to + 1); next++) {
+                if (!visited[graph.target(next)]) {
+                    pq.push(((long) graph.weight(next) << 32) | next);
+                    pushes++;
+                }
+            }
+        }
+        counters.set(pushes, pops, stale, 0, scanned, count / 2);
+        return count == edges.length ? edges : Arrays.copyOf(edges, count);
+    }
+
+    @Override
+    public SearchCounters counters() {
+        return counters;
+    }
+
+    /**
+     * A growable binary min-heap of primitive longs, used to avoid boxing priority queue entries.
+     * Entries pack a priority in the high 32 bits and a payload in the low 32 bits.
+     */
+    private static class LongHeap {
+        private long[] heap = new long[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package abhay.graphnexus;
+
+/**
+ * The work done by the last call on an engine, read by {@link GraphMetrics} when metrics are recorded.
+ *
+ * Engines count in local variables and store the totals here once at the end of a call, so counting
+ * costs a few register increments whether or not anyone reads them.
+ */
+final class SearchCounters {
+    /** Entries added to the queue, heap or buckets. */
+    long pushes;
+    /** Entries taken from the queue, including stale ones. */
+    long pops;
+    /** Entries taken from the queue and dropped because their vertex or edge was already done. */
+    long staleSkips;
+    /** Queued entries whose key was lowered in place. */
+    long decreaseKeys;
+    /** Adjacency entries examined. */
+    long relaxations;
+    /** Vertices whose distance became final, or edges accepted into a spanning tree. */
+    long settled;
+
+    void set(long pushes, long pops, long staleSkips, long decreaseKeys, long relaxations, long settled) {
+        this.pushes = pushes;
+        this.pops = pops;
+        this.staleSkips = staleSkips;
+        this.decreaseKeys = decreaseKeys;
+        this.relaxations = relaxations;
+        this.settled = settled;
+    }
+}
@@ -0,0 +1,149 @@
+package abhay.graphnexus;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of single-source shortest path trees, keyed by source id, with least-recently-used
+ * eviction by memory weight. Each entry weighs the bytes of its distance and parent arrays, so the
+ * bound holds for graphs of any size. The trees are shared between callers.
+ *
+ * Entries are only valid for the snapshot they were computed on; the graph clears the cache
+ * whenever it is loaded or changed. Each lookup and store also names the snapshot it runs on, so a
+ * call that was still running on a replaced snapshot neither reads nor leaves entries for its
+ * successor: its lookups miss, and its store drops the entries of any other snapshot first.
+ * All methods are thread-safe.
+ */
+public final class ShortestPathCache {
+    /** The default bound, 64 MB of distance and parent arrays. */
+    public static final long DEFAULT_MAX_WEIGHT = 64L << 20;
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private final LinkedHashMap<Integer, ShortestPathTree> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** The snapshot the entries were computed on. */
+    private Object owner;
+    private long maxWeight = DEFAULT_MAX_WEIGHT;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @return The cached tree of source on the given snapshot, or null if it is not cached. Counts a hit or a miss.
+     */
+    synchronized ShortestPathTree get(Object snapshot, int source) {
+        ShortestPathTree tree = snapshot == owner ? entries.get(source) : null;
+        if (tree != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return tree;
+    }
+
+    /**
+     * Caches the tree of source, evicting the least recently used entries to stay within the bound.
+     * Trees heavier than the whole bound are not cached.
+     */
+    synchronized void put(Object snapshot, int source, ShortestPathTree tree) {
+        long entryWeight = weightOf(tree);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        if (snapshot != owner) {
+            clear();
+            owner = snapshot;
+        }
+        ShortestPathTree previous = entries.put(source, tree);
+        if (previous != null) {
+            weight -= weightOf(previous);
+        }
+        weight += entryWeight;
+        evictToFit();
+    }
+
+    /**
+     * Removes every entry. Statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        owner = null;
+        weight = 0;
+    }
+
+    /**
+     * Sets the bound on the total weight of the cached trees, evicting entries if needed.
+     *
+     * @param maxWeight The bound in bytes; 0 disables caching.
+     * @throws IllegalArgumentException If maxWeight is negative.
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        evictToFit();
+    }
+
+    private void evictToFit() {
+        Iterator<Map.Entry<Integer, ShortestPathTree>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= weightOf(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long weightOf(ShortestPathTree tree) {
+        return 8L * tree.distances().length + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * @return The bound on the total weight, in bytes.
+     */
+    public synchronized long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return The current total weight of the cached trees, in bytes.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The number of cached sources.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of lookups that found their source.
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that did not find their source.
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return The number of entries evicted to stay within the bound.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ShortestPathCache[size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d]",
+                entries.size(), weight, maxWeight, hits, misses, evictions);
+    }
+}
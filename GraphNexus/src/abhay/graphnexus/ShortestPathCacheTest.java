@@ -0,0 +1,76 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ShortestPathCacheTest {
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load("g1.txt");
+        ShortestPathCache cache = graph.getShortestPathCache();
+
+        Assertions.assertEquals(graph.getShortestPaths("a"), graph.getShortestPaths("a"));
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+
+        // getReport reuses the cached distances of its source
+        graph.getReport("a", List.of("a", "b", "b", "c"));
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(8L * 4 + 64, cache.getWeight());
+
+        // Unknown sources are neither computed into nor counted against the cache
+        graph.getShortestPaths("x");
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load("g1.txt");
+        ShortestPathCache cache = graph.getShortestPathCache();
+        long entry = 8L * 4 + 64;
+        cache.setMaxWeight(2 * entry);
+
+        graph.getShortestPaths("a");
+        graph.getShortestPaths("b");
+        graph.getShortestPaths("a");
+        graph.getShortestPaths("c");
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+
+        long misses = cache.getMissCount();
+        graph.getShortestPaths("a");
+        Assertions.assertEquals(misses, cache.getMissCount(), "a was used more recently than b");
+        graph.getShortestPaths("b");
+        Assertions.assertEquals(misses + 1, cache.getMissCount(), "b was evicted");
+
+        cache.setMaxWeight(0);
+        Assertions.assertEquals(0, cache.size());
+        graph.getShortestPaths("a");
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoadInvalidates() throws Exception {
+        for (Graph graph : new Graph[]{new GraphImpl(), new CsrGraph()}) {
+            ShortestPathCache cache = graph instanceof GraphImpl
+                    ? ((GraphImpl) graph).getShortestPathCache() : ((CsrGraph) graph).getShortestPathCache();
+            graph.load(List.of("a", "b", "b", "c"), List.of(1, 1));
+            Assertions.assertEquals(2, graph.getShortestPaths("a").get("c").intValue());
+            Assertions.assertEquals(1, cache.size());
+
+            graph.load(List.of("a", "b", "b", "c"), List.of(5, 5));
+            Assertions.assertEquals(0, cache.size());
+            Assertions.assertEquals(10, graph.getShortestPaths("a").get("c").intValue());
+
+            graph.load("g1.txt");
+            Assertions.assertEquals(0, cache.size());
+            Assertions.assertEquals(2, graph.getShortestPaths("a").get("b").intValue());
+        }
+    }
+}
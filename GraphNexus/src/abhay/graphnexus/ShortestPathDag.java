@@ -0,0 +1,84 @@
+package abhay.graphnexus;
+
+import java.util.Arrays;
+
+/**
+ * The shortest path DAG of one source: edge (a,b) is in the DAG when dist[a] + weight(a,b) == dist[b],
+ * so a path from the source is a shortest path exactly when it only uses DAG edges.
+ *
+ * The DAG predecessors of every vertex are stored as a CSR range, sorted by id because they are
+ * taken from the vertex's sorted neighbor range. Testing whether an edge is in the DAG is a binary
+ * search of that range with no weight lookup, so high-degree vertices with many equal-distance
+ * predecessors stay O(log indegree). Instances are immutable and may be shared between threads.
+ */
+final class ShortestPathDag {
+    private final int source;
+    private final int[] offsets;
+    private final int[] predecessors;
+
+    private ShortestPathDag(int source, int[] offsets, int[] predecessors) {
+        this.source = source;
+        this.offsets = offsets;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * Builds the DAG from the distances of a source, in O(|V| + |E|).
+     *
+     * @param graph The adjacency the distances were computed on.
+     * @param source The source id.
+     * @param dist The distance of every vertex from the source, Integer.MAX_VALUE for unreachable vertices.
+     */
+    static ShortestPathDag build(CsrStore graph, int source, int[] dist) {
+        int n = graph.vertexCount();
+        int[] offsets = new int[n + 1];
+        for (int b = 0; b < n; b++) {
+            offsets[b + 1] = offsets[b] + countPredecessors(graph, dist, b, null, 0);
+        }
+        int[] predecessors = new int[offsets[n]];
+        for (int b = 0; b < n; b++) {
+            countPredecessors(graph, dist, b, predecessors, offsets[b]);
+        }
+        return new ShortestPathDag(source, offsets, predecessors);
+    }
+
+    /**
+     * Finds the DAG predecessors of b in id order, writing them to out from the given index if out is not null.
+     *
+     * @return The number of predecessors.
+     */
+    private static int countPredecessors(CsrStore graph, int[] dist, int b, int[] out, int at) {
+        int db = dist[b];
+        if (db == Integer.MAX_VALUE) {
+            return 0;
+        }
+        int count = 0;
+        int end = graph.offset(b + 1);
+        for (int slot = graph.offset(b); slot < end; slot++) {
+            int a = graph.target(slot);
+            int da = dist[a];
+            // The graph is undirected, so the entry in b's row has the weight of edge (a,b)
+            if (a != b && da != Integer.MAX_VALUE && (long) da + graph.weight(slot) == db) {
+                if (out != null) {
+                    out[at + count] = a;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The source id of this DAG.
+     */
+    int source() {
+        return source;
+    }
+
+    /**
+     * @return true if edge (a,b) is on a shortest path from the source, traversed from a to b.
+     */
+    boolean isEdge(int a, int b) {
+        return Arrays.binarySearch(predecessors, offsets[b], offsets[b + 1], a) >= 0;
+    }
+}
@@ -0,0 +1,63 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ShortestPathDagTest {
+
+    @Test
+    public void testEdgesMatchDistances() throws Exception {
+        Random random = new Random(29);
+        // Few distinct weights, so vertices have many predecessors at equal distances
+        CsrStore g = ShortestPathEngineTest.randomGraph(random, 400, 400 * 8, 2).store();
+        for (int source = 0; source < 400; source += 100) {
+            int[] dist = ShortestPathEngineTest.reference(g, source);
+            ShortestPathDag dag = ShortestPathDag.build(g, source, dist);
+            Assertions.assertEquals(source, dag.source());
+            for (int a = 0; a < g.vertexCount(); a++) {
+                for (int b = 0; b < g.vertexCount(); b++) {
+                    boolean expected = false;
+                    for (int slot = g.offset(a); slot < g.offset(a + 1); slot++) {
+                        if (g.target(slot) == b && a != b && dist[a] != Integer.MAX_VALUE
+                                && (long) dist[a] + g.weight(slot) == dist[b]) {
+                            expected = true;
+                        }
+                    }
+                    Assertions.assertEquals(expected, dag.isEdge(a, b), a + " -> " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHighDegreeVertex() throws Exception {
+        // s reaches the hub through each of 1000 leaves, so the hub has 1000 predecessors
+        CsrGraph graph = new CsrGraph();
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            edges.add("s");
+            edges.add("leaf" + i);
+            weights.add(1);
+            edges.add("leaf" + i);
+            edges.add("hub");
+            weights.add(1);
+        }
+        graph.load(edges, weights);
+        CsrStore g = graph.store();
+        int s = graph.vertices().idOf("s");
+        int hub = graph.vertices().idOf("hub");
+        ShortestPathDag dag = ShortestPathDag.build(g, s, ShortestPathEngineTest.reference(g, s));
+        for (int slot = g.offset(hub); slot < g.offset(hub + 1); slot++) {
+            int leaf = g.target(slot);
+            Assertions.assertTrue(dag.isEdge(leaf, hub));
+            Assertions.assertFalse(dag.isEdge(hub, leaf));
+            Assertions.assertTrue(dag.isEdge(s, leaf));
+        }
+        Assertions.assertFalse(dag.isEdge(s, hub));
+    }
+}
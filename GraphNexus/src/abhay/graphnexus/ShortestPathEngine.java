@@ -0,0 +1,41 @@
+package abhay.graphnexus;
+
+/**
+ * Computes single-source shortest path distances over the id space of a CSR adjacency.
+ *
+ * An engine keeps its scratch buffers between calls and is therefore not thread-safe;
+ * give every thread its own instance.
+ */
+interface ShortestPathEngine {
+
+    /**
+     * Fills dist with the shortest distance from source to every vertex.
+     *
+     * @param graph The adjacency to search.
+     * @param source The source id, or -1 for a vertex that is not in the graph.
+     * @param dist Receives the distances, Integer.MAX_VALUE for unreachable vertices.
+     *          Must hold at least graph.vertexCount() entries.
+     */
+    default void distances(CsrStore graph, int source, int[] dist) {
+        distances(graph, source, dist, null);
+    }
+
+    /**
+     * Fills dist with the shortest distance from source to every vertex, and parent with the vertex
+     * each one was last lowered from. The parents form a tree of shortest paths rooted at the source,
+     * also when zero-weight edges give neighbors equal distances.
+     *
+     * @param graph The adjacency to search.
+     * @param source The source id, or -1 for a vertex that is not in the graph.
+     * @param dist Receives the distances, Integer.MAX_VALUE for unreachable vertices.
+     *          Must hold at least graph.vertexCount() entries.
+     * @param parent Receives the parents, -1 for the source and unreachable vertices, or null if
+     *          only the distances are needed. Must hold at least graph.vertexCount() entries.
+     */
+    void distances(CsrStore graph, int source, int[] dist, int[] parent);
+
+    /**
+     * @return The work done by the last call to {@link #distances}, overwritten by the next call.
+     */
+    SearchCounters counters();
+}
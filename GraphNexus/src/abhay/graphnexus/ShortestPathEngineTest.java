@@ -0,0 +1,245 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ShortestPathEngineTest {
+
+    @Test
+    public void testDijkstraMatchesReference() throws Exception {
+        Random random = new Random(7);
+        DijkstraEngine engine = new DijkstraEngine();
+        // One engine across graphs of different sizes, to cover scratch reuse and growth
+        for (int n : new int[]{50, 5, 400, 120}) {
+            CsrStore g = randomGraph(random, n, n * 3, 100).store();
+            int[] dist = new int[n];
+            for (int source = 0; source < n; source += 7) {
+                engine.distances(g, source, dist);
+                Assertions.assertArrayEquals(reference(g, source), dist);
+            }
+        }
+    }
+
+    @Test
+    public void testDialMatchesReference() throws Exception {
+        Random random = new Random(11);
+        DialEngine engine = new DialEngine();
+        for (int maxWeight : new int[]{1, 3, 100, 0, 1000}) {
+            int n = 300;
+            CsrStore g = randomGraph(random, n, n * 4, maxWeight).store();
+            int[] dist = new int[n];
+            for (int source = 0; source < n; source += 13) {
+                engine.distances(g, source, dist);
+                Assertions.assertArrayEquals(reference(g, source), dist, "maxWeight " + maxWeight);
+            }
+        }
+    }
+
+    @Test
+    public void testDeltaSteppingMatchesReference() throws Exception {
+        Random random = new Random(19);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int delta : new int[]{0, 1, 10, 1000}) {
+                DeltaSteppingEngine engine = new DeltaSteppingEngine(pool, delta);
+                for (int maxWeight : new int[]{0, 1, 50, 100_000}) {
+                    // Large enough that relaxation rounds are split across the pool
+                    int n = 6000;
+                    CsrStore g = randomGraph(random, n, n * 4, maxWeight).store();
+                    int[] dist = new int[n];
+                    for (int source = 0; source < n; source += 1500) {
+                        engine.distances(g, source, dist);
+                        Assertions.assertArrayEquals(reference(g, source), dist, "delta " + delta + ", maxWeight " + maxWeight);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBfsWithEqualWeights() throws Exception {
+        BfsEngine engine = new BfsEngine();
+        CsrGraph e10k = new CsrGraph();
+        e10k.load("e10k.txt");
+        int[] dist = new int[e10k.getVertexCount()];
+        engine.distances(e10k.store(), 0, dist);
+        Assertions.assertArrayEquals(reference(e10k.store(), 0), dist);
+
+        for (int weight : new int[]{0, 7}) {
+            CsrGraph graph = new CsrGraph();
+            graph.load(List.of("a", "b", "b", "c", "a", "c", "d", "d"), List.of(weight, weight, weight, weight));
+            dist = new int[4];
+            engine.distances(graph.store(), 0, dist);
+            Assertions.assertArrayEquals(new int[]{0, weight, weight, Integer.MAX_VALUE}, dist);
+        }
+    }
+
+    @Test
+    public void testAutoStrategySelection() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        Assertions.assertEquals(ShortestPathStrategy.BFS, ShortestPathStrategy.AUTO.resolve(graph.store()));
+        graph.load("e10k.txt");
+        Assertions.assertEquals(ShortestPathStrategy.BFS, ShortestPathStrategy.AUTO.resolve(graph.store()));
+        graph.load("g1.txt");
+        Assertions.assertEquals(ShortestPathStrategy.DIAL, ShortestPathStrategy.AUTO.resolve(graph.store()));
+        Assertions.assertEquals(ShortestPathStrategy.DIJKSTRA, ShortestPathStrategy.BFS.resolve(graph.store()));
+        graph.load(List.of("a", "b", "b", "c"), List.of(1, ShortestPathStrategy.DIAL_MAX_WEIGHT + 1));
+        Assertions.assertEquals(ShortestPathStrategy.DIJKSTRA, ShortestPathStrategy.AUTO.resolve(graph.store()));
+        Assertions.assertEquals(ShortestPathStrategy.DIJKSTRA, ShortestPathStrategy.DIAL.resolve(graph.store()));
+        graph.load(List.of("a", "b", "b", "c"), List.of(1, ShortestPathStrategy.DIAL_MAX_WEIGHT));
+        Assertions.assertEquals(ShortestPathStrategy.DIAL, ShortestPathStrategy.DIAL.resolve(graph.store()));
+    }
+
+    @Test
+    public void testDialWithHugeWeights() throws Exception {
+        // One bucket per weight would overflow the bucket count, so DIAL runs as Dijkstra here
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "b", "c", "a", "c"), List.of(Integer.MAX_VALUE, 1, 1_000_000_000));
+        graph.setShortestPathStrategy(ShortestPathStrategy.DIAL);
+        ShortestPathTree tree = graph.getShortestPaths("a");
+        Assertions.assertEquals(1_000_000_000, tree.getDistance("c"));
+        Assertions.assertEquals(1_000_000_001, tree.getDistance("b"));
+        Assertions.assertEquals(List.of("a", "c", "b"), tree.getPath("b"));
+    }
+
+    @Test
+    public void testStrategiesAgreeThroughGraph() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load("g1.txt");
+        Map<String, Integer> expected = graph.getShortestPaths("a");
+        for (ShortestPathStrategy strategy : ShortestPathStrategy.values()) {
+            graph.setShortestPathStrategy(strategy);
+            Assertions.assertEquals(expected, graph.getShortestPaths("a"), strategy.name());
+        }
+    }
+
+    @Test
+    public void testParentsFormShortestPathTree() throws Exception {
+        Random random = new Random(23);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ShortestPathEngine[] engines = {new DijkstraEngine(), new DialEngine(), new DeltaSteppingEngine(pool, 1)};
+            // Many zero weights, so neighbors often have equal distances; large enough to relax in parallel
+            CsrStore g = randomGraph(random, 6000, 6000 * 4, 2).store();
+            CsrStore equal = randomGraph(random, 3000, 3000 * 3, 0).store();
+            int[] dist = new int[6000];
+            int[] parent = new int[6000];
+            for (ShortestPathEngine engine : engines) {
+                for (int source = 0; source < 6000; source += 1500) {
+                    engine.distances(g, source, dist, parent);
+                    assertParents(g, source, dist, parent, engine.getClass().getSimpleName());
+                }
+            }
+            new BfsEngine().distances(equal, 0, dist, parent);
+            assertParents(equal, 0, dist, parent, "BfsEngine");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that every reachable vertex is one parent edge further than its parent, and reaches the source.
+     */
+    private static void assertParents(CsrStore g, int source, int[] dist, int[] parent, String engine) {
+        int n = g.vertexCount();
+        Assertions.assertArrayEquals(reference(g, source), Arrays.copyOf(dist, n), engine);
+        for (int v = 0; v < n; v++) {
+            if (v == source || dist[v] == Integer.MAX_VALUE) {
+                Assertions.assertEquals(-1, parent[v], engine);
+                continue;
+            }
+            int u = parent[v];
+            long best = Long.MAX_VALUE;
+            for (int slot = g.offset(u); slot < g.offset(u + 1); slot++) {
+                if (g.target(slot) == v) {
+                    best = Math.min(best, g.weight(slot));
+                }
+            }
+            Assertions.assertEquals(dist[v], dist[u] + best, engine);
+            int steps = 0;
+            for (int w = v; w != source; w = parent[w]) {
+                Assertions.assertTrue(++steps <= n, engine + ": the parents of " + v + " form a cycle");
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownSourceAndUnreachable() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "c", "d"), List.of(3, 4));
+        int[] dist = new int[4];
+        new DijkstraEngine().distances(graph.store(), -1, dist);
+        Assertions.assertArrayEquals(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MAX_VALUE}, dist);
+        new DijkstraEngine().distances(graph.store(), 0, dist);
+        Assertions.assertArrayEquals(new int[]{0, 3, Integer.MAX_VALUE, Integer.MAX_VALUE}, dist);
+    }
+
+    @Test
+    public void testLargeWeightsDoNotOverflow() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "b", "c"), List.of(Integer.MAX_VALUE - 1, 5));
+        int[] dist = new int[3];
+        new DijkstraEngine().distances(graph.store(), 0, dist);
+        Assertions.assertEquals(Integer.MAX_VALUE - 1, dist[1]);
+        Assertions.assertEquals(Integer.MAX_VALUE, dist[2]);
+
+        graph.load(List.of("a", "b", "b", "c"), List.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1));
+        new BfsEngine().distances(graph.store(), 0, dist);
+        Assertions.assertArrayEquals(new int[]{0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE}, dist);
+    }
+
+    static CsrGraph randomGraph(Random random, int n, int m, int maxWeight) throws Exception {
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            // Every vertex appears, some only through a self-loop, so there are unreachable vertices
+            edges.add(String.valueOf(v));
+            edges.add(String.valueOf(random.nextInt(4) == 0 ? v : random.nextInt(n)));
+            weights.add(random.nextInt(maxWeight + 1));
+        }
+        for (int i = n; i < m; i++) {
+            edges.add(String.valueOf(random.nextInt(n)));
+            edges.add(String.valueOf(random.nextInt(n)));
+            weights.add(random.nextInt(maxWeight + 1));
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        return graph;
+    }
+
+    /**
+     * Textbook Dijkstra with a boxed priority queue and lazy deletion.
+     */
+    static int[] reference(CsrStore g, int source) {
+        int[] dist = new int[g.vertexCount()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+        PriorityQueue<long[]> pq = new PriorityQueue<>((x, y) -> Long.compare(x[0], y[0]));
+        pq.add(new long[]{0, source});
+        while (!pq.isEmpty()) {
+            long[] top = pq.poll();
+            int u = (int) top[1];
+            if (top[0] > dist[u]) continue;
+            for (int slot = g.offset(u); slot < g.offset(u + 1); slot++) {
+                int v = g.target(slot);
+                long d = top[0] + g.weight(slot);
+                if (d < dist[v]) {
+                    dist[v] = (int) d;
+                    pq.add(new long[]{d, v});
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,75 @@
+package abhay.graphnexus;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The single-source shortest path algorithm used by {@link CsrGraph#getShortestPaths(String)}
+ * and the queries built on it.
+ */
+public enum ShortestPathStrategy {
+    /**
+     * Chooses from the weight range of the graph: BFS when all weights are equal, Dial's buckets
+     * when the largest weight is at most {@link #DIAL_MAX_WEIGHT}, Dijkstra otherwise.
+     */
+    AUTO,
+    /**
+     * Dijkstra's algorithm with an indexed 4-ary heap, O((V + E) log V) for any weights.
+     */
+    DIJKSTRA,
+    /**
+     * Dial's bucket queue, O(V + E + maxDistance); keeps one bucket per possible weight. On graphs
+     * with a weight above {@link #DIAL_MAX_WEIGHT}, Dijkstra's algorithm is used instead.
+     */
+    DIAL,
+    /**
+     * Breadth-first search, O(V + E). Only correct when all edges have the same weight;
+     * on other graphs Dijkstra's algorithm is used instead.
+     */
+    BFS,
+    /**
+     * Parallel delta-stepping on the common ForkJoinPool. The bucket width can be set with
+     * {@link CsrGraph#setDeltaSteppingDelta(int)}.
+     */
+    DELTA_STEPPING;
+
+    /**
+     * The largest edge weight for which Dial's buckets are used, by {@link #AUTO} or {@link #DIAL}.
+     */
+    public static final int DIAL_MAX_WEIGHT = 1 << 16;
+
+    /**
+     * Resolves this strategy to the algorithm that will run on the given adjacency.
+     */
+    ShortestPathStrategy resolve(CsrStore graph) {
+        boolean uniform = graph.minWeight() == graph.maxWeight();
+        switch (this) {
+            case AUTO:
+                if (uniform) return BFS;
+                return graph.maxWeight() <= DIAL_MAX_WEIGHT ? DIAL : DIJKSTRA;
+            case DIAL:
+                return graph.maxWeight() <= DIAL_MAX_WEIGHT ? DIAL : DIJKSTRA;
+            case BFS:
+                return uniform ? BFS : DIJKSTRA;
+            default:
+                return this;
+        }
+    }
+
+    /**
+     * @return A new engine for this algorithm; not defined for {@link #AUTO}.
+     */
+    ShortestPathEngine newEngine() {
+        switch (this) {
+            case DIJKSTRA:
+                return new DijkstraEngine();
+            case DIAL:
+                return new DialEngine();
+            case BFS:
+                return new BfsEngine();
+            case DELTA_STEPPING:
+                return new DeltaSteppingEngine(ForkJoinPool.commonPool(), 0);
+            default:
+                throw new IllegalStateException("Strategy " + this + " must be resolved first");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package abhay.graphnexus;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The shortest paths from one source, returned by {@link Graph#getShortestPaths(String)}.
+ *
+ * The tree is backed by a distance array and a parent array indexed by vertex id. It is also a read-only
+ * {@code Map<String, Integer>} from every vertex of the graph to its distance, -1 for unreachable
+ * vertices; entries are created only when they are read. The tree may be shared through the graph's
+ * {@link ShortestPathCache}.
+ *
+ * The parents are written by the search as it lowers distances, so a path is read by following them
+ * in O(path length), with no pass over the graph. Instances are immutable and may be shared between threads.
+ */
+public final class ShortestPathTree extends AbstractMap<String, Integer> {
+    private static final int NONE = -1;
+
+    private final VertexIndex vertices;
+    private final int source;
+    private final int[] dist;
+    private final int[] parent;
+    private Set<Map.Entry<String, Integer>> entries;
+
+    /**
+     * @param source The source id, or -1 for a source that is not in the graph.
+     * @param dist The distances, Integer.MAX_VALUE for unreachable vertices. Not modified.
+     * @param parent The parents, -1 for the source and unreachable vertices. Not modified.
+     */
+    ShortestPathTree(VertexIndex vertices, int source, int[] dist, int[] parent) {
+        this.vertices = vertices;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+    }
+
+    /**
+     * @return The source vertex, or null if it is not in the graph.
+     */
+    public String getSource() {
+        return source >= 0 ? vertices.nameOf(source) : null;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to a vertex.
+     *
+     * @param target A vertex of the graph.
+     * @return The length of the shortest path, or -1 if no such path exists.
+     * @throws IllegalArgumentException If target is not a vertex.
+     */
+    public int getDistance(String target) {
+        int d = dist[idOf(target)];
+        return d == Integer.MAX_VALUE ? -1 : d;
+    }
+
+    /**
+     * Returns a shortest path from the source to a vertex.
+     *
+     * @param target A vertex of the graph.
+     * @return The vertices of the path, starting with the source and ending with target,
+     *          or an empty list if no such path exists.
+     * @throws IllegalArgumentException If target is not a vertex.
+     */
+    public List<String> getPath(String target) {
+        int t = idOf(target);
+        if (dist[t] == Integer.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        int[] p = parent;
+        int length = 0;
+        for (int v = t; v != NONE; v = p[v]) {
+            length++;
+        }
+        String[] path = new String[length];
+        for (int v = t; v != NONE; v = p[v]) {
+            path[--length] = vertices.nameOf(v);
+        }
+        return Collections.unmodifiableList(Arrays.asList(path));
+    }
+
+    /**
+     * @return The distances indexed by vertex id, Integer.MAX_VALUE for unreachable vertices. Must not be modified.
+     */
+    int[] distances() {
+        return dist;
+    }
+
+    @Override
+    public int size() {
+        return vertices.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && vertices.idOf((String) key) >= 0;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int id = vertices.idOf((String) key);
+        return id >= 0 ? valueOf(id) : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Integer>> entrySet() {
+        if (entries == null) {
+            entries = new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return vertices.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < vertices.size();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int id = next++;
+                            return new AbstractMap.SimpleImmutableEntry<>(vertices.nameOf(id), valueOf(id));
+                        }
+                    };
+                }
+            };
+        }
+        return entries;
+    }
+
+    private int idOf(String target) {
+        int id = vertices.idOf(target);
+        if (id < 0) {
+            throw new IllegalArgumentException("Not a vertex: " + target);
+        }
+        return id;
+    }
+
+    private Integer valueOf(int id) {
+        int d = dist[id];
+        return d == Integer.MAX_VALUE ? -1 : d;
+    }
+}
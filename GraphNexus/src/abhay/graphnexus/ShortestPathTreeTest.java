@@ -0,0 +1,97 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class ShortestPathTreeTest {
+
+    @Test
+    public void testMapView() throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(List.of("a", "b", "b", "c", "a", "c", "x", "y"), List.of(1, 1, 5, 2));
+        ShortestPathTree tree = graph.getShortestPaths("a");
+        Map<String, Integer> expected = Map.of("a", 0, "b", 1, "c", 2, "x", -1, "y", -1);
+        Assertions.assertEquals(expected, tree);
+        Assertions.assertEquals(expected, new HashMap<>(tree));
+        Assertions.assertEquals(expected.hashCode(), tree.hashCode());
+        Assertions.assertEquals(5, tree.size());
+        Assertions.assertEquals("a", tree.getSource());
+        Assertions.assertEquals(-1, tree.getDistance("x"));
+        Assertions.assertNull(tree.get("z"));
+        Assertions.assertFalse(tree.containsKey("z"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tree.put("a", 3));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> tree.remove("a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.getDistance("z"));
+
+        // A source outside the graph reaches nothing
+        ShortestPathTree none = graph.getShortestPaths("z");
+        Assertions.assertNull(none.getSource());
+        Assertions.assertEquals(-1, none.get("a").intValue());
+        Assertions.assertEquals(List.of(), none.getPath("a"));
+    }
+
+    @Test
+    public void testPaths() throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(List.of("a", "b", "b", "c", "a", "c", "c", "d", "x", "y"), List.of(1, 1, 5, 0, 3));
+        ShortestPathTree tree = graph.getShortestPaths("a");
+        Assertions.assertEquals(List.of("a"), tree.getPath("a"));
+        Assertions.assertEquals(List.of("a", "b", "c", "d"), tree.getPath("d"));
+        Assertions.assertEquals(List.of(), tree.getPath("y"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.getPath("z"));
+
+        // A tracked source keeps the paths of the moment it was asked, not the repaired ones
+        graph.trackShortestPaths("a");
+        ShortestPathTree tracked = graph.getShortestPaths("a");
+        graph.updateWeight("a", "c", 0);
+        Assertions.assertEquals(List.of("a", "b", "c", "d"), tracked.getPath("d"));
+        Assertions.assertEquals(List.of("a", "c", "d"), graph.getShortestPaths("a").getPath("d"));
+        Assertions.assertEquals(0, graph.getShortestPaths("a").getDistance("d"));
+
+        // Vertices added later are not in a tree taken before them
+        graph.addEdge("d", "e", 1);
+        Assertions.assertFalse(tracked.containsKey("e"));
+        Assertions.assertEquals(6, tracked.size());
+        Assertions.assertEquals(1, graph.getShortestPaths("a").getDistance("e"));
+    }
+
+    @Test
+    public void testPathsMatchDistances() throws Exception {
+        Random random = new Random(17);
+        int n = 500;
+        List<String> edges = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int i = 0; i < 3 * n; i++) {
+            edges.add(String.valueOf(random.nextInt(n)));
+            edges.add(String.valueOf(random.nextInt(n)));
+            // Many zero weights, so neighbors often have equal distances
+            weights.add(random.nextInt(3));
+        }
+        CsrGraph graph = new CsrGraph();
+        graph.load(edges, weights);
+        for (String s : List.of("0", "1", "2")) {
+            ShortestPathTree tree = graph.getShortestPaths(s);
+            for (String t : graph.getVertices()) {
+                int expected = tree.get(t);
+                List<String> path = tree.getPath(t);
+                if (expected < 0) {
+                    Assertions.assertTrue(path.isEmpty());
+                    continue;
+                }
+                Assertions.assertEquals(s, path.get(0));
+                Assertions.assertEquals(t, path.get(path.size() - 1));
+                int length = 0;
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    length += graph.getWeight(path.get(i), path.get(i + 1));
+                }
+                Assertions.assertEquals(expected, length);
+            }
+        }
+    }
+}
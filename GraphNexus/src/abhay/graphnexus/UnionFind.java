@@ -0,0 +1,67 @@
+package abhay.graphnexus;
+
+/**
+ * Disjoint sets over ids 0 .. n - 1, with union by rank and path compression.
+ */
+final class UnionFind {
+    private final int[] parent;
+    private final byte[] rank;
+    private int sets;
+
+    UnionFind(int n) {
+        parent = new int[n];
+        rank = new byte[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        sets = n;
+    }
+
+    /**
+     * @return The representative of the set containing x.
+     */
+    int find(int x) {
+        int root = x;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // Point every vertex on the path straight at the root
+        while (parent[x] != root) {
+            int next = parent[x];
+            parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets containing a and b.
+     *
+     * @return true if a and b were in different sets.
+     */
+    boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (rank[ra] < rank[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        if (rank[ra] == rank[rb]) {
+            rank[ra]++;
+        }
+        sets--;
+        return true;
+    }
+
+    /**
+     * @return The number of disjoint sets.
+     */
+    int sets() {
+        return sets;
+    }
+}
@@ -0,0 +1,249 @@
+package abhay.graphnexus;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assigns dense int ids to vertex names, in the order the names are first seen.
+ * Ids run from 0 to size() - 1 and never change once assigned, so graph algorithms can use
+ * plain int arrays indexed by id and only translate back to names at the API boundary.
+ *
+ * Lookups use an open-addressing table keyed by the cached String hash code. Each slot packs the
+ * spread hash with id + 1 into one long, so probing only touches the table until a hash matches,
+ * and there are no boxed ids or per-entry node objects.
+ */
+public class VertexDictionary implements VertexIndex {
+    private String[] names;
+    private long[] table;
+    private int size;
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    public VertexDictionary() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty dictionary sized for the given number of vertices.
+     *
+     * @param expectedSize The number of vertices expected to be interned.
+     */
+    public VertexDictionary(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        names = new String[capacity];
+        table = new long[tableSizeFor(capacity)];
+    }
+
+    private VertexDictionary(VertexDictionary other) {
+        names = Arrays.copyOf(other.names, Math.max(16, other.size));
+        table = other.table.clone();
+        size = other.size;
+    }
+
+    /**
+     * Returns the id of a vertex, assigning the next free id if the vertex is new.
+     *
+     * @param name The vertex name.
+     * @return The id of the vertex.
+     */
+    public int intern(String name) {
+        int hash = spread(name.hashCode());
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        long entry;
+        while ((entry = table[slot]) != 0) {
+            if ((int) (entry >>> 32) == hash && names[(int) entry - 1].equals(name)) {
+                return (int) entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        table[slot] = ((long) hash << 32) | (id + 1);
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a vertex given as characters, assigning the next free id if the vertex is new.
+     * A String is only created for a new vertex, so the characters may be a buffer the caller reuses.
+     *
+     * @param name The vertex name.
+     * @return The id of the vertex.
+     */
+    public int intern(CharSequence name) {
+        if (name instanceof String) {
+            return intern((String) name);
+        }
+        int length = name.length();
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + name.charAt(i);
+        }
+        // The same hash String.hashCode gives, so both forms of a name find the same slot
+        int hash = spread(h);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        long entry;
+        while ((entry = table[slot]) != 0) {
+            if ((int) (entry >>> 32) == hash && names[(int) entry - 1].contentEquals(name)) {
+                return (int) entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return intern(name.toString());
+    }
+
+    /**
+     * Returns the id of a vertex.
+     *
+     * @param name The vertex name.
+     * @return The id of the vertex, or -1 if the vertex is unknown.
+     */
+    @Override
+    public int idOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int hash = spread(name.hashCode());
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        long entry;
+        while ((entry = table[slot]) != 0) {
+            if ((int) (entry >>> 32) == hash && names[(int) entry - 1].equals(name)) {
+                return (int) entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the name of a vertex.
+     *
+     * @param id A vertex id.
+     * @return The name the id was assigned to.
+     * @throws IndexOutOfBoundsException If the id has not been assigned.
+     */
+    @Override
+    public String nameOf(int id) {
+        Objects.checkIndex(id, size);
+        return names[id];
+    }
+
+    /**
+     * @return The number of interned vertices.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns every vertex name in id order.
+     *
+     * @return A read-only view of the names, which reflects later interning.
+     */
+    @Override
+    public List<String> names() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return nameOf(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the vertices interned so far, without copying them. Ids never change and the dictionary
+     * only grows, so the view stays the same while later vertices are interned; it does not see them.
+     * Like the dictionary itself, it must not be read while another thread interns.
+     *
+     * @return A read-only view of the first size() vertices.
+     */
+    VertexIndex prefix() {
+        int limit = size;
+        return new VertexIndex() {
+            @Override
+            public int idOf(String name) {
+                int id = VertexDictionary.this.idOf(name);
+                return id < limit ? id : -1;
+            }
+
+            @Override
+            public String nameOf(int id) {
+                Objects.checkIndex(id, limit);
+                return names[id];
+            }
+
+            @Override
+            public int size() {
+                return limit;
+            }
+
+            @Override
+            public List<String> names() {
+                return new AbstractList<String>() {
+                    @Override
+                    public String get(int index) {
+                        return nameOf(index);
+                    }
+
+                    @Override
+                    public int size() {
+                        return limit;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return An independent copy of this dictionary with the same ids.
+     */
+    public VertexDictionary copy() {
+        return new VertexDictionary(this);
+    }
+
+    private void rehash(int newLength) {
+        long[] newTable = new long[newLength];
+        int mask = newLength - 1;
+        for (long entry : table) {
+            if (entry == 0) continue;
+            int slot = (int) (entry >>> 32) & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = entry;
+        }
+        table = newTable;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    /**
+     * Mixes all bits of a hash code into the low bits used to pick a table slot (MurmurHash3 finalizer).
+     */
+    static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
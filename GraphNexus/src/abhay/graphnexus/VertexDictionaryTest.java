@@ -0,0 +1,81 @@
+package abhay.graphnexus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class VertexDictionaryTest {
+
+    @Test
+    public void testIdsAreDenseAndStable() {
+        VertexDictionary dictionary = new VertexDictionary();
+        Assertions.assertEquals(0, dictionary.intern("a"));
+        Assertions.assertEquals(1, dictionary.intern("b"));
+        Assertions.assertEquals(0, dictionary.intern(new String("a")));
+        Assertions.assertEquals(2, dictionary.size());
+        Assertions.assertEquals("b", dictionary.nameOf(1));
+        Assertions.assertEquals(-1, dictionary.idOf("c"));
+        Assertions.assertEquals(-1, dictionary.idOf(null));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> dictionary.nameOf(2));
+    }
+
+    @Test
+    public void testCharSequenceNames() {
+        VertexDictionary dictionary = new VertexDictionary();
+        StringBuilder buffer = new StringBuilder("a");
+        Assertions.assertEquals(0, dictionary.intern(buffer));
+        buffer.setLength(0);
+        buffer.append("bc");
+        Assertions.assertEquals(1, dictionary.intern(buffer));
+        Assertions.assertEquals(1, dictionary.intern("bc"));
+        // The name was copied, so reusing the buffer does not change it
+        buffer.setCharAt(0, 'x');
+        Assertions.assertEquals(0, dictionary.intern((CharSequence) "a"));
+        Assertions.assertEquals("bc", dictionary.nameOf(1));
+        Assertions.assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        VertexDictionary dictionary = new VertexDictionary(4);
+        for (int i = 0; i < 100000; i++) {
+            Assertions.assertEquals(i, dictionary.intern(String.valueOf(i)));
+        }
+        for (int i = 0; i < 100000; i++) {
+            Assertions.assertEquals(i, dictionary.idOf(String.valueOf(i)));
+        }
+        Assertions.assertEquals("99999", dictionary.names().get(99999));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        VertexDictionary dictionary = new VertexDictionary();
+        dictionary.intern("a");
+        VertexDictionary copy = dictionary.copy();
+        dictionary.intern("b");
+        Assertions.assertEquals(List.of("a"), copy.names());
+        Assertions.assertEquals(-1, copy.idOf("b"));
+        Assertions.assertEquals(1, copy.intern("c"));
+        Assertions.assertEquals(List.of("a", "b"), dictionary.names());
+    }
+
+    @Test
+    public void testPrefixIgnoresLaterNames() {
+        VertexDictionary dictionary = new VertexDictionary(4);
+        dictionary.intern("a");
+        dictionary.intern("b");
+        VertexIndex prefix = dictionary.prefix();
+        // Enough names to grow the arrays and rehash the table under the view
+        for (int i = 0; i < 1000; i++) {
+            dictionary.intern(String.valueOf(i));
+        }
+        Assertions.assertEquals(2, prefix.size());
+        Assertions.assertEquals(List.of("a", "b"), prefix.names());
+        Assertions.assertEquals(1, prefix.idOf("b"));
+        Assertions.assertEquals(-1, prefix.idOf("0"));
+        Assertions.assertEquals(-1, prefix.idOf(null));
+        Assertions.assertEquals("b", prefix.nameOf(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> prefix.nameOf(2));
+    }
+}
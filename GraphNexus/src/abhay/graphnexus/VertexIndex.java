@@ -0,0 +1,32 @@
+package abhay.graphnexus;
+
+import java.util.List;
+
+/**
+ * A read-only mapping between vertex names and dense int ids 0 .. size() - 1.
+ */
+interface VertexIndex {
+
+    /**
+     * @param name The vertex name.
+     * @return The id of the vertex, or -1 if the vertex is unknown.
+     */
+    int idOf(String name);
+
+    /**
+     * @param id A vertex id.
+     * @return The name of the vertex.
+     * @throws IndexOutOfBoundsException If the id is not in 0 .. size() - 1.
+     */
+    String nameOf(int id);
+
+    /**
+     * @return The number of vertices.
+     */
+    int size();
+
+    /**
+     * @return A read-only view of every vertex name in id order.
+     */
+    List<String> names();
+}
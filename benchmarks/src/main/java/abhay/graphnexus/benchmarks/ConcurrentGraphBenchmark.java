@@ -0,0 +1,95 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.ConcurrentGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query throughput of a {@link ConcurrentGraph} with and without a thread reloading it: three
+ * readers run getShortestPaths alone in the "reads" group, and next to a thread that reloads
+ * between two versions of the graph in the "mixed" group. The shortest path cache is disabled,
+ * as in {@link GraphBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentGraphBenchmark {
+    private static final int QUERY_NAMES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"10000", "100000"})
+        public int size;
+
+        @Param({"GRID", "RMAT"})
+        public Topology topology;
+
+        final ConcurrentGraph graph = new ConcurrentGraph();
+        Topology.Input[] versions;
+        String[] names;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            // Two graphs of the same shape and size, with different edges and weights
+            versions = new Topology.Input[]{topology.generate(size, 1), topology.generate(size, 2)};
+            graph.load(versions[0].edges, versions[0].weights);
+            graph.getShortestPathCache().setMaxWeight(0);
+            names = new String[QUERY_NAMES];
+            Random random = new Random(7);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = versions[0].edges.get(random.nextInt(versions[0].edges.size()));
+            }
+        }
+    }
+
+    /**
+     * The position of one thread in the query names, or in the versions for the reloading thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Group("reads")
+    @GroupThreads(3)
+    public Map<String, Integer> readsOnly(Shared shared, Cursor cursor) {
+        cursor.next = (cursor.next + 1) & (QUERY_NAMES - 1);
+        return shared.graph.getShortestPaths(shared.names[cursor.next]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Map<String, Integer> readsDuringReloads(Shared shared, Cursor cursor) {
+        cursor.next = (cursor.next + 1) & (QUERY_NAMES - 1);
+        return shared.graph.getShortestPaths(shared.names[cursor.next]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public ConcurrentGraph reload(Shared shared, Cursor cursor) throws Exception {
+        Topology.Input version = shared.versions[cursor.next ^= 1];
+        shared.graph.load(version.edges, version.weights);
+        return shared.graph;
+    }
+}
@@ -0,0 +1,119 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.ContractionHierarchy;
+import abhay.graphnexus.CsrGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contraction hierarchy preprocessing, opening a saved hierarchy instead, and s-t distance and path
+ * latency, against bidirectional Dijkstra with 16 ALT landmarks on the same queries.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ContractionHierarchyBenchmark {
+    private static final int QUERY_PAIRS = 1024;
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"90000"})
+        public int size;
+
+        @Param({"GRID", "ROAD"})
+        public Topology topology;
+
+        CsrGraph graph;
+        ContractionHierarchy hierarchy;
+        Path file;
+        String[] sources;
+        String[] targets;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input = topology.generate(size, SEED);
+            graph = new CsrGraph();
+            graph.load(input.edges, input.weights);
+            graph.setLandmarkCount(16);
+            hierarchy = ContractionHierarchy.build(graph);
+            file = Files.createTempFile("graphnexus-" + topology + "-" + size, ".gnxh");
+            hierarchy.save(file);
+            sources = new String[QUERY_PAIRS];
+            targets = new String[QUERY_PAIRS];
+            Random random = new Random(7);
+            for (int i = 0; i < QUERY_PAIRS; i++) {
+                sources[i] = input.edges.get(random.nextInt(input.edges.size()));
+                targets[i] = input.edges.get(random.nextInt(input.edges.size()));
+            }
+            // Chooses the landmarks before the trial starts
+            graph.getDistance(sources[0], targets[0]);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws Exception {
+            Files.deleteIfExists(file);
+        }
+
+        int nextPair() {
+            next = (next + 1) & (QUERY_PAIRS - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public ContractionHierarchy build(Loaded loaded) {
+        return ContractionHierarchy.build(loaded.graph);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public ContractionHierarchy open(Loaded loaded) throws Exception {
+        return ContractionHierarchy.open(loaded.file, loaded.graph);
+    }
+
+    @Benchmark
+    public int altDistance(Loaded loaded) {
+        int i = loaded.nextPair();
+        return loaded.graph.getDistance(loaded.sources[i], loaded.targets[i]);
+    }
+
+    @Benchmark
+    public int getDistance(Loaded loaded) {
+        int i = loaded.nextPair();
+        return loaded.hierarchy.getDistance(loaded.sources[i], loaded.targets[i]);
+    }
+
+    @Benchmark
+    public List<String> getPath(Loaded loaded) {
+        int i = loaded.nextPair();
+        return loaded.hierarchy.getPath(loaded.sources[i], loaded.targets[i]);
+    }
+}
@@ -0,0 +1,176 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.GraphBuilder;
+import abhay.graphnexus.GraphImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the public Graph operations on a {@link GraphImpl}, parameterized by vertex count
+ * and {@link Topology}. The file, the lists and the edge arrays hold the same generated graph.
+ *
+ * Queries cycle through precomputed random vertex names, so no benchmark measures a single warm
+ * source or pays for building names. The shortest path cache is disabled, so getShortestPaths
+ * measures a search rather than a cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class GraphBenchmark {
+    private static final int QUERY_NAMES = 1024;
+    private static final long SEED = 42;
+
+    /**
+     * A generated graph in every input form: the edge and weight lists, a file, and int arrays that
+     * stand in for a primitive upstream source feeding a {@link GraphBuilder}.
+     */
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"1000", "10000", "100000"})
+        public int size;
+
+        @Param({"RANDOM", "GRID", "ROAD", "PATH", "ERDOS_RENYI", "RMAT", "POWER_LAW"})
+        public Topology topology;
+
+        Topology.Input lists;
+        Path file;
+        int[] sources;
+        int[] targets;
+        int[] weights;
+
+        @Setup(Level.Trial)
+        public void generate() throws Exception {
+            lists = topology.generate(size, SEED);
+            int edgeCount = lists.weights.size();
+            sources = new int[edgeCount];
+            targets = new int[edgeCount];
+            weights = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                sources[e] = Integer.parseInt(lists.edges.get(2 * e));
+                targets[e] = Integer.parseInt(lists.edges.get(2 * e + 1));
+                weights[e] = lists.weights.get(e);
+            }
+            file = Files.createTempFile("graphnexus-" + topology + "-" + size, ".txt");
+            GraphGenerator.write(topology, size, (long) Topology.DEFAULT_EDGE_FACTOR * size, Topology.DEFAULT_MAX_WEIGHT,
+                    SEED, file);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws Exception {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A loaded graph, with random vertex names to query and the MST as a report subgraph.
+     */
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        GraphImpl graph;
+        String[] names;
+        List<String> mst;
+
+        @Setup(Level.Trial)
+        public void load(Input input) throws Exception {
+            graph = new GraphImpl();
+            graph.load(input.lists.edges, input.lists.weights);
+            graph.getShortestPathCache().setMaxWeight(0);
+            Random random = new Random(7);
+            names = new String[QUERY_NAMES];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = input.lists.edges.get(random.nextInt(input.lists.edges.size()));
+            }
+            mst = graph.getMST();
+        }
+    }
+
+    /**
+     * The position of one benchmark thread in the query names.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String nextName(Loaded loaded) {
+            next = (next + 1) & (QUERY_NAMES - 1);
+            return loaded.names[next];
+        }
+    }
+
+    @Benchmark
+    public GraphImpl loadFile(Input input) throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(input.file.toString());
+        return graph;
+    }
+
+    @Benchmark
+    public GraphImpl loadLists(Input input) throws Exception {
+        GraphImpl graph = new GraphImpl();
+        graph.load(input.lists.edges, input.lists.weights);
+        return graph;
+    }
+
+    @Benchmark
+    public GraphImpl loadBuilder(Input input) {
+        GraphBuilder builder = new GraphBuilder();
+        // Names are formatted into reused buffers, as a streaming source would
+        StringBuilder u = new StringBuilder();
+        StringBuilder v = new StringBuilder();
+        for (int e = 0; e < input.weights.length; e++) {
+            u.setLength(0);
+            v.setLength(0);
+            builder.addEdge(u.append(input.sources[e]), v.append(input.targets[e]), input.weights[e]);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<String, Integer> getShortestPaths(Loaded loaded, Cursor cursor) {
+        return loaded.graph.getShortestPaths(cursor.nextName(loaded));
+    }
+
+    @Benchmark
+    public List<String> getMST(Loaded loaded) {
+        return loaded.graph.getMST();
+    }
+
+    @Benchmark
+    public Set<String> getReport(Loaded loaded, Cursor cursor) {
+        return loaded.graph.getReport(cursor.nextName(loaded), loaded.mst);
+    }
+
+    @Benchmark
+    public boolean hasEdge(Loaded loaded, Cursor cursor) {
+        return loaded.graph.hasEdge(cursor.nextName(loaded), cursor.nextName(loaded));
+    }
+
+    @Benchmark
+    public void getAdjacent(Loaded loaded, Cursor cursor, Blackhole blackhole) {
+        for (String v : loaded.graph.getAdjacent(cursor.nextName(loaded))) {
+            blackhole.consume(v);
+        }
+    }
+}
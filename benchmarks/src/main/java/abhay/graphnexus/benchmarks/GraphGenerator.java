@@ -0,0 +1,161 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Writes synthetic graphs of any {@link Topology} in the text format read by {@code Graph.load(String)},
+ * streaming the edges to disk as they are generated. Memory stays O(|V|) whatever the edge count: a bit
+ * per vertex id records which vertices appear, and the vertex count is written into space reserved at
+ * the start of the file once the last edge is out.
+ *
+ * <pre>
+ * java -cp benchmarks.jar abhay.graphnexus.benchmarks.GraphGenerator topology vertexCount output
+ *      [--edges count] [--max-weight weight] [--seed seed] [--binary output.gnx]
+ * </pre>
+ * --edges defaults to {@link Topology#DEFAULT_EDGE_FACTOR} per vertex, --max-weight to
+ * {@link Topology#DEFAULT_MAX_WEIGHT} and --seed to 42. --binary also writes the binary format of
+ * {@code CsrGraph.save}; that step loads the graph, so it needs memory for the whole graph.
+ */
+public final class GraphGenerator {
+    /** Room for any int vertex count, padded with spaces that the loader trims. */
+    private static final int HEADER_BYTES = 16;
+
+    private GraphGenerator() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: GraphGenerator topology vertexCount output [--edges count]"
+                    + " [--max-weight weight] [--seed seed] [--binary output.gnx]");
+            System.err.println("Topologies: " + java.util.Arrays.toString(Topology.values()));
+            System.exit(2);
+        }
+        try {
+            Topology topology = Topology.valueOf(args[0].toUpperCase(Locale.ROOT));
+            int vertexCount = Integer.parseInt(args[1]);
+            Path output = Path.of(args[2]);
+            long edgeCount = (long) Topology.DEFAULT_EDGE_FACTOR * vertexCount;
+            int maxWeight = Topology.DEFAULT_MAX_WEIGHT;
+            long seed = 42;
+            Path binary = null;
+            for (int i = 3; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--edges": edgeCount = Long.parseLong(args[i + 1]); break;
+                    case "--max-weight": maxWeight = Integer.parseInt(args[i + 1]); break;
+                    case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                    case "--binary": binary = Path.of(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+
+            long start = System.nanoTime();
+            long[] counts = write(topology, vertexCount, edgeCount, maxWeight, seed, output);
+            System.out.printf("Wrote %,d vertices and %,d edges to %s in %.1f s%n", counts[0], counts[1], output,
+                    (System.nanoTime() - start) / 1e9);
+            if (binary != null) {
+                start = System.nanoTime();
+                CsrGraph graph = new CsrGraph();
+                graph.load(output.toString());
+                graph.save(binary);
+                System.out.printf("Wrote %s in %.1f s%n", binary, (System.nanoTime() - start) / 1e9);
+            }
+        } catch (Exception e) {
+            System.err.println("An error occurred during generation: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates a graph straight into a text file.
+     *
+     * @param path The file to create or replace.
+     * @return The number of vertices and the number of edge lines written.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If an argument is out of range, see
+     *          {@link Topology#generate(int, long, int, long, Topology.EdgeSink)}.
+     */
+    public static long[] write(Topology topology, int vertexCount, long edgeCount, int maxWeight, long seed, Path path)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            TextWriter out = new TextWriter(channel, vertexCount);
+            topology.generate(vertexCount, edgeCount, maxWeight, seed, out);
+            out.finish();
+            return new long[]{out.seen.cardinality(), out.edges};
+        }
+    }
+
+    /**
+     * Formats edges as "u v weight" lines into a direct buffer, without creating strings.
+     */
+    private static final class TextWriter implements Topology.EdgeSink {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private final byte[] digits = new byte[10];
+        final BitSet seen;
+        long edges;
+
+        TextWriter(FileChannel channel, int vertexCount) throws IOException {
+            this.channel = channel;
+            this.seen = new BitSet(vertexCount);
+            for (int i = 0; i < HEADER_BYTES - 1; i++) {
+                buffer.put((byte) ' ');
+            }
+            buffer.put((byte) '\n');
+        }
+
+        @Override
+        public void edge(int u, int v, int weight) throws IOException {
+            if (buffer.remaining() < 3 * 11) {
+                flush();
+            }
+            seen.set(u);
+            seen.set(v);
+            putInt(u);
+            buffer.put((byte) ' ');
+            putInt(v);
+            buffer.put((byte) ' ');
+            putInt(weight);
+            buffer.put((byte) '\n');
+            edges++;
+        }
+
+        private void putInt(int value) {
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (length > 0) {
+                buffer.put(digits[--length]);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes the buffered edges and the vertex count.
+         */
+        void finish() throws IOException {
+            flush();
+            byte[] count = Integer.toString(seen.cardinality()).getBytes(StandardCharsets.US_ASCII);
+            channel.write(ByteBuffer.wrap(count), 0);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time from a graph file to the first query: parsing the text file with the memory-mapped parallel
+ * loader, against opening the binary file written by CsrGraph.save. Each call loads into a fresh
+ * CsrGraph, so nothing is reused between calls except the operating system page cache.
+ * splitLines is the line-by-line BufferedReader and String.split loop the loader replaced, reading
+ * the same file without building a graph.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LoadBenchmark {
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"1000000"})
+        public int size;
+
+        @Param({"RANDOM"})
+        public Topology topology;
+
+        Path text;
+        Path binary;
+
+        @Setup(Level.Trial)
+        public void write() throws Exception {
+            text = Files.createTempFile("graphnexus-" + topology + "-" + size, ".txt");
+            GraphGenerator.write(topology, size, (long) Topology.DEFAULT_EDGE_FACTOR * size, Topology.DEFAULT_MAX_WEIGHT,
+                    SEED, text);
+            binary = Files.createTempFile("graphnexus-" + topology + "-" + size, ".gnx");
+            CsrGraph graph = new CsrGraph();
+            graph.load(text.toString());
+            graph.save(binary);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws Exception {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Benchmark
+    public int parseText(Input input) throws Exception {
+        CsrGraph graph = new CsrGraph();
+        graph.load(input.text.toString());
+        return degree(graph, "0");
+    }
+
+    @Benchmark
+    public int openBinary(Input input) throws Exception {
+        return degree(CsrGraph.open(input.binary), "0");
+    }
+
+    @Benchmark
+    public int splitLines(Input input) throws Exception {
+        int edges = 0;
+        Set<String> vertices = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(input.text)) {
+            Integer.parseInt(reader.readLine().trim());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3 || Integer.parseInt(parts[2]) < 0) {
+                    throw new Exception("Invalid input format");
+                }
+                vertices.add(parts[0]);
+                vertices.add(parts[1]);
+                edges++;
+            }
+        }
+        return edges + vertices.size();
+    }
+
+    private static int degree(CsrGraph graph, String vertex) {
+        int degree = 0;
+        for (String ignored : graph.getAdjacent(vertex)) {
+            degree++;
+        }
+        return degree;
+    }
+}
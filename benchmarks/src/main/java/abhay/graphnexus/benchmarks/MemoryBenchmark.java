@@ -0,0 +1,143 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.GraphBuilder;
+import abhay.graphnexus.GraphImpl;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The heap retained by one graph in each form it takes on the way to a query: the input as edge
+ * lists, a {@link GraphBuilder} fed the same edges through reused buffers, a {@link GraphImpl} loaded
+ * from the lists, and its {@link CsrGraph} snapshot. Every form is built from fresh copies of the
+ * names, so each counts its own Strings, and nothing else that it needs stays reachable.
+ *
+ * retainedHeap reports the growth of the heap in use across building one form, measured after full
+ * collections, as its retainedBytes and bytesPerEdge counters. JMH sums such counters over iterations
+ * and forks, so it measures one iteration in one fork, as {@link StorageBenchmark#retainedHeap} does.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MemoryBenchmark {
+    private static final long SEED = 42;
+
+    public enum Form {
+        LISTS, BUILDER, GRAPH_IMPL, CSR_GRAPH
+    }
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        @Param({"RANDOM"})
+        public Topology topology;
+
+        @Param({"LISTS", "BUILDER", "GRAPH_IMPL", "CSR_GRAPH"})
+        public Form form;
+
+        Topology.Input input;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            input = topology.generate(size, SEED);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedBytes;
+        public double bytesPerEdge;
+    }
+
+    @Benchmark
+    public Object retainedHeap(Input input, Heap heap) throws Exception {
+        List<String> edges = input.input.edges;
+        List<Integer> weights = input.input.weights;
+        long before = usedHeap();
+        Object built;
+        switch (input.form) {
+            case LISTS:
+                built = copy(edges, weights);
+                break;
+            case BUILDER:
+                built = build(edges, weights);
+                break;
+            case GRAPH_IMPL:
+                built = load(edges, weights);
+                break;
+            default:
+                built = load(edges, weights).freeze();
+        }
+        heap.retainedBytes = usedHeap() - before;
+        heap.bytesPerEdge = (double) heap.retainedBytes / weights.size();
+        return built;
+    }
+
+    /**
+     * Copies the input with its own Strings. Boxed weights from an upstream source are rarely the
+     * cached small values, so the copy boxes values outside the Integer cache.
+     */
+    private static List<List<?>> copy(List<String> edges, List<Integer> weights) {
+        List<Integer> copiedWeights = new ArrayList<>(weights.size());
+        for (int weight : weights) {
+            copiedWeights.add(Integer.valueOf(Integer.MAX_VALUE - weight));
+        }
+        return List.of(copyNames(edges), copiedWeights);
+    }
+
+    private static List<String> copyNames(List<String> edges) {
+        List<String> copied = new ArrayList<>(edges.size());
+        for (String name : edges) {
+            copied.add(new String(name));
+        }
+        return copied;
+    }
+
+    private static GraphBuilder build(List<String> edges, List<Integer> weights) {
+        GraphBuilder builder = new GraphBuilder();
+        StringBuilder u = new StringBuilder();
+        StringBuilder v = new StringBuilder();
+        for (int i = 0; i < weights.size(); i++) {
+            u.setLength(0);
+            v.setLength(0);
+            builder.addEdge(u.append(edges.get(2 * i)), v.append(edges.get(2 * i + 1)), weights.get(i));
+        }
+        return builder;
+    }
+
+    private static GraphImpl load(List<String> edges, List<Integer> weights) throws Exception {
+        // Loaded from copied names, which the graph keeps while the copied list becomes garbage
+        GraphImpl graph = new GraphImpl();
+        graph.load(copyNames(edges), weights);
+        return graph;
+    }
+
+    private static long usedHeap() {
+        // A single System.gc() is not always a full collection, so settle the heap first
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
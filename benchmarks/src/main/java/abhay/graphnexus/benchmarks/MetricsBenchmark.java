@@ -0,0 +1,87 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.GraphImpl;
+import abhay.graphnexus.GraphMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of {@link GraphMetrics}: the same searches as {@link GraphBenchmark} with metrics disabled,
+ * which should match GraphBenchmark, and enabled, which adds two clock reads, two allocation counter
+ * reads and a record per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MetricsBenchmark {
+    private static final int QUERY_NAMES = 1024;
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"10000", "100000"})
+        public int size;
+
+        @Param({"GRID", "RMAT"})
+        public Topology topology;
+
+        @Param({"false", "true"})
+        public boolean enabled;
+
+        GraphImpl graph;
+        String[] names;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input = topology.generate(size, SEED);
+            graph = new GraphImpl();
+            graph.load(input.edges, input.weights);
+            graph.getShortestPathCache().setMaxWeight(0);
+            names = new String[QUERY_NAMES];
+            Random random = new Random(7);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = input.edges.get(random.nextInt(input.edges.size()));
+            }
+            GraphMetrics.setEnabled(enabled);
+        }
+
+        @TearDown(Level.Trial)
+        public void disable() {
+            GraphMetrics.setEnabled(false);
+        }
+
+        String nextName() {
+            next = (next + 1) & (QUERY_NAMES - 1);
+            return names[next];
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> getShortestPaths(Loaded loaded) {
+        return loaded.graph.getShortestPaths(loaded.nextName());
+    }
+
+    @Benchmark
+    public List<String> getMST(Loaded loaded) {
+        return loaded.graph.getMST();
+    }
+}
@@ -0,0 +1,80 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.MstStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link MstStrategy} on graphs with the same number of edges: a sparse and a dense Erdos-Renyi
+ * graph and a grid. BORUVKA runs on the common pool, so its scaling is measured by repeating a run with
+ * {@code -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MstBenchmark {
+    private static final long SEED = 42;
+
+    public enum Shape {
+        /** An Erdos-Renyi graph with five edges per vertex. */
+        SPARSE,
+        /** An Erdos-Renyi graph with about as many vertices as a complete graph of the same edge count. */
+        DENSE,
+        /** A square grid, two edges per vertex. */
+        GRID
+    }
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"1000000"})
+        public int edges;
+
+        @Param({"SPARSE", "DENSE", "GRID"})
+        public Shape shape;
+
+        @Param({"PRIM", "KRUSKAL", "BORUVKA"})
+        public MstStrategy strategy;
+
+        CsrGraph graph;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input;
+            switch (shape) {
+                case SPARSE:
+                    input = Topology.ERDOS_RENYI.generate(edges / 5, edges, Topology.DEFAULT_MAX_WEIGHT, SEED);
+                    break;
+                case DENSE:
+                    input = Topology.ERDOS_RENYI.generate((int) Math.sqrt(2.0 * edges), edges,
+                            Topology.DEFAULT_MAX_WEIGHT, SEED);
+                    break;
+                default:
+                    input = Topology.GRID.generate(edges / 2, SEED);
+            }
+            graph = new CsrGraph();
+            graph.load(input.edges, input.weights);
+            graph.setMstStrategy(strategy);
+        }
+    }
+
+    @Benchmark
+    public List<String> getMST(Loaded loaded) {
+        return loaded.graph.getMST();
+    }
+}
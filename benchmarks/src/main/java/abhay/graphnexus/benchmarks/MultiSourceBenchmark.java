@@ -0,0 +1,99 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.DistanceMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time to search from a batch of sources: the batched getShortestPaths(Collection, pool) on pools
+ * of 1..N threads, against calling getShortestPaths(String) once per source. The shortest path cache is
+ * disabled, so every source is searched.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MultiSourceBenchmark {
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"100000"})
+        public int size;
+
+        @Param({"ERDOS_RENYI"})
+        public Topology topology;
+
+        @Param({"256"})
+        public int sourceCount;
+
+        CsrGraph graph;
+        List<String> sources;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input = topology.generate(size, SEED);
+            graph = new CsrGraph();
+            graph.load(input.edges, input.weights);
+            graph.getShortestPathCache().setMaxWeight(0);
+            sources = new ArrayList<>();
+            Random random = new Random(7);
+            for (int i = 0; i < sourceCount; i++) {
+                sources.add(input.edges.get(random.nextInt(input.edges.size())));
+            }
+        }
+    }
+
+    /**
+     * The pool the batched searches run on.
+     */
+    @State(Scope.Benchmark)
+    public static class Workers {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void start() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void loop(Loaded loaded, Blackhole blackhole) {
+        for (String s : loaded.sources) {
+            blackhole.consume(loaded.graph.getShortestPaths(s));
+        }
+    }
+
+    @Benchmark
+    public DistanceMatrix batched(Loaded loaded, Workers workers) {
+        return loaded.graph.getShortestPaths(loaded.sources, workers.pool);
+    }
+}
@@ -0,0 +1,134 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.GraphMetrics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One s-t distance query answered by a full getShortestPaths(s) search, which settles the whole
+ * graph, against getDistance(s, t) on bidirectional Dijkstra without and with ALT landmarks. Landmarks
+ * direct the search well on a grid and hardly at all on an Erdos-Renyi graph. The shortest path cache
+ * is disabled, so every full search is a real one.
+ *
+ * settledVertices runs every query pair once both ways with {@link GraphMetrics} enabled, and reports
+ * the mean number of vertices each settles as its fullSettled and pairSettled counters.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PointToPointBenchmark {
+    private static final int QUERY_PAIRS = 1024;
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"160000"})
+        public int size;
+
+        @Param({"GRID", "ERDOS_RENYI"})
+        public Topology topology;
+
+        CsrGraph graph;
+        String[] sources;
+        String[] targets;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input = topology.generate(size, SEED);
+            graph = new CsrGraph();
+            graph.load(input.edges, input.weights);
+            graph.getShortestPathCache().setMaxWeight(0);
+            sources = new String[QUERY_PAIRS];
+            targets = new String[QUERY_PAIRS];
+            Random random = new Random(7);
+            for (int i = 0; i < QUERY_PAIRS; i++) {
+                sources[i] = input.edges.get(random.nextInt(input.edges.size()));
+                targets[i] = input.edges.get(random.nextInt(input.edges.size()));
+            }
+        }
+
+        int nextPair() {
+            next = (next + 1) & (QUERY_PAIRS - 1);
+            return next;
+        }
+    }
+
+    /**
+     * The landmark count for getDistance; the landmarks are chosen before the trial starts.
+     */
+    @State(Scope.Benchmark)
+    public static class Landmarked {
+        @Param({"0", "4", "16"})
+        public int landmarks;
+
+        @Setup(Level.Trial)
+        public void choose(Loaded loaded) {
+            loaded.graph.setLandmarkCount(landmarks);
+            loaded.graph.getDistance(loaded.sources[0], loaded.targets[0]);
+        }
+    }
+
+    /**
+     * Vertices settled per query. JMH sums such counters over iterations and forks, so
+     * settledVertices measures one iteration in one fork.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Settled {
+        public long fullSettled;
+        public long pairSettled;
+    }
+
+    @Benchmark
+    public Integer fullSearch(Loaded loaded) {
+        int i = loaded.nextPair();
+        return loaded.graph.getShortestPaths(loaded.sources[i]).get(loaded.targets[i]);
+    }
+
+    @Benchmark
+    public int getDistance(Loaded loaded, Landmarked landmarked) {
+        int i = loaded.nextPair();
+        return loaded.graph.getDistance(loaded.sources[i], loaded.targets[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+    public void settledVertices(Loaded loaded, Landmarked landmarked, Settled settled) {
+        long full = 0, pair = 0;
+        GraphMetrics.setEnabled(true);
+        try {
+            for (int i = 0; i < QUERY_PAIRS; i++) {
+                loaded.graph.getShortestPaths(loaded.sources[i]);
+                full += GraphMetrics.lastCall().getSettled();
+                loaded.graph.getDistance(loaded.sources[i], loaded.targets[i]);
+                pair += GraphMetrics.lastCall().getSettled();
+            }
+        } finally {
+            GraphMetrics.setEnabled(false);
+        }
+        settled.fullSettled = full / QUERY_PAIRS;
+        settled.pairSettled = pair / QUERY_PAIRS;
+    }
+}
@@ -0,0 +1,106 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.GraphImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of edge changes followed by reading the distances from a few sources, with the sources
+ * tracked by GraphImpl, which repairs their trees under each change, and untracked, which searches
+ * again after every batch.
+ *
+ * Each change picks an edge of the generated graph and removes it, puts it back if it was removed, or
+ * gives it a new weight, so the graph keeps its shape over the whole trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RepairBenchmark {
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"100000"})
+        public int size;
+
+        @Param({"ERDOS_RENYI"})
+        public Topology topology;
+
+        @Param({"4"})
+        public int sourceCount;
+
+        @Param({"1", "10", "100", "1000"})
+        public int batch;
+
+        @Param({"true", "false"})
+        public boolean tracked;
+
+        Topology.Input input;
+        boolean[] removed;
+        GraphImpl graph;
+        List<String> sources;
+        final Random random = new Random(7);
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            input = topology.generate(size, SEED);
+            removed = new boolean[input.weights.size()];
+            graph = new GraphImpl();
+            graph.load(input.edges, input.weights);
+            sources = new ArrayList<>();
+            for (int i = 0; i < sourceCount; i++) {
+                String s = input.edges.get(random.nextInt(input.edges.size()));
+                sources.add(s);
+                if (tracked) {
+                    graph.trackShortestPaths(s);
+                }
+            }
+        }
+
+        void change() {
+            int e = random.nextInt(removed.length);
+            String u = input.edges.get(2 * e);
+            String v = input.edges.get(2 * e + 1);
+            if (removed[e]) {
+                graph.addEdge(u, v, input.weights.get(e));
+                removed[e] = false;
+            } else if (random.nextInt(4) == 0) {
+                graph.removeEdge(u, v);
+                removed[e] = true;
+            } else {
+                graph.updateWeight(u, v, 1 + random.nextInt(Topology.DEFAULT_MAX_WEIGHT));
+            }
+        }
+    }
+
+    @Benchmark
+    public long changeAndQuery(Loaded loaded) {
+        for (int i = 0; i < loaded.batch; i++) {
+            loaded.change();
+        }
+        long checksum = 0;
+        for (String s : loaded.sources) {
+            for (int d : loaded.graph.getShortestPaths(s).values()) {
+                checksum += d;
+            }
+        }
+        return checksum;
+    }
+}
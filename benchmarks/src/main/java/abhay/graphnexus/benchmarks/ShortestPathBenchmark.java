@@ -0,0 +1,84 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.ShortestPathStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-source search latency of each {@link ShortestPathStrategy} on the same {@link CsrGraph},
+ * over a range of largest weights. Sample mode reports the latency percentiles, and the GC profiler
+ * attached by {@link BenchmarkMain} the bytes allocated per search. The shortest path cache is
+ * disabled, as in {@link GraphBenchmark}.
+ *
+ * BFS only runs on graphs whose weights are all equal (maxWeight 1), and DIAL on graphs whose
+ * largest weight is at most {@link ShortestPathStrategy#DIAL_MAX_WEIGHT}; elsewhere both fall back
+ * to Dijkstra. DELTA_STEPPING runs on the common pool, so its scaling is measured by repeating a run with
+ * {@code -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ShortestPathBenchmark {
+    private static final int QUERY_NAMES = 1024;
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"200000"})
+        public int size;
+
+        @Param({"ERDOS_RENYI", "ROAD"})
+        public Topology topology;
+
+        @Param({"1", "100", "100000"})
+        public int maxWeight;
+
+        @Param({"DIJKSTRA", "DIAL", "BFS", "DELTA_STEPPING"})
+        public ShortestPathStrategy strategy;
+
+        CsrGraph graph;
+        String[] names;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            Topology.Input input = topology.generate(size, (long) Topology.DEFAULT_EDGE_FACTOR * size, maxWeight, SEED);
+            graph = new CsrGraph();
+            graph.load(input.edges, input.weights);
+            graph.setShortestPathStrategy(strategy);
+            graph.getShortestPathCache().setMaxWeight(0);
+            names = new String[QUERY_NAMES];
+            Random random = new Random(7);
+            for (int i = 0; i < names.length; i++) {
+                names[i] = input.edges.get(random.nextInt(input.edges.size()));
+            }
+        }
+
+        String nextName() {
+            next = (next + 1) & (QUERY_NAMES - 1);
+            return names[next];
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> getShortestPaths(Loaded loaded) {
+        return loaded.graph.getShortestPaths(loaded.nextName());
+    }
+}
@@ -0,0 +1,177 @@
+package abhay.graphnexus.benchmarks;
+
+import abhay.graphnexus.CsrGraph;
+import abhay.graphnexus.Graph;
+import abhay.graphnexus.GraphArena;
+import abhay.graphnexus.GraphBuilder;
+import abhay.graphnexus.GraphImpl;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same queries on a {@link GraphImpl}, and on a {@link CsrGraph} whose arrays are on the heap,
+ * copied off-heap by a {@link GraphArena}, or mapped from a saved file by the arena. The shortest path
+ * cache is disabled, as in {@link GraphBenchmark}.
+ *
+ * fullGc times a full collection while the graph is the only large live object, and retainedHeap
+ * reports the heap in use after one as its retainedBytes counter. For the query benchmarks, the GC
+ * profiler attached by {@link BenchmarkMain} reports the collections the queries cause and the time
+ * they take.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageBenchmark {
+    private static final int QUERY_NAMES = 1024;
+    private static final long SEED = 42;
+
+    public enum Storage {
+        GRAPH_IMPL, HEAP, DIRECT, MAPPED
+    }
+
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        @Param({"10000", "100000", "2000000"})
+        public int size;
+
+        @Param({"GRID", "RMAT"})
+        public Topology topology;
+
+        @Param({"GRAPH_IMPL", "HEAP", "DIRECT", "MAPPED"})
+        public Storage storage;
+
+        final GraphArena arena = new GraphArena();
+        Path file;
+        Graph graph;
+        String[] names;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            // Streamed into a builder, so no edge lists stay on the heap next to the graph
+            GraphBuilder builder = new GraphBuilder();
+            StringBuilder u = new StringBuilder();
+            StringBuilder v = new StringBuilder();
+            topology.generate(size, (long) Topology.DEFAULT_EDGE_FACTOR * size, Topology.DEFAULT_MAX_WEIGHT, SEED,
+                    (from, to, weight) -> {
+                        u.setLength(0);
+                        v.setLength(0);
+                        builder.addEdge(u.append(from), v.append(to), weight);
+                    });
+            GraphImpl source = builder.build();
+            source.getShortestPathCache().setMaxWeight(0);
+            switch (storage) {
+                case GRAPH_IMPL:
+                    graph = source;
+                    break;
+                case HEAP:
+                    graph = source.freeze();
+                    break;
+                case DIRECT:
+                    graph = arena.copy(source.freeze());
+                    break;
+                default:
+                    file = Files.createTempFile("graphnexus-" + topology + "-" + size, ".gnx");
+                    source.save(file);
+                    graph = arena.open(file);
+            }
+            if (graph instanceof CsrGraph) {
+                ((CsrGraph) graph).getShortestPathCache().setMaxWeight(0);
+            }
+            names = new String[QUERY_NAMES];
+            Random random = new Random(7);
+            for (int i = 0; i < names.length; ) {
+                String name = String.valueOf(random.nextInt(size));
+                if (graph.hasVertex(name)) {
+                    names[i++] = name;
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            arena.close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        String nextName() {
+            next = (next + 1) & (QUERY_NAMES - 1);
+            return names[next];
+        }
+    }
+
+    /**
+     * The heap in use after a full collection. JMH sums such counters over iterations and forks, so
+     * retainedHeap measures one iteration in one fork.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedBytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void fullGc(Loaded loaded) {
+        System.gc();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+    public void retainedHeap(Loaded loaded, Heap heap) {
+        // A single System.gc() is not always a full collection, so settle the heap first
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        heap.retainedBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public Map<String, Integer> getShortestPaths(Loaded loaded) {
+        return loaded.graph.getShortestPaths(loaded.nextName());
+    }
+
+    @Benchmark
+    public List<String> getMST(Loaded loaded) {
+        return loaded.graph.getMST();
+    }
+
+    @Benchmark
+    public void getAdjacent(Loaded loaded, Blackhole blackhole) {
+        for (String v : loaded.graph.getAdjacent(loaded.nextName())) {
+            blackhole.consume(v);
+        }
+    }
+}
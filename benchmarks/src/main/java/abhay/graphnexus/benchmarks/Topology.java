@@ -0,0 +1,294 @@
+package abhay.graphnexus.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The graph shapes the benchmarks run on and {@link GraphGenerator} writes, generated from a seed.
+ *
+ * Every shape streams its edges to an {@link EdgeSink} and keeps at most O(|V|) state, so graphs far
+ * larger than the heap can be written to disk. The same seed always gives the same edges in the same
+ * order. Vertices are named by their decimal id; a vertex that no edge touches is not in the graph.
+ */
+public enum Topology {
+    /**
+     * A star from vertex 0 plus edgeCount - (vertexCount - 1) random edges, with weights 1..maxWeight;
+     * the shape GraphPerformanceTest used to time.
+     */
+    RANDOM {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            for (int i = 1; i < vertexCount; i++) {
+                sink.edge(0, i, 1 + random.nextInt(maxWeight));
+            }
+            for (long e = vertexCount - 1; e < edgeCount; e++) {
+                int u = random.nextInt(vertexCount);
+                int v = otherThan(u, vertexCount, random);
+                sink.edge(u, v, 1 + random.nextInt(maxWeight));
+            }
+        }
+    },
+    /**
+     * A square grid of about vertexCount vertices with weights 1..maxWeight, where shortest paths have
+     * many hops. The edge count is fixed by the shape.
+     */
+    GRID {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            int side = side(vertexCount);
+            for (int r = 0; r < side; r++) {
+                for (int c = 0; c < side; c++) {
+                    int v = r * side + c;
+                    if (c + 1 < side) sink.edge(v, v + 1, 1 + random.nextInt(maxWeight));
+                    if (r + 1 < side) sink.edge(v, v + side, 1 + random.nextInt(maxWeight));
+                }
+            }
+        }
+    },
+    /**
+     * A road-like network: a square grid with about a fifth of its streets missing, weights that
+     * follow the street length with some noise, and every eighth row and column an arterial road
+     * that is three times faster. Arterial roads are never missing, so only the few blocks whose
+     * streets are all missing are cut off. The edge count is fixed by the shape.
+     */
+    ROAD {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            int side = side(vertexCount);
+            int length = Math.max(1, maxWeight / 2);
+            for (int r = 0; r < side; r++) {
+                for (int c = 0; c < side; c++) {
+                    int v = r * side + c;
+                    if (c + 1 < side) street(v, v + 1, r % 8 == 0, length, maxWeight, random, sink);
+                    if (r + 1 < side) street(v, v + side, c % 8 == 0, length, maxWeight, random, sink);
+                }
+            }
+        }
+
+        private void street(int u, int v, boolean arterial, int length, int maxWeight, SplittableRandom random,
+                            EdgeSink sink) throws IOException {
+            if (!arterial && random.nextInt(5) == 0) {
+                return;
+            }
+            int weight = length + random.nextInt(length) - length / 2;
+            weight = arterial ? Math.max(1, weight / 3) : weight;
+            sink.edge(u, v, Math.max(1, Math.min(maxWeight, weight)));
+        }
+    },
+    /**
+     * A chain 0 - 1 - ... - (vertexCount - 1) with unit weights, the shape of e10k.txt.
+     */
+    PATH {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            for (int i = 0; i + 1 < vertexCount; i++) {
+                sink.edge(i, i + 1, 1);
+            }
+        }
+    },
+    /**
+     * An Erdos-Renyi G(n, m) graph: edgeCount edges with endpoints drawn uniformly.
+     */
+    ERDOS_RENYI {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            for (long e = 0; e < edgeCount; e++) {
+                int u = random.nextInt(vertexCount);
+                sink.edge(u, otherThan(u, vertexCount, random), 1 + random.nextInt(maxWeight));
+            }
+        }
+    },
+    /**
+     * An R-MAT (recursive matrix, a stochastic Kronecker graph) with the Graph500 quadrant
+     * probabilities 0.57, 0.19, 0.19 and 0.05, giving a skewed degree distribution and communities
+     * within communities. Vertex ids are shuffled so that degree does not follow id order.
+     */
+    RMAT {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            int scale = 32 - Integer.numberOfLeadingZeros(Math.max(1, vertexCount - 1));
+            int[] permutation = permutation(vertexCount, random);
+            for (long e = 0; e < edgeCount; ) {
+                int u = 0, v = 0;
+                for (int bit = 0; bit < scale; bit++) {
+                    double p = random.nextDouble();
+                    // Quadrants a, b, c, d of the adjacency matrix
+                    if (p >= 0.57) {
+                        if (p < 0.76) {
+                            v |= 1 << bit;
+                        } else if (p < 0.95) {
+                            u |= 1 << bit;
+                        } else {
+                            u |= 1 << bit;
+                            v |= 1 << bit;
+                        }
+                    }
+                }
+                // Ids past the vertex count come from rounding up to a power of two; draw again
+                if (u >= vertexCount || v >= vertexCount || u == v) {
+                    continue;
+                }
+                sink.edge(permutation[u], permutation[v], 1 + random.nextInt(maxWeight));
+                e++;
+            }
+        }
+    },
+    /**
+     * A Chung-Lu power-law graph: vertex i has expected degree proportional to (i + 1)^(-1 / 1.5),
+     * a degree distribution with exponent 2.5, and each edge joins two vertices drawn with
+     * probability proportional to their expected degrees.
+     */
+    POWER_LAW {
+        @Override
+        void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+                throws IOException {
+            double[] cumulative = new double[vertexCount];
+            double total = 0;
+            for (int i = 0; i < vertexCount; i++) {
+                total += Math.pow(i + 1, -1 / 1.5);
+                cumulative[i] = total;
+            }
+            int[] permutation = permutation(vertexCount, random);
+            for (long e = 0; e < edgeCount; ) {
+                int u = draw(cumulative, random.nextDouble() * total);
+                int v = draw(cumulative, random.nextDouble() * total);
+                if (u == v) {
+                    continue;
+                }
+                sink.edge(permutation[u], permutation[v], 1 + random.nextInt(maxWeight));
+                e++;
+            }
+        }
+
+        private int draw(double[] cumulative, double x) {
+            int low = 0, high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    };
+
+    /** The edge count used when none is given: an average degree of 16, as in Graph500. */
+    public static final int DEFAULT_EDGE_FACTOR = 8;
+    /** The largest weight used when none is given. */
+    public static final int DEFAULT_MAX_WEIGHT = 100;
+
+    /**
+     * Receives generated edges.
+     */
+    @FunctionalInterface
+    public interface EdgeSink {
+        void edge(int u, int v, int weight) throws IOException;
+    }
+
+    /**
+     * Streams the edges of a graph to a sink. Shapes with a fixed edge count ignore edgeCount.
+     *
+     * @param vertexCount The number of vertex ids to draw from; at least 2.
+     * @param edgeCount The number of edges to generate, which may repeat a vertex pair.
+     * @param maxWeight The largest weight; weights are at least 1.
+     */
+    abstract void generate(int vertexCount, long edgeCount, int maxWeight, SplittableRandom random, EdgeSink sink)
+            throws IOException;
+
+    /**
+     * Streams the edges of a graph to a sink.
+     *
+     * @param vertexCount The number of vertex ids to draw from; at least 2.
+     * @param edgeCount The number of edges to generate. Shapes with a fixed edge count ignore it.
+     * @param maxWeight The largest weight; weights are at least 1.
+     * @param seed The seed; equal arguments give equal edges in equal order.
+     * @param sink Receives the edges.
+     * @throws IOException If the sink fails.
+     * @throws IllegalArgumentException If an argument is out of range.
+     */
+    public void generate(int vertexCount, long edgeCount, int maxWeight, long seed, EdgeSink sink) throws IOException {
+        if (vertexCount < 2) {
+            throw new IllegalArgumentException("At least two vertices are needed: " + vertexCount);
+        }
+        if (edgeCount < 0) {
+            throw new IllegalArgumentException("Edge count must not be negative: " + edgeCount);
+        }
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Largest weight must be positive: " + maxWeight);
+        }
+        generate(vertexCount, edgeCount, maxWeight, new SplittableRandom(seed), sink);
+    }
+
+    /**
+     * Generates a graph with the default edge count and weights into new lists.
+     *
+     * @return The edge list and the weight list.
+     */
+    public Input generate(int vertexCount, long seed) {
+        return generate(vertexCount, (long) DEFAULT_EDGE_FACTOR * vertexCount, DEFAULT_MAX_WEIGHT, seed);
+    }
+
+    /**
+     * Generates a graph into new lists.
+     *
+     * @param vertexCount The number of vertex ids to draw from; at least 2.
+     * @param edgeCount The number of edges to generate. Shapes with a fixed edge count ignore it.
+     * @param maxWeight The largest weight; weights are at least 1.
+     * @param seed The seed; equal arguments give equal edges in equal order.
+     * @return The edge list and the weight list.
+     */
+    public Input generate(int vertexCount, long edgeCount, int maxWeight, long seed) {
+        Input input = new Input();
+        try {
+            generate(vertexCount, edgeCount, maxWeight, seed, (u, v, weight) -> {
+                input.edges.add(String.valueOf(u));
+                input.edges.add(String.valueOf(v));
+                input.weights.add(weight);
+            });
+        } catch (IOException e) {
+            throw new AssertionError("Lists do not throw", e);
+        }
+        return input;
+    }
+
+    private static int side(int vertexCount) {
+        return Math.max(2, (int) Math.round(Math.sqrt(vertexCount)));
+    }
+
+    private static int otherThan(int u, int vertexCount, SplittableRandom random) {
+        int v = random.nextInt(vertexCount - 1);
+        return v >= u ? v + 1 : v;
+    }
+
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        return permutation;
+    }
+
+    /**
+     * A generated graph as the lists taken by {@code Graph.load(List, List)}.
+     */
+    public static final class Input {
+        public final List<String> edges = new ArrayList<>();
+        public final List<Integer> weights = new ArrayList<>();
+    }
+}